@@ -0,0 +1,68 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.service.AccountLockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short critical sections under the per-account lock, every thread on its own account or all of
+ * them on one. Run with {@code -t 1}, {@code -t 2}, ... up to the core count: with distinct
+ * accounts throughput should grow with the threads, with one account it cannot.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class AccountLockBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Locks {
+        @Param({"distinct", "same"})
+        private String accounts;
+
+        private AccountLockService accountLockService;
+
+        @Setup
+        public void setUp() {
+            accountLockService = new AccountLockService(1024, 5000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private String account;
+        private long balance;
+
+        @Setup
+        public void setUp(Locks locks, ThreadParams thread) {
+            account = "same".equals(locks.accounts)
+                    ? "1234567890"
+                    : String.format("%010d", 1_000_000_000L + thread.getThreadIndex() * 7919L);
+        }
+    }
+
+    @Benchmark
+    public long withLock(Locks locks, Caller caller) {
+        return locks.accountLockService.withLock(caller.account, () -> {
+            // Stands in for a per-account rule: read, decide, update
+            Blackhole.consumeCPU(64);
+            return ++caller.balance;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.service.TransferAnomalyScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One anomaly score (count the transfer, estimate both signals) for a random pair out of
+ * {@code accounts} accounts. The sketches have the same size whatever the number of accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyScoringBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransferAnomalyScorer scorer;
+    private String[] accountNumbers;
+
+    @Setup
+    public void setUp() {
+        // Thresholds out of reach so no warning is logged
+        context = BenchmarkApplication.start("anomaly-scoring", "--transfers.anomaly.enabled=true",
+                "--transfers.anomaly.velocity-threshold=" + Long.MAX_VALUE,
+                "--transfers.anomaly.destination-threshold=" + Long.MAX_VALUE);
+        scorer = context.getBean(TransferAnomalyScorer.class);
+
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = String.format("%010d", 1_000_000_000L + i);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 4 * accounts; i++) {
+            scorer.score(accountNumbers[random.nextInt(accounts)], accountNumbers[random.nextInt(accounts)]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer score() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return scorer.score(accountNumbers[random.nextInt(accounts)], accountNumbers[random.nextInt(accounts)]);
+    }
+}
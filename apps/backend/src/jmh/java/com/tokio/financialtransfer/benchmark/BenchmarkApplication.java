@@ -0,0 +1,56 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.FinancialTransferApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Boots the application without the web layer for benchmarks that need real
+ * Spring beans (JPA, transactions, Jackson) backed by an isolated H2 database.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Start a context against a dedicated in-memory database.
+     * Extra arguments use the command line syntax ({@code --key=value}) and win over the defaults.
+     */
+    public static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.h2.console.enabled=false",
+                "--transfers.execution.enabled=false",
+                // Benchmarks schedule far past any daily limit on a handful of accounts
+                "--transfers.limits.enabled=false",
+                "--transfers.anomaly.enabled=false",
+                // Most benchmarks schedule the same transfer over and over
+                "--transfers.duplicates.policy=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.tokio.financialtransfer=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+        ));
+        // Repeating an option would make Spring join both values, so drop the defaults that are overridden
+        for (String extraArg : extraArgs) {
+            String key = extraArg.substring(0, extraArg.indexOf('=') + 1);
+            args.removeIf(arg -> arg.startsWith(key));
+            args.add(extraArg);
+        }
+
+        return new SpringApplicationBuilder(FinancialTransferApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+}
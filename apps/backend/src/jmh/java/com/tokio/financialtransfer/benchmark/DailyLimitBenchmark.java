@@ -0,0 +1,82 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.service.DailyLimitService;
+import com.tokio.financialtransfer.util.BusinessClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One daily limit check (reserve and give back) against a table of {@code accounts} accounts
+ * with totals for the next 30 days.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DailyLimitBenchmark {
+
+    private static final int DAYS = 30;
+
+    @Param({"1000", "50000"})
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private DailyLimitService dailyLimitService;
+    private String[] accountNumbers;
+    private LocalDate[] dates;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("daily-limit", "--transfers.limits.enabled=true",
+                "--transfers.limits.daily-amount=100000.00");
+        dailyLimitService = context.getBean(DailyLimitService.class);
+        LocalDate today = context.getBean(BusinessClock.class).today();
+
+        accountNumbers = new String[accounts];
+        dates = new LocalDate[DAYS];
+        for (int day = 0; day < DAYS; day++) {
+            dates[day] = today.plusDays(day);
+        }
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = String.format("%010d", 1_000_000_000L + i);
+            for (LocalDate date : dates) {
+                dailyLimitService.tryReserve(accountNumbers[i], date, new BigDecimal("500.00"));
+            }
+        }
+        amount = new BigDecimal("1234.56");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String account = accountNumbers[random.nextInt(accounts)];
+        LocalDate date = dates[random.nextInt(DAYS)];
+        boolean reserved = dailyLimitService.tryReserve(account, date, amount);
+        dailyLimitService.release(account, date, amount);
+        return reserved;
+    }
+}
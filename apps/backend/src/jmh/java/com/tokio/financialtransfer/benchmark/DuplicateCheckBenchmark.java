@@ -0,0 +1,124 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.service.DuplicateTransferDetector;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate check against a table of {@code transfers} transfers: a new transfer, answered by the
+ * Bloom filter alone; a duplicate, confirmed by the indexed lookup; and, for comparison, the
+ * indexed lookup every check would need without the filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuplicateCheckBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+
+    @Param({"10000", "100000"})
+    private int transfers;
+
+    private ConfigurableApplicationContext context;
+    private DuplicateTransferDetector detector;
+    private FinancialTransferRepository repository;
+    private String[] accountNumbers;
+    private LocalDate transferDate;
+
+    @Setup
+    public void setUp() {
+        // Duplicates are checked over and over, so keep their warnings out of the output
+        context = BenchmarkApplication.start("duplicate-check", "--transfers.duplicates.policy=warn",
+                "--logging.level.com.tokio.financialtransfer.service.DuplicateTransferDetector=ERROR");
+        detector = context.getBean(DuplicateTransferDetector.class);
+        repository = context.getBean(FinancialTransferRepository.class);
+        FinancialTransferService service = context.getBean(FinancialTransferService.class);
+
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.format("%010d", 1_000_000_000L + i);
+        }
+        transferDate = LocalDate.now().plusDays(5);
+
+        List<TransferRequestDTO> chunk = new ArrayList<>(1000);
+        for (int i = 0; i < transfers; i++) {
+            chunk.add(request(i));
+            if (chunk.size() == 1000) {
+                service.scheduleTransferBatch(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            service.scheduleTransferBatch(chunk);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean newTransfer() {
+        // Stored amounts are whole reais, so an amount with cents is never a duplicate
+        int i = ThreadLocalRandom.current().nextInt(transfers);
+        return detector.check(source(i), destination(i), amount(i).add(new BigDecimal("0.01")), transferDate);
+    }
+
+    @Benchmark
+    public boolean duplicate() {
+        int i = ThreadLocalRandom.current().nextInt(transfers);
+        return detector.check(source(i), destination(i), amount(i), transferDate);
+    }
+
+    @Benchmark
+    public boolean exactLookupOnly() {
+        int i = ThreadLocalRandom.current().nextInt(transfers);
+        return repository.existsDuplicate(source(i), destination(i), amount(i).add(new BigDecimal("0.01")), transferDate);
+    }
+
+    private TransferRequestDTO request(int i) {
+        TransferRequestDTO request = new TransferRequestDTO();
+        request.setSourceAccount(source(i));
+        request.setDestinationAccount(destination(i));
+        request.setTransferAmount(amount(i));
+        request.setTransferDate(transferDate);
+        return request;
+    }
+
+    private String source(int i) {
+        return accountNumbers[i % ACCOUNTS];
+    }
+
+    private String destination(int i) {
+        return accountNumbers[(i / ACCOUNTS + 1 + i) % ACCOUNTS];
+    }
+
+    private static BigDecimal amount(int i) {
+        return BigDecimal.valueOf(100 + i / ACCOUNTS, 0).setScale(2);
+    }
+}
@@ -0,0 +1,66 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.service.FeeCalculationService;
+import com.tokio.financialtransfer.service.FeeQuoteCache;
+import com.tokio.financialtransfer.service.FeeScheduleRegistry;
+import com.tokio.financialtransfer.util.BusinessClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fee quoting across every band of the schedule.
+ * Run with {@code -prof gc} to get the allocation rate per quote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeCalculationBenchmark {
+
+    /** One offset inside each band: same day, 1-10, 11-20, 21-30, 31-40 and 41-50 days. */
+    @Param({"0", "5", "15", "25", "35", "45"})
+    private int dayOffset;
+
+    @Param({"1234.56"})
+    private String amount;
+
+    @Param({"false", "true"})
+    private boolean quoteCache;
+
+    private FeeCalculationService feeCalculationService;
+    private BigDecimal transferAmount;
+    private LocalDate transferDate;
+
+    @Setup
+    public void setUp() {
+        FeeScheduleRegistry feeScheduleRegistry = new FeeScheduleRegistry(
+                new ObjectMapper(), new DefaultResourceLoader(), "classpath:fee-schedule.json");
+        feeScheduleRegistry.init();
+        BusinessClock businessClock = new BusinessClock("");
+        feeCalculationService = new FeeCalculationService(feeScheduleRegistry, businessClock, new FeeQuoteCache(quoteCache, 4096));
+        transferAmount = new BigDecimal(amount);
+        transferDate = businessClock.today().plusDays(dayOffset);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFee() {
+        return feeCalculationService.calculateFee(transferAmount, transferDate);
+    }
+}
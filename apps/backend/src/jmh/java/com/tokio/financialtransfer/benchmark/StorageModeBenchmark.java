@@ -0,0 +1,113 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.dto.TransferPageDTO;
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling and listing against the in-memory database and against the file-backed database
+ * the prod profile uses (MVStore file, Flyway schema, Hibernate validate), both preloaded with
+ * {@link #PRELOADED_ROWS} transfers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageModeBenchmark {
+
+    private static final int PRELOADED_ROWS = 10_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"mem", "file"})
+    private String storage;
+
+    @Param({"65536"})
+    private int cacheSizeKb;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private FinancialTransferService financialTransferService;
+    private TransferRequestDTO request;
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("file".equals(storage)) {
+            dataDir = Files.createTempDirectory("storage-benchmark");
+            context = BenchmarkApplication.start("storage",
+                    "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("financial-transfers")
+                            + ";CACHE_SIZE=" + cacheSizeKb + ";DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.flyway.enabled=true",
+                    "--spring.jpa.hibernate.ddl-auto=validate");
+        } else {
+            context = BenchmarkApplication.start("storage");
+        }
+        financialTransferService = context.getBean(FinancialTransferService.class);
+
+        List<FinancialTransfer> transfers = new ArrayList<>(PRELOADED_ROWS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PRELOADED_ROWS; i++) {
+            transfers.add(FinancialTransfer.builder()
+                    .sourceAccount(String.format("%010d", i % 1000))
+                    .destinationAccount("0987654321")
+                    .transferAmount(new BigDecimal("1000.00"))
+                    .fee(new BigDecimal("12.00"))
+                    .transferDate(LocalDate.now().plusDays(i % 51))
+                    .scheduleDate(now.minusSeconds(i))
+                    .build());
+        }
+        context.getBean(FinancialTransferRepository.class).saveAll(transfers);
+
+        request = new TransferRequestDTO();
+        request.setSourceAccount("1234567890");
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(LocalDate.now().plusDays(5));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (dataDir != null) {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+    }
+
+    @Benchmark
+    public TransferResponseDTO scheduleTransfer() {
+        return financialTransferService.scheduleTransfer(request);
+    }
+
+    @Benchmark
+    public TransferPageDTO firstPage() {
+        return financialTransferService.getTransfersPage(PAGE_SIZE, null);
+    }
+}
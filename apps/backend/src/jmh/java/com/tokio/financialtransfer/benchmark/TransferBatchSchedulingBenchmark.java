@@ -0,0 +1,76 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk scheduling of {@link #BATCH_SIZE} transfers per call; scores are per transfer so they
+ * compare directly with {@link TransferSchedulingBenchmark}. A JDBC batch size of 1 turns
+ * statement batching off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(TransferBatchSchedulingBenchmark.BATCH_SIZE)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBatchSchedulingBenchmark {
+
+    static final int BATCH_SIZE = 5000;
+
+    @Param({"1", "500"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private FinancialTransferService financialTransferService;
+    private List<TransferRequestDTO> requests;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("batch-scheduling",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        financialTransferService = context.getBean(FinancialTransferService.class);
+
+        requests = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            TransferRequestDTO request = new TransferRequestDTO();
+            request.setSourceAccount("1234567890");
+            request.setDestinationAccount("0987654321");
+            request.setTransferAmount(BigDecimal.valueOf(100_000 + i, 2));
+            request.setTransferDate(LocalDate.now().plusDays(i % 50));
+            requests.add(request);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferBatchResponseDTO scheduleTransferBatch() {
+        return financialTransferService.scheduleTransferBatch(requests);
+    }
+}
@@ -0,0 +1,68 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.dto.TransferImportReportDTO;
+import com.tokio.financialtransfer.service.TransferImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV import of {@link #ROWS} transfers per call, from parsing to the batched inserts; scores
+ * are per imported transfer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(TransferImportBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferImportBenchmark {
+
+    static final int ROWS = 20_000;
+
+    private ConfigurableApplicationContext context;
+    private TransferImportService transferImportService;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("import");
+        transferImportService = context.getBean(TransferImportService.class);
+
+        LocalDate today = LocalDate.now();
+        StringBuilder builder = new StringBuilder("sourceAccount,destinationAccount,transferAmount,transferDate\n");
+        for (int i = 0; i < ROWS; i++) {
+            builder.append("1234567890,0987654321,")
+                    .append(1000 + i % 5000).append('.').append(i % 10).append('0').append(',')
+                    .append(today.plusDays(i % 50)).append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferImportReportDTO importCsv() throws IOException {
+        return transferImportService.importCsv(new ByteArrayInputStream(csv));
+    }
+}
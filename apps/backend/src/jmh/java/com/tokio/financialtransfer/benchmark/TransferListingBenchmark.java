@@ -0,0 +1,116 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.ApiResponse;
+import com.tokio.financialtransfer.dto.TransferPageDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import com.tokio.financialtransfer.util.TransferCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path of {@code GET /api/transfers}: loading the rows, mapping them to
+ * {@link TransferResponseDTO} and serializing the {@link ApiResponse} envelope with Jackson.
+ * The page benchmarks fetch {@link #PAGE_SIZE} rows from the start and from the end of the listing;
+ * {@code searchBySourceAccount} looks up the transfers of one account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferListingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private FinancialTransferService financialTransferService;
+    private ObjectMapper objectMapper;
+    private List<TransferResponseDTO> loadedTransfers;
+    private String deepCursor;
+    private TransferSearchCriteria accountSearch;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("listing" + rows);
+        financialTransferService = context.getBean(FinancialTransferService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<FinancialTransfer> transfers = new ArrayList<>(rows);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            transfers.add(FinancialTransfer.builder()
+                    .sourceAccount(String.format("%010d", i))
+                    .destinationAccount(String.format("%010d", rows + i))
+                    .transferAmount(new BigDecimal("1000.00").add(BigDecimal.valueOf(i, 2)))
+                    .fee(new BigDecimal("12.00"))
+                    .transferDate(LocalDate.now().plusDays(i % 51))
+                    .scheduleDate(now.minusSeconds(i))
+                    .build());
+        }
+        context.getBean(FinancialTransferRepository.class).saveAll(transfers);
+
+        loadedTransfers = financialTransferService.getAllTransfers();
+        TransferResponseDTO nearEnd = loadedTransfers.get(Math.max(0, loadedTransfers.size() - PAGE_SIZE - 1));
+        deepCursor = new TransferCursor(nearEnd.getScheduleDate(), nearEnd.getId()).encode();
+        accountSearch = TransferSearchCriteria.builder().sourceAccount(String.format("%010d", rows / 2)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] listAndSerialize() throws JsonProcessingException {
+        List<TransferResponseDTO> transfers = financialTransferService.getAllTransfers();
+        return objectMapper.writeValueAsBytes(ApiResponse.success(transfers, "Transfers retrieved successfully"));
+    }
+
+    @Benchmark
+    public byte[] serializeOnly() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(loadedTransfers, "Transfers retrieved successfully"));
+    }
+
+    @Benchmark
+    public TransferPageDTO firstPage() {
+        return financialTransferService.getTransfersPage(PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public TransferPageDTO deepPage() {
+        return financialTransferService.getTransfersPage(PAGE_SIZE, deepCursor);
+    }
+
+    @Benchmark
+    public TransferPageDTO searchBySourceAccount() {
+        return financialTransferService.searchTransfers(accountSearch, PAGE_SIZE, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scheduling path: fee calculation, entity mapping and the transactional insert into H2,
+ * with and without anomaly scoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferSchedulingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean anomalyScoring;
+
+    private ConfigurableApplicationContext context;
+    private FinancialTransferService financialTransferService;
+    private TransferRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        // Thresholds out of reach so the one account is never flagged and no warning is logged
+        context = BenchmarkApplication.start("scheduling", "--transfers.anomaly.enabled=" + anomalyScoring,
+                "--transfers.anomaly.velocity-threshold=" + Long.MAX_VALUE,
+                "--transfers.anomaly.destination-threshold=" + Long.MAX_VALUE);
+        financialTransferService = context.getBean(FinancialTransferService.class);
+
+        request = new TransferRequestDTO();
+        request.setSourceAccount("1234567890");
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(LocalDate.now().plusDays(5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferResponseDTO scheduleTransfer() {
+        return financialTransferService.scheduleTransfer(request);
+    }
+}
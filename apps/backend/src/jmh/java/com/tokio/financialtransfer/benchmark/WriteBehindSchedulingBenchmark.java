@@ -0,0 +1,92 @@
+package com.tokio.financialtransfer.benchmark;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import com.tokio.financialtransfer.service.TransferWriteBehindService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Burst of concurrent single schedules, each committed on its own or grouped by the
+ * write-behind writer, against the in-memory and the file-backed database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class WriteBehindSchedulingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean writeBehind;
+
+    @Param({"mem", "file"})
+    private String storage;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private FinancialTransferService financialTransferService;
+    private TransferWriteBehindService transferWriteBehindService;
+    private TransferRequestDTO request;
+
+    @Setup
+    public void setUp() throws IOException {
+        String writeBehindArg = "--transfers.write-behind.enabled=" + writeBehind;
+        if ("file".equals(storage)) {
+            dataDir = Files.createTempDirectory("write-behind-benchmark");
+            context = BenchmarkApplication.start("write-behind", writeBehindArg,
+                    "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("financial-transfers")
+                            + ";DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.flyway.enabled=true",
+                    "--spring.jpa.hibernate.ddl-auto=validate");
+        } else {
+            context = BenchmarkApplication.start("write-behind", writeBehindArg);
+        }
+        financialTransferService = context.getBean(FinancialTransferService.class);
+        transferWriteBehindService = context.getBean(TransferWriteBehindService.class);
+
+        request = new TransferRequestDTO();
+        request.setSourceAccount("1234567890");
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(LocalDate.now().plusDays(5));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (dataDir != null) {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+    }
+
+    @Benchmark
+    public TransferResponseDTO scheduleTransfer() {
+        return writeBehind
+                ? transferWriteBehindService.scheduleTransfer(request)
+                : financialTransferService.scheduleTransfer(request);
+    }
+}
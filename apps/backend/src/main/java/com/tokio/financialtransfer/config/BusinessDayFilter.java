@@ -0,0 +1,28 @@
+package com.tokio.financialtransfer.config;
+
+import com.tokio.financialtransfer.util.BusinessClock;
+import lombok.RequiredArgsConstructor;
+
+import javax.servlet.*;
+import java.io.IOException;
+
+/**
+ * Pins the business day for the whole request, so date validation during binding and fee
+ * calculation later on read the same "today".
+ */
+@RequiredArgsConstructor
+public class BusinessDayFilter implements Filter {
+
+    private final BusinessClock businessClock;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        businessClock.pin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            businessClock.unpin();
+        }
+    }
+}
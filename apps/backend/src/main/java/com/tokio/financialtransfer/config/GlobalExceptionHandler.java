@@ -10,9 +10,13 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 @Slf4j
@@ -49,6 +53,42 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(mainMessage, errors));
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleConstraintViolationException(
+            ConstraintViolationException ex) {
+
+        LoggingContext.set("validationError", "true");
+
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+            // Property path is "method.parameter"; keep only the parameter name
+            String path = violation.getPropertyPath().toString();
+            errors.put(path.substring(path.lastIndexOf('.') + 1), violation.getMessage());
+        }
+
+        String mainMessage = "Dados inválidos fornecidos";
+        if (errors.size() == 1) {
+            mainMessage = errors.values().iterator().next();
+        }
+
+        LoggingContext.set("validationErrors", errors.toString());
+        log.warn("Validation failed: {}", errors);
+
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error(mainMessage, errors));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiResponse<Object>> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        LoggingContext.set("validationError", "true");
+        LoggingContext.set("error", ex.getMessage());
+
+        log.warn("Invalid value for parameter {}", ex.getName());
+
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Parâmetro inválido: " + ex.getName()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
         LoggingContext.set("businessRuleError", "true");
@@ -60,6 +100,17 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiResponse<Object>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        LoggingContext.set("overloadError", "true");
+        LoggingContext.set("error", ex.getMessage());
+
+        log.warn("Request rejected: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception ex) {
         LoggingContext.set("unexpectedError", "true");
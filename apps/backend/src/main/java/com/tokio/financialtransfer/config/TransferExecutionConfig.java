@@ -0,0 +1,20 @@
+package com.tokio.financialtransfer.config;
+
+import com.tokio.financialtransfer.service.DefaultTransferExecutor;
+import com.tokio.financialtransfer.service.TransferExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TransferExecutionConfig {
+
+    /**
+     * Placeholder executor, only registered when the application defines no executor of its own.
+     */
+    @Bean
+    @ConditionalOnMissingBean(TransferExecutor.class)
+    public TransferExecutor defaultTransferExecutor() {
+        return new DefaultTransferExecutor();
+    }
+}
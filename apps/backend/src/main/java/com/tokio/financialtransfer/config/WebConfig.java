@@ -1,5 +1,6 @@
 package com.tokio.financialtransfer.config;
 
+import com.tokio.financialtransfer.util.BusinessClock;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +10,8 @@ import org.springframework.context.annotation.Configuration;
 @RequiredArgsConstructor
 public class WebConfig {
 
+    private final BusinessClock businessClock;
+
     @Bean
     public FilterRegistrationBean<LoggingFilter> loggingFilter() {
         FilterRegistrationBean<LoggingFilter> registrationBean = new FilterRegistrationBean<>();
@@ -17,4 +20,13 @@ public class WebConfig {
         registrationBean.setOrder(1);
         return registrationBean;
     }
+
+    @Bean
+    public FilterRegistrationBean<BusinessDayFilter> businessDayFilter() {
+        FilterRegistrationBean<BusinessDayFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new BusinessDayFilter(businessClock));
+        registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(2);
+        return registrationBean;
+    }
 }
@@ -0,0 +1,56 @@
+package com.tokio.financialtransfer.controller;
+
+import com.tokio.financialtransfer.dto.AccountExposureDTO;
+import com.tokio.financialtransfer.dto.ApiResponse;
+import com.tokio.financialtransfer.service.AccountExposureService;
+import com.tokio.financialtransfer.util.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Pattern;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/accounts/{sourceAccount}/exposure")
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class AccountExposureController {
+
+    private final AccountExposureService accountExposureService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AccountExposureDTO>>> getExposures(
+            @PathVariable @Pattern(regexp = "\\d{10}", message = "Conta de origem deve ter 10 dígitos") String sourceAccount) {
+        LoggingContext.setOperation("get_account_exposures");
+        LoggingContext.set(LoggingContext.SOURCE_ACCOUNT, sourceAccount);
+
+        List<AccountExposureDTO> exposures = accountExposureService.getExposures(sourceAccount);
+
+        LoggingContext.set("exposureDates", exposures.size());
+        log.info("Account exposure retrieved");
+        return ResponseEntity.ok(ApiResponse.success(exposures, "Account exposure retrieved successfully"));
+    }
+
+    @GetMapping("/{transferDate}")
+    public ResponseEntity<ApiResponse<AccountExposureDTO>> getExposure(
+            @PathVariable @Pattern(regexp = "\\d{10}", message = "Conta de origem deve ter 10 dígitos") String sourceAccount,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate transferDate) {
+        LoggingContext.setOperation("get_account_exposure");
+        LoggingContext.set(LoggingContext.SOURCE_ACCOUNT, sourceAccount);
+        LoggingContext.set(LoggingContext.TRANSFER_DATE, transferDate);
+
+        AccountExposureDTO exposure = accountExposureService.getExposure(sourceAccount, transferDate);
+
+        log.info("Account exposure retrieved");
+        return ResponseEntity.ok(ApiResponse.success(exposure, "Account exposure retrieved successfully"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.tokio.financialtransfer.controller;
+
+import com.tokio.financialtransfer.dto.ApiResponse;
+import com.tokio.financialtransfer.dto.FeeBacktestReportDTO;
+import com.tokio.financialtransfer.dto.FeeScheduleDTO;
+import com.tokio.financialtransfer.service.FeeBacktestService;
+import com.tokio.financialtransfer.service.FeeScheduleRegistry;
+import com.tokio.financialtransfer.util.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/admin/fee-schedule")
+@RequiredArgsConstructor
+@Slf4j
+public class FeeScheduleController {
+
+    private final FeeScheduleRegistry feeScheduleRegistry;
+    private final FeeBacktestService feeBacktestService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<FeeScheduleDTO>> getFeeSchedule() {
+        LoggingContext.setOperation("get_fee_schedule");
+
+        FeeScheduleDTO schedule = feeScheduleRegistry.describe();
+
+        LoggingContext.set("feeScheduleVersion", schedule.getVersion());
+        return ResponseEntity.ok(ApiResponse.success(schedule, "Fee schedule retrieved successfully"));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<FeeScheduleDTO>> reloadFeeSchedule() {
+        LoggingContext.setOperation("reload_fee_schedule");
+        log.info("Reloading fee schedule");
+
+        feeScheduleRegistry.reload();
+        FeeScheduleDTO schedule = feeScheduleRegistry.describe();
+
+        LoggingContext.set("feeScheduleVersion", schedule.getVersion());
+        log.info("Fee schedule reloaded successfully");
+
+        return ResponseEntity.ok(ApiResponse.success(schedule, "Fee schedule reloaded successfully"));
+    }
+
+    @PostMapping("/backtest")
+    public ResponseEntity<ApiResponse<FeeBacktestReportDTO>> backtestFeeSchedule(@Valid @RequestBody FeeScheduleDTO candidate) {
+        LoggingContext.setOperation("backtest_fee_schedule");
+        LoggingContext.set("candidateRules", candidate.getRules().size());
+        log.info("Backtesting candidate fee schedule against stored transfers");
+
+        FeeBacktestReportDTO report = feeBacktestService.backtest(candidate.getRules());
+
+        log.info("Fee schedule backtest completed successfully");
+        return ResponseEntity.ok(ApiResponse.success(report, "Fee schedule backtest completed successfully"));
+    }
+}
@@ -1,22 +1,51 @@
 package com.tokio.financialtransfer.controller;
 
 import com.tokio.financialtransfer.dto.ApiResponse;
+import com.tokio.financialtransfer.dto.FeeBatchRequestDTO;
+import com.tokio.financialtransfer.dto.FeeBatchResponseDTO;
+import com.tokio.financialtransfer.dto.FeeCalendarResponseDTO;
+import com.tokio.financialtransfer.dto.TransferBatchRequestDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferImportReportDTO;
+import com.tokio.financialtransfer.dto.TransferPageDTO;
 import com.tokio.financialtransfer.dto.TransferRequestDTO;
 import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
 import com.tokio.financialtransfer.dto.FeeCalculationRequestDTO;
 import com.tokio.financialtransfer.dto.FeeCalculationResponseDTO;
 import com.tokio.financialtransfer.service.FinancialTransferService;
+import com.tokio.financialtransfer.service.IdempotencyKeyStore;
+import com.tokio.financialtransfer.service.TransferExportService;
+import com.tokio.financialtransfer.service.TransferImportService;
+import com.tokio.financialtransfer.service.TransferWriteBehindService;
 import com.tokio.financialtransfer.util.LoggingContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 
 @RestController
@@ -26,10 +55,27 @@ import java.math.BigDecimal;
 @Slf4j
 public class FinancialTransferController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    /** A fee schedule reload changes the rates mid-day, so clients re-fetch the calendar at least this often. */
+    private static final Duration FEE_CALENDAR_MAX_AGE = Duration.ofMinutes(5);
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final FinancialTransferService financialTransferService;
+    private final TransferExportService transferExportService;
+    private final TransferImportService transferImportService;
+    private final TransferWriteBehindService transferWriteBehindService;
+    private final IdempotencyKeyStore idempotencyKeyStore;
 
+    /**
+     * With an {@code Idempotency-Key} header a retry of the same transfer gets the first response
+     * back, marked with {@code Idempotent-Replayed: true}, instead of scheduling it again.
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<TransferResponseDTO>> scheduleTransfer(@Valid @RequestBody TransferRequestDTO request) {
+    public ResponseEntity<ApiResponse<TransferResponseDTO>> scheduleTransfer(
+            @Valid @RequestBody TransferRequestDTO request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Size(min = 1, max = 255, message = "Idempotency-Key deve ter entre 1 e 255 caracteres") String idempotencyKey) {
         LoggingContext.setOperation("schedule_transfer");
         LoggingContext.set(LoggingContext.SOURCE_ACCOUNT, request.getSourceAccount());
         LoggingContext.set(LoggingContext.DESTINATION_ACCOUNT, request.getDestinationAccount());
@@ -37,18 +83,80 @@ public class FinancialTransferController {
         LoggingContext.set(LoggingContext.TRANSFER_DATE, request.getTransferDate());
         
         log.info("Starting transfer scheduling");
-        
-        var response = financialTransferService.scheduleTransfer(request);
-        
+
+        if (idempotencyKey != null) {
+            LoggingContext.set("idempotencyKey", idempotencyKey);
+            IdempotencyKeyStore.Result result = idempotencyKeyStore.execute(idempotencyKey, request, () -> schedule(request));
+            if (result.isReplayed()) {
+                LoggingContext.set(LoggingContext.TRANSFER_ID, result.getResponse().getId());
+                log.info("Transfer replayed for repeated idempotency key");
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .header(IDEMPOTENT_REPLAYED, "true")
+                        .body(ApiResponse.success(result.getResponse(), "Transfer scheduled successfully"));
+            }
+            return scheduled(result.getResponse());
+        }
+        return scheduled(schedule(request));
+    }
+
+    private TransferResponseDTO schedule(TransferRequestDTO request) {
+        // The write-behind path waits for its group commit outside any transaction of its own
+        return transferWriteBehindService.isEnabled()
+                ? transferWriteBehindService.scheduleTransfer(request)
+                : financialTransferService.scheduleTransfer(request);
+    }
+
+    private ResponseEntity<ApiResponse<TransferResponseDTO>> scheduled(TransferResponseDTO response) {
         LoggingContext.set(LoggingContext.TRANSFER_ID, response.getId());
         LoggingContext.set(LoggingContext.FEE_AMOUNT, response.getFee());
         log.info("Transfer scheduled successfully");
-        
+
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(response, "Transfer scheduled successfully"));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<TransferBatchResponseDTO>> scheduleTransferBatch(@Valid @RequestBody TransferBatchRequestDTO request) {
+        LoggingContext.setOperation("schedule_transfer_batch");
+        LoggingContext.set("batchSize", request.getTransfers().size());
+
+        log.info("Starting transfer batch scheduling");
+
+        TransferBatchResponseDTO response = financialTransferService.scheduleTransferBatch(request.getTransfers());
+
+        log.info("Transfer batch scheduled successfully");
+
+        return ResponseEntity.ok(ApiResponse.success(response, "Transfer batch processed"));
+    }
+
+    /**
+     * Schedule every transfer of a CSV file sent as the raw request body. The body is read as a
+     * stream, so the file is never held in memory.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ApiResponse<TransferImportReportDTO>> importTransfers(InputStream body) throws IOException {
+        LoggingContext.setOperation("import_transfers");
+        log.info("Starting transfer import");
+
+        TransferImportReportDTO report = transferImportService.importCsv(body);
+
+        log.info("Transfer import finished");
+
+        return ResponseEntity.ok(ApiResponse.success(report, "Transfer import processed"));
+    }
+
+    /**
+     * Without {@code limit} or {@code cursor} the whole listing is returned, as before; with either
+     * of them one page is returned and {@code nextCursor} points at the following one.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TransferResponseDTO>>> getAllTransfers() {
+    public ResponseEntity<ApiResponse<List<TransferResponseDTO>>> getAllTransfers(
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Tamanho da página deve ser maior que zero") Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null || cursor != null) {
+            return getTransfersPage(limit, cursor);
+        }
+
         LoggingContext.setOperation("get_all_transfers");
         log.info("Fetching all transfers");
         
@@ -60,6 +168,83 @@ public class FinancialTransferController {
         return ResponseEntity.ok(ApiResponse.success(transfers, "Transfers retrieved successfully"));
     }
 
+    /**
+     * Transfers matching the given filters, paged by cursor like the listing. Filters left out
+     * are not applied; the date and amount ranges are inclusive.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<TransferResponseDTO>>> searchTransfers(
+            @RequestParam(required = false)
+            @Pattern(regexp = "\\d{10}", message = "Conta de origem deve ter 10 dígitos") String sourceAccount,
+            @RequestParam(required = false)
+            @Pattern(regexp = "\\d{10}", message = "Conta de destino deve ter 10 dígitos") String destinationAccount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate transferDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate transferDateTo,
+            @RequestParam(required = false) BigDecimal amountMin,
+            @RequestParam(required = false) BigDecimal amountMax,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Tamanho da página deve ser maior que zero") Integer limit,
+            @RequestParam(required = false) String cursor) {
+        LoggingContext.setOperation("search_transfers");
+        LoggingContext.set(LoggingContext.SOURCE_ACCOUNT, sourceAccount);
+        LoggingContext.set(LoggingContext.DESTINATION_ACCOUNT, destinationAccount);
+        log.info("Searching transfers");
+
+        TransferSearchCriteria criteria = TransferSearchCriteria.builder()
+                .sourceAccount(sourceAccount)
+                .destinationAccount(destinationAccount)
+                .transferDateFrom(transferDateFrom)
+                .transferDateTo(transferDateTo)
+                .amountMin(amountMin)
+                .amountMax(amountMax)
+                .build();
+        TransferPageDTO page = financialTransferService.searchTransfers(criteria, limit, cursor);
+
+        LoggingContext.set("transferCount", page.getTransfers().size());
+        log.info("Transfer search completed");
+
+        return ResponseEntity.ok(ApiResponse.success(page.getTransfers(), "Transfers retrieved successfully", page.getNextCursor()));
+    }
+
+    /**
+     * Every transfer as newline-delimited JSON, streamed straight to the response.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTransfers() {
+        LoggingContext.setOperation("export_transfers");
+        log.info("Starting transfer export");
+
+        // The body is written on an async thread, which does not inherit the request MDC
+        Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+        StreamingResponseBody body = output -> {
+            if (loggingContext != null) {
+                LoggingContext.setContext(loggingContext);
+            }
+            try {
+                transferExportService.exportTransfers(output);
+            } finally {
+                LoggingContext.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transfers.ndjson\"")
+                .body(body);
+    }
+
+    private ResponseEntity<ApiResponse<List<TransferResponseDTO>>> getTransfersPage(Integer limit, String cursor) {
+        LoggingContext.setOperation("get_transfers_page");
+        log.info("Fetching transfer page");
+
+        TransferPageDTO page = financialTransferService.getTransfersPage(limit, cursor);
+
+        LoggingContext.set("transferCount", page.getTransfers().size());
+        log.info("Successfully retrieved transfer page");
+
+        return ResponseEntity.ok(ApiResponse.success(page.getTransfers(), "Transfers retrieved successfully", page.getNextCursor()));
+    }
+
     @PostMapping("/calculate-fee")
     public ResponseEntity<ApiResponse<FeeCalculationResponseDTO>> calculateFee(@Valid @RequestBody FeeCalculationRequestDTO request) {
         LoggingContext.setOperation("calculate_fee");
@@ -75,4 +260,43 @@ public class FinancialTransferController {
         
         return ResponseEntity.ok(ApiResponse.success(new FeeCalculationResponseDTO(fee), "Fee calculated successfully"));
     }
+
+    @PostMapping("/calculate-fee/batch")
+    public ResponseEntity<ApiResponse<FeeBatchResponseDTO>> calculateFeeBatch(@Valid @RequestBody FeeBatchRequestDTO request) {
+        LoggingContext.setOperation("calculate_fee_batch");
+        LoggingContext.set("batchSize", request.getItems().size());
+
+        log.info("Starting batch fee calculation");
+
+        FeeBatchResponseDTO response = financialTransferService.calculateFeeBatch(request.getItems());
+
+        LoggingContext.set("batchErrors", response.getErrors().size());
+        log.info("Batch fee calculation finished");
+
+        return ResponseEntity.ok(ApiResponse.success(response, "Fees calculated successfully"));
+    }
+
+    @GetMapping("/fee-calendar")
+    public ResponseEntity<ApiResponse<FeeCalendarResponseDTO>> getFeeCalendar(
+            @RequestParam(required = false)
+            @NotNull(message = "Valor da transferência é obrigatório")
+            @DecimalMin(value = "0.01", message = "Valor deve ser maior que zero") BigDecimal amount) {
+        LoggingContext.setOperation("fee_calendar");
+        LoggingContext.set(LoggingContext.TRANSFER_AMOUNT, amount);
+
+        log.info("Starting fee calendar calculation");
+
+        FeeCalendarResponseDTO calendar = financialTransferService.calculateFeeCalendar(amount);
+
+        // The calendar is anchored on today, so it never outlives the next midnight; kept out of
+        // shared caches, which could not be told about a schedule reload
+        long secondsToMidnight = Math.max(0, Duration.between(OffsetDateTime.now(), calendar.getValidUntil()).getSeconds());
+        long maxAge = Math.min(secondsToMidnight, FEE_CALENDAR_MAX_AGE.getSeconds());
+
+        log.info("Fee calendar calculated successfully");
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePrivate())
+                .body(ApiResponse.success(calendar, "Fee calendar calculated successfully"));
+    }
 }
@@ -0,0 +1,26 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountExposureDTO {
+
+    private String sourceAccount;
+    private LocalDate transferDate;
+    private long transferCount;
+
+    /** Sum of the amounts scheduled from the account for the date. */
+    private BigDecimal totalAmount;
+
+    /** Sum of the fees charged on those transfers. */
+    private BigDecimal totalFees;
+}
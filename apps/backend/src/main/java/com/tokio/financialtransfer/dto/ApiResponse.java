@@ -1,5 +1,6 @@
 package com.tokio.financialtransfer.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,6 +19,10 @@ public class ApiResponse<T> {
     private Status status;
     private T data;
     private String message;
+
+    /** Cursor for the next page of a paginated listing; omitted when there is none. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
     
     public static <T> ApiResponse<T> success(T data) {
         return ApiResponse.<T>builder()
@@ -34,6 +39,15 @@ public class ApiResponse<T> {
                 .build();
     }
     
+    public static <T> ApiResponse<T> success(T data, String message, String nextCursor) {
+        return ApiResponse.<T>builder()
+                .status(Status.SUCCESS)
+                .data(data)
+                .message(message)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
     public static <T> ApiResponse<T> error(String message) {
         return ApiResponse.<T>builder()
                 .status(Status.ERROR)
@@ -0,0 +1,15 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemErrorDTO {
+
+    /** Zero-based position of the item in the request. */
+    private int index;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeBacktestBandDTO {
+
+    private String type;
+    private int minDays;
+    private int maxDays;
+    private long transfers;
+
+    /** Sum of the fees stored with the transfers, i.e. what was actually charged. */
+    private BigDecimal originalFees;
+
+    /** Sum of the fees the candidate schedule would have charged. */
+    private BigDecimal candidateFees;
+    private BigDecimal delta;
+}
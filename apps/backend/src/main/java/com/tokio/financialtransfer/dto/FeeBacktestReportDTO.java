@@ -0,0 +1,28 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeBacktestReportDTO {
+
+    private long transfersAnalyzed;
+    private List<FeeBacktestBandDTO> bands;
+
+    /** Transfers whose day offset is not covered by the candidate schedule. */
+    private long unpricedTransfers;
+    private BigDecimal unpricedOriginalFees;
+
+    private BigDecimal totalOriginalFees;
+    private BigDecimal totalCandidateFees;
+    private BigDecimal totalDelta;
+    private long elapsedMillis;
+}
@@ -0,0 +1,16 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class FeeBatchRequestDTO {
+
+    // Items are validated one by one by the service so a single bad item does not fail the batch
+    @NotEmpty(message = "Lista de itens é obrigatória")
+    @Size(max = 10000, message = "Lote deve ter no máximo 10000 itens")
+    private List<FeeCalculationRequestDTO> items;
+}
@@ -0,0 +1,20 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeBatchResponseDTO {
+
+    /** Fee per item, in request order; {@code null} where the item has an error. */
+    private List<BigDecimal> fees;
+    private List<BatchItemErrorDTO> errors;
+}
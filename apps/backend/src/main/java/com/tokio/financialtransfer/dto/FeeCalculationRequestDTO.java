@@ -9,7 +9,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
-public class FeeCalculationRequestDTO {
+public class FeeCalculationRequestDTO implements FeeQuoteRequest {
 
     @NotNull(message = "Valor da transferência é obrigatório")
     @DecimalMin(value = "0.01", message = "Valor deve ser maior que zero")
@@ -0,0 +1,27 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeCalendarResponseDTO {
+
+    private BigDecimal transferAmount;
+    private LocalDate startDate;
+
+    /** Next midnight: from then on the calendar starts one day later. */
+    private OffsetDateTime validUntil;
+
+    /** Fee for a transfer on {@code startDate + index} days. */
+    private List<BigDecimal> fees;
+}
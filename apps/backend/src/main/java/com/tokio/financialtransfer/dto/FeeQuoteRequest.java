@@ -0,0 +1,14 @@
+package com.tokio.financialtransfer.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Anything that can be priced: an amount transferred on a date.
+ */
+public interface FeeQuoteRequest {
+
+    BigDecimal getTransferAmount();
+
+    LocalDate getTransferDate();
+}
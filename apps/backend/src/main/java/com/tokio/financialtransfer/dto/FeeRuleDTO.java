@@ -0,0 +1,19 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeRuleDTO {
+
+    private int minDays;
+    private int maxDays;
+    private String type;
+    private BigDecimal fixedFee;
+    private BigDecimal percentageFee;
+}
@@ -0,0 +1,20 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeScheduleDTO {
+
+    /** Version of the published snapshot; ignored when the schedule is read from a file or request. */
+    private Long version;
+
+    @NotEmpty(message = "Lista de regras é obrigatória")
+    private List<FeeRuleDTO> rules;
+}
@@ -0,0 +1,15 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportLineErrorDTO {
+
+    /** Line of the file, counting from 1, on which the rejected record starts. */
+    private long line;
+    private String message;
+}
@@ -0,0 +1,32 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferBatchResponseDTO {
+
+    private int accepted;
+    private int rejected;
+
+    /** Id of the scheduled transfer per item, in request order; {@code null} where the item was rejected. */
+    private List<Long> ids;
+
+    /** Fee per item, in request order; {@code null} where the item was rejected. */
+    private List<BigDecimal> fees;
+    private List<BatchItemErrorDTO> errors;
+
+    /** Accepted items flagged as possible duplicates; only filled when the duplicate policy warns. */
+    private List<BatchItemErrorDTO> warnings;
+
+    private long elapsedMillis;
+    private long transfersPerSecond;
+}
@@ -0,0 +1,32 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferImportReportDTO {
+
+    /** Records read from the file, not counting the header. */
+    private long records;
+    private long accepted;
+    private long rejected;
+
+    /** Rejected lines in file order, at most {@code transfers.import.max-errors} of them. */
+    private List<ImportLineErrorDTO> errors;
+
+    /** Whether more lines were rejected than {@link #errors} lists. */
+    private boolean errorsTruncated;
+
+    /** Lines imported as possible duplicates, in file order, capped like {@link #errors}. */
+    private List<ImportLineErrorDTO> warnings;
+
+    private long elapsedMillis;
+    private long transfersPerSecond;
+}
@@ -0,0 +1,18 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferPageDTO {
+
+    private List<TransferResponseDTO> transfers;
+
+    /** Cursor for the following page, or {@code null} on the last page. */
+    private String nextCursor;
+}
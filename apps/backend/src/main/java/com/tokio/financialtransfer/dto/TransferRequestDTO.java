@@ -11,7 +11,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
-public class TransferRequestDTO {
+public class TransferRequestDTO implements FeeQuoteRequest {
 
     @NotBlank(message = "Conta de origem é obrigatória")
     @Pattern(regexp = "\\d{10}", message = "Conta de origem deve ter 10 dígitos")
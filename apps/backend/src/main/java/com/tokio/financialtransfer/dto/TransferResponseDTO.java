@@ -1,5 +1,6 @@
 package com.tokio.financialtransfer.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,4 +21,26 @@ public class TransferResponseDTO {
     private BigDecimal fee;
     private LocalDate transferDate;
     private LocalDateTime scheduleDate;
+
+    /**
+     * Anomaly score (0 to 100) of the source account's recent activity; only set on the response
+     * to scheduling, and only when anomaly scoring is enabled.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer anomalyScore;
+
+    /**
+     * Set when a transfer with the same source, destination, amount and date was already stored
+     * and the duplicate policy only warns.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean possibleDuplicate;
+
+    /**
+     * Stored transfer without a score or duplicate flag; also the constructor used by the repository projections.
+     */
+    public TransferResponseDTO(Long id, String sourceAccount, String destinationAccount, BigDecimal transferAmount,
+                               BigDecimal fee, LocalDate transferDate, LocalDateTime scheduleDate) {
+        this(id, sourceAccount, destinationAccount, transferAmount, fee, transferDate, scheduleDate, null, null);
+    }
 }
@@ -0,0 +1,26 @@
+package com.tokio.financialtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters of the transfer search; a {@code null} field is not applied. Ranges are inclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSearchCriteria {
+
+    private String sourceAccount;
+    private String destinationAccount;
+    private LocalDate transferDateFrom;
+    private LocalDate transferDateTo;
+    private BigDecimal amountMin;
+    private BigDecimal amountMax;
+}
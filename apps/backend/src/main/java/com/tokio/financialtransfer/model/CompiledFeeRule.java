@@ -0,0 +1,132 @@
+package com.tokio.financialtransfer.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * A {@link FeeRule} with its fixed and percentage components precomputed as scaled
+ * integers, so a fee can be priced on amounts expressed as long cents.
+ *
+ * <p>For an amount in cents {@code a}, the exact fee at the working scale {@code W} is
+ * {@code a * rate + fixed}, where both constants are already scaled to {@code W}.
+ * Rounding to cents divides by {@code 10^(W-2)} with HALF_UP, which is exactly what
+ * {@code setScale(2, HALF_UP)} does on the equivalent {@link BigDecimal} expression.
+ * Amounts that do not fit this representation fall back to {@link BigDecimal}.
+ */
+public final class CompiledFeeRule {
+
+    private static final int SCALE = 2;
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int MAX_WORKING_SCALE = 18;
+
+    private final FeeRule rule;
+    private final long fixedScaled;
+    private final long rateScaled;
+    private final long divisor;
+    private final long maxFastAmountCents;
+
+    public CompiledFeeRule(FeeRule rule) {
+        this.rule = rule;
+
+        BigDecimal fixedFee = rule.getFixedFee();
+        BigDecimal percentageFee = rule.getPercentageFee();
+        int fixedScale = fixedFee == null ? 0 : fixedFee.scale();
+        int rateScale = percentageFee == null ? 0 : percentageFee.scale();
+        int workingScale = Math.max(SCALE + rateScale, Math.max(fixedScale, SCALE));
+
+        boolean supported = fixedScale >= 0 && rateScale >= 0 && workingScale <= MAX_WORKING_SCALE
+                && (fixedFee == null || fixedFee.signum() >= 0)
+                && (percentageFee == null || percentageFee.signum() >= 0);
+
+        BigInteger fixed = BigInteger.ZERO;
+        BigInteger rate = BigInteger.ZERO;
+        if (supported) {
+            if (fixedFee != null) {
+                fixed = fixedFee.unscaledValue().multiply(BigInteger.TEN.pow(workingScale - fixedScale));
+            }
+            if (percentageFee != null) {
+                rate = percentageFee.unscaledValue().multiply(BigInteger.TEN.pow(workingScale - SCALE - rateScale));
+            }
+            supported = fixed.bitLength() < Long.SIZE - 1 && rate.bitLength() < Long.SIZE - 1;
+        }
+
+        this.fixedScaled = supported ? fixed.longValue() : 0;
+        this.rateScaled = supported ? rate.longValue() : 0;
+        this.divisor = supported ? BigInteger.TEN.pow(workingScale - SCALE).longValue() : 1;
+        this.maxFastAmountCents = !supported ? -1
+                : rateScaled == 0 ? Long.MAX_VALUE
+                : (Long.MAX_VALUE - fixedScaled) / rateScaled;
+    }
+
+    public FeeRule getRule() {
+        return rule;
+    }
+
+    public String getType() {
+        return rule.getType();
+    }
+
+    /**
+     * Whether {@link #feeCents(long)} can price the given amount without overflowing.
+     */
+    public boolean supportsCents(long amountCents) {
+        return amountCents >= 0 && amountCents <= maxFastAmountCents;
+    }
+
+    /**
+     * Fee in cents for an amount in cents. Callers must check {@link #supportsCents(long)} first.
+     */
+    public long feeCents(long amountCents) {
+        long exact = amountCents * rateScaled + fixedScaled;
+        long quotient = exact / divisor;
+        long remainder = exact - quotient * divisor;
+        return remainder * 2 >= divisor ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Fee for the given amount with scale 2, using the long cents path whenever the
+     * amount has at most two decimal places and fits in range.
+     */
+    public BigDecimal calculate(BigDecimal transferAmount) {
+        long amountCents = toCents(transferAmount);
+        if (supportsCents(amountCents)) {
+            return BigDecimal.valueOf(feeCents(amountCents), SCALE);
+        }
+        return calculateExact(transferAmount);
+    }
+
+    /**
+     * Reference implementation over {@link BigDecimal}, used for amounts outside the fast path.
+     */
+    BigDecimal calculateExact(BigDecimal transferAmount) {
+        if (rule.hasFixedAndPercentageFee()) {
+            return rule.getFixedFee().add(transferAmount.multiply(rule.getPercentageFee())).setScale(SCALE, ROUNDING_MODE);
+        }
+
+        if (rule.hasOnlyFixedFee()) {
+            return rule.getFixedFee().setScale(SCALE, ROUNDING_MODE);
+        }
+
+        return transferAmount.multiply(rule.getPercentageFee()).setScale(SCALE, ROUNDING_MODE);
+    }
+
+    /**
+     * Amount in cents, or -1 when it is negative, has more than two decimal places or does not fit in a long.
+     */
+    public static long toCents(BigDecimal amount) {
+        int scale = amount.scale();
+        if (amount.signum() < 0 || scale > SCALE || scale < 0) {
+            return -1;
+        }
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() >= Long.SIZE - 8) {
+            return -1;
+        }
+        long cents = unscaled.longValue();
+        for (int i = scale; i < SCALE; i++) {
+            cents *= 10;
+        }
+        return cents;
+    }
+}
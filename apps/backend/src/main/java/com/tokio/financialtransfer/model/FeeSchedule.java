@@ -0,0 +1,113 @@
+package com.tokio.financialtransfer.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the fee rules, compiled into a dense table indexed by the day
+ * offset of the transfer so the applicable rule is resolved with a bounds check and a
+ * single array load.
+ */
+public final class FeeSchedule {
+
+    private final long version;
+    private final List<FeeRule> rules;
+    private final CompiledFeeRule[] rulesByDay;
+
+    private FeeSchedule(long version, List<FeeRule> rules, CompiledFeeRule[] rulesByDay) {
+        this.version = version;
+        this.rules = rules;
+        this.rulesByDay = rulesByDay;
+    }
+
+    public static FeeSchedule compile(List<FeeRule> rules) {
+        return compile(rules, 0);
+    }
+
+    /**
+     * Validate and build the table from the given rules.
+     *
+     * @throws IllegalArgumentException when a rule is malformed or the day ranges overlap or leave gaps
+     */
+    public static FeeSchedule compile(List<FeeRule> rules, long version) {
+        List<FeeRule> sorted = validate(rules);
+
+        int maxDays = sorted.get(sorted.size() - 1).getMaxDays();
+        CompiledFeeRule[] rulesByDay = new CompiledFeeRule[maxDays + 1];
+        for (FeeRule rule : sorted) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            for (int day = rule.getMinDays(); day <= rule.getMaxDays(); day++) {
+                rulesByDay[day] = compiled;
+            }
+        }
+        return new FeeSchedule(version, Collections.unmodifiableList(sorted), rulesByDay);
+    }
+
+    private static List<FeeRule> validate(List<FeeRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("Tabela de taxas deve ter ao menos uma regra");
+        }
+
+        List<FeeRule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparingInt(FeeRule::getMinDays));
+
+        int expectedMinDays = 0;
+        for (FeeRule rule : sorted) {
+            if (rule.getType() == null || rule.getType().isBlank()) {
+                throw new IllegalArgumentException("Regra de taxa sem tipo");
+            }
+            if (rule.getMaxDays() < rule.getMinDays()) {
+                throw new IllegalArgumentException("Regra " + rule.getType() + " tem maxDays menor que minDays");
+            }
+            if (rule.getFixedFee() == null && rule.getPercentageFee() == null) {
+                throw new IllegalArgumentException("Regra " + rule.getType() + " não tem taxa fixa nem percentual");
+            }
+            if (isNegative(rule.getFixedFee()) || isNegative(rule.getPercentageFee())) {
+                throw new IllegalArgumentException("Regra " + rule.getType() + " tem taxa negativa");
+            }
+            if (rule.getMinDays() < expectedMinDays) {
+                throw new IllegalArgumentException("Regra " + rule.getType() + " sobrepõe o intervalo da regra anterior");
+            }
+            if (rule.getMinDays() > expectedMinDays) {
+                throw new IllegalArgumentException("Não há regra para o intervalo de " + expectedMinDays + " a " + (rule.getMinDays() - 1) + " dias");
+            }
+            expectedMinDays = rule.getMaxDays() + 1;
+        }
+        return sorted;
+    }
+
+    private static boolean isNegative(BigDecimal value) {
+        return value != null && value.signum() < 0;
+    }
+
+    /**
+     * Rule for the given day offset, or {@code null} when no rule covers it.
+     */
+    public CompiledFeeRule ruleFor(long daysDifference) {
+        if (daysDifference < 0 || daysDifference >= rulesByDay.length) {
+            return null;
+        }
+        return rulesByDay[(int) daysDifference];
+    }
+
+    /**
+     * Highest day offset covered by the schedule.
+     */
+    public int getMaxDays() {
+        return rulesByDay.length - 1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Rules ordered by day range.
+     */
+    public List<FeeRule> getRules() {
+        return rules;
+    }
+}
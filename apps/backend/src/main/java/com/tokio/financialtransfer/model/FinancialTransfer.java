@@ -15,15 +15,30 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "financial_transfers")
+@Table(name = "financial_transfers", indexes = {
+        @Index(name = "idx_financial_transfers_schedule_date_id", columnList = "schedule_date DESC, id DESC"),
+        // Transfer search: one account's transfers come back already in listing order
+        @Index(name = "idx_financial_transfers_source_schedule", columnList = "source_account, schedule_date DESC, id DESC"),
+        @Index(name = "idx_financial_transfers_destination_schedule", columnList = "destination_account, schedule_date DESC, id DESC"),
+        @Index(name = "idx_financial_transfers_transfer_date_amount", columnList = "transfer_date, transfer_amount"),
+        // Execution engine: due transfers of one status in transfer date order
+        @Index(name = "idx_financial_transfers_status_transfer_date", columnList = "status, transfer_date"),
+        @Index(name = "idx_financial_transfers_status_lease", columnList = "status, lease_expires_at"),
+        // Duplicate check: exact lookup after a Bloom filter hit
+        @Index(name = "idx_financial_transfers_duplicate",
+                columnList = "source_account, transfer_date, destination_account, transfer_amount")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class FinancialTransfer {
 
+    // Pooled sequence: Hibernate reserves 50 ids per round trip and can batch the inserts,
+    // which IDENTITY columns prevent
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "financial_transfers_seq")
+    @SequenceGenerator(name = "financial_transfers_seq", sequenceName = "financial_transfers_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Conta de origem é obrigatória")
@@ -53,10 +68,28 @@ public class FinancialTransfer {
     @Column(name = "schedule_date", nullable = false)
     private LocalDateTime scheduleDate;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    @Builder.Default
+    private TransferStatus status = TransferStatus.SCHEDULED;
+
+    @Column(name = "executed_at")
+    private LocalDateTime executedAt;
+
+    // Execution lease: which instance claimed the transfer and until when no other instance may take it
+    @Column(name = "claim_owner", length = 64)
+    private String claimOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     @PrePersist
     private void prePersist() {
         if (this.scheduleDate == null) {
             this.scheduleDate = LocalDateTime.now();
         }
+        if (this.status == null) {
+            this.status = TransferStatus.SCHEDULED;
+        }
     }
 }
@@ -0,0 +1,13 @@
+package com.tokio.financialtransfer.model;
+
+/**
+ * Execution lifecycle of a scheduled transfer: {@code SCHEDULED} until its transfer date is
+ * due, {@code EXECUTING} while claimed by the execution engine, then {@code EXECUTED} or
+ * {@code FAILED}.
+ */
+public enum TransferStatus {
+    SCHEDULED,
+    EXECUTING,
+    EXECUTED,
+    FAILED
+}
@@ -0,0 +1,21 @@
+package com.tokio.financialtransfer.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one source account for one transfer date, read through a constructor expression.
+ */
+@Getter
+@AllArgsConstructor
+public class ExposureRow {
+
+    private final String sourceAccount;
+    private final LocalDate transferDate;
+    private final long transferCount;
+    private final BigDecimal totalAmount;
+    private final BigDecimal totalFees;
+}
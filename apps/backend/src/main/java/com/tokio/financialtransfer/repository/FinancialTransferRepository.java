@@ -1,15 +1,215 @@
 package com.tokio.financialtransfer.repository;
 
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
 import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.model.TransferStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface FinancialTransferRepository extends JpaRepository<FinancialTransfer, Long> {
-    
+public interface FinancialTransferRepository extends JpaRepository<FinancialTransfer, Long>, TransferSearchRepository {
+
+    /**
+     * Builds {@link TransferResponseDTO}s straight from the result set: no managed entity,
+     * no dirty-checking snapshot and nothing left in the persistence context.
+     */
+    String SELECT_RESPONSE = "SELECT new com.tokio.financialtransfer.dto.TransferResponseDTO("
+            + "ft.id, ft.sourceAccount, ft.destinationAccount, ft.transferAmount, ft.fee, ft.transferDate, ft.scheduleDate) "
+            + "FROM FinancialTransfer ft ";
+
     @Query("SELECT ft FROM FinancialTransfer ft ORDER BY ft.scheduleDate DESC")
     List<FinancialTransfer> findAllOrderByScheduleDateDesc();
+
+    /**
+     * Same listing as {@link #findAllOrderByScheduleDateDesc()}, projected to the response type.
+     */
+    @Query(SELECT_RESPONSE + "ORDER BY ft.scheduleDate DESC")
+    List<TransferResponseDTO> findAllResponsesOrderByScheduleDateDesc();
+
+    /**
+     * First page of the listing; only the page size of {@code pageable} is used.
+     */
+    @Query(SELECT_RESPONSE + "ORDER BY ft.scheduleDate DESC, ft.id DESC")
+    List<TransferResponseDTO> findFirstPage(Pageable pageable);
+
+    /**
+     * Page that starts right after the row ({@code scheduleDate}, {@code id}) in the listing order.
+     * The leading range on schedule_date lets the index seek straight to the cursor.
+     */
+    @Query(SELECT_RESPONSE
+            + "WHERE ft.scheduleDate <= :scheduleDate AND (ft.scheduleDate < :scheduleDate OR ft.id < :id) "
+            + "ORDER BY ft.scheduleDate DESC, ft.id DESC")
+    List<TransferResponseDTO> findPageAfter(@Param("scheduleDate") LocalDateTime scheduleDate,
+                                            @Param("id") long id,
+                                            Pageable pageable);
+
+    /**
+     * Forward-only scan of every transfer for re-pricing. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.tokio.financialtransfer.repository.TransferFeeRow(ft.transferAmount, ft.fee, ft.transferDate, ft.scheduleDate) "
+            + "FROM FinancialTransfer ft")
+    Stream<TransferFeeRow> streamFeeRows();
+
+    /**
+     * Forward-only scan of every transfer in id order. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE + "ORDER BY ft.id")
+    Stream<TransferResponseDTO> streamAllResponsesOrderById();
+
+    /**
+     * Forward-only scan of the duplicate-check columns of every transfer. Must be consumed inside
+     * a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.tokio.financialtransfer.repository.TransferFingerprintRow("
+            + "ft.sourceAccount, ft.destinationAccount, ft.transferAmount, ft.transferDate) FROM FinancialTransfer ft")
+    Stream<TransferFingerprintRow> streamFingerprintRows();
+
+    /**
+     * Amount stored for one source account and transfer date, by every instance; served by the
+     * duplicate lookup index, which starts with both columns.
+     */
+    @Query("SELECT COALESCE(SUM(ft.transferAmount), 0) FROM FinancialTransfer ft "
+            + "WHERE ft.sourceAccount = :sourceAccount AND ft.transferDate = :transferDate")
+    BigDecimal sumAmountBySourceAccountAndDate(@Param("sourceAccount") String sourceAccount,
+                                               @Param("transferDate") LocalDate transferDate);
+
+    /**
+     * Whether a transfer with the same source, destination, amount and transfer date is stored;
+     * served by the duplicate lookup index.
+     */
+    @Query("SELECT CASE WHEN COUNT(ft) > 0 THEN true ELSE false END FROM FinancialTransfer ft "
+            + "WHERE ft.sourceAccount = :sourceAccount "
+            + "AND ft.transferDate = :transferDate AND ft.destinationAccount = :destinationAccount "
+            + "AND ft.transferAmount = :transferAmount")
+    boolean existsDuplicate(@Param("sourceAccount") String sourceAccount,
+                            @Param("destinationAccount") String destinationAccount,
+                            @Param("transferAmount") BigDecimal transferAmount,
+                            @Param("transferDate") LocalDate transferDate);
+
+    /**
+     * Totals per source account and transfer date over the whole table; only used to rebuild
+     * the in-memory exposure rollup at startup.
+     */
+    @Query("SELECT new com.tokio.financialtransfer.repository.ExposureRow("
+            + "ft.sourceAccount, ft.transferDate, COUNT(ft), SUM(ft.transferAmount), SUM(ft.fee)) "
+            + "FROM FinancialTransfer ft GROUP BY ft.sourceAccount, ft.transferDate")
+    List<ExposureRow> sumExposureByAccountAndDate();
+
+    /**
+     * Same totals restricted to transfer dates on or after {@code from}; served by the
+     * (transfer_date, transfer_amount) index. Used to load the daily limit totals at startup.
+     */
+    @Query("SELECT new com.tokio.financialtransfer.repository.ExposureRow("
+            + "ft.sourceAccount, ft.transferDate, COUNT(ft), SUM(ft.transferAmount), SUM(ft.fee)) "
+            + "FROM FinancialTransfer ft WHERE ft.transferDate >= :from GROUP BY ft.sourceAccount, ft.transferDate")
+    List<ExposureRow> sumExposureByAccountAndDateFrom(@Param("from") LocalDate from);
+
+    /**
+     * Ids of transfers in {@code status} whose transfer date is on or before {@code dueBy}, oldest
+     * transfer date first; served by the (status, transfer_date) index. Accounts with a transfer
+     * another instance is executing, or was executing when it stopped, are skipped until that
+     * transfer is done, so one account is only executed by one instance at a time. Only the page
+     * size is used.
+     */
+    @Query("SELECT ft.id FROM FinancialTransfer ft WHERE ft.status = :status AND ft.transferDate <= :dueBy "
+            + "AND NOT EXISTS (SELECT other.id FROM FinancialTransfer other WHERE other.sourceAccount = ft.sourceAccount "
+            + "AND other.status = :executing AND other.claimOwner <> :owner) "
+            + "ORDER BY ft.transferDate, ft.id")
+    List<Long> findDueIds(@Param("status") TransferStatus status,
+                          @Param("dueBy") LocalDate dueBy,
+                          @Param("executing") TransferStatus executing,
+                          @Param("owner") String owner,
+                          Pageable pageable);
+
+    /**
+     * Ids of EXECUTING transfers whose lease ran out before {@code now}, or that never had one;
+     * served by the (status, lease_expires_at) index. Only the page size is used.
+     */
+    @Query("SELECT ft.id FROM FinancialTransfer ft WHERE ft.status = :status "
+            + "AND (ft.leaseExpiresAt IS NULL OR ft.leaseExpiresAt < :now) ORDER BY ft.leaseExpiresAt, ft.id")
+    List<Long> findExpiredLeaseIds(@Param("status") TransferStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim the given transfers for {@code owner} until {@code leaseExpiresAt}. The condition is checked
+     * per row inside the update, so a row that another instance claimed since it was read is skipped:
+     * only SCHEDULED rows and EXECUTING rows whose lease expired before {@code now} are taken, and a
+     * SCHEDULED row only while no other instance holds a transfer of the same source account.
+     *
+     * @return number of transfers claimed
+     */
+    @Modifying
+    @Query("UPDATE FinancialTransfer ft SET ft.status = :executing, ft.claimOwner = :owner, ft.leaseExpiresAt = :leaseExpiresAt "
+            + "WHERE ft.id IN :ids AND ((ft.status = :scheduled AND NOT EXISTS (SELECT other.id FROM FinancialTransfer other "
+            + "WHERE other.sourceAccount = ft.sourceAccount AND other.status = :executing AND other.claimOwner <> :owner)) "
+            + "OR (ft.status = :executing AND (ft.leaseExpiresAt IS NULL OR ft.leaseExpiresAt < :now)))")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+              @Param("scheduled") TransferStatus scheduled,
+              @Param("executing") TransferStatus executing);
+
+    /**
+     * Transfers among {@code ids} that {@code owner} currently holds under the lease ending at {@code leaseExpiresAt}.
+     */
+    @Query("SELECT ft FROM FinancialTransfer ft WHERE ft.id IN :ids AND ft.status = :status "
+            + "AND ft.claimOwner = :owner AND ft.leaseExpiresAt = :leaseExpiresAt")
+    List<FinancialTransfer> findClaimed(@Param("ids") Collection<Long> ids,
+                                        @Param("status") TransferStatus status,
+                                        @Param("owner") String owner,
+                                        @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Push back the lease of transfers {@code owner} still holds.
+     */
+    @Modifying
+    @Query("UPDATE FinancialTransfer ft SET ft.leaseExpiresAt = :leaseExpiresAt "
+            + "WHERE ft.id IN :ids AND ft.status = :status AND ft.claimOwner = :owner")
+    int renewLease(@Param("ids") Collection<Long> ids,
+                   @Param("status") TransferStatus status,
+                   @Param("owner") String owner,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Put every transfer {@code owner} holds back to SCHEDULED.
+     */
+    @Modifying
+    @Query("UPDATE FinancialTransfer ft SET ft.status = :to, ft.claimOwner = NULL, ft.leaseExpiresAt = NULL "
+            + "WHERE ft.status = :from AND ft.claimOwner = :owner")
+    int releaseLeases(@Param("owner") String owner, @Param("from") TransferStatus from, @Param("to") TransferStatus to);
+
+    /**
+     * Record the outcome of executing the given transfers; rows {@code owner} no longer holds are left
+     * alone. The owner is kept on the row to show which instance executed it.
+     *
+     * @return number of transfers recorded
+     */
+    @Modifying
+    @Query("UPDATE FinancialTransfer ft SET ft.status = :status, ft.executedAt = :executedAt, ft.leaseExpiresAt = NULL "
+            + "WHERE ft.id IN :ids AND ft.status = :executing AND ft.claimOwner = :owner")
+    int completeExecution(@Param("ids") Collection<Long> ids,
+                          @Param("owner") String owner,
+                          @Param("status") TransferStatus status,
+                          @Param("executedAt") LocalDateTime executedAt,
+                          @Param("executing") TransferStatus executing);
+
+    long countByStatus(TransferStatus status);
 }
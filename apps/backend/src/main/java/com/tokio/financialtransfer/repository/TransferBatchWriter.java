@@ -0,0 +1,88 @@
+package com.tokio.financialtransfer.repository;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts many transfers in one transaction using JDBC statement batching.
+ *
+ * <p>Ids come from the pooled sequence, so persisting does not hit the database; the session is
+ * flushed every {@code hibernate.jdbc.batch_size} entities, which sends exactly one JDBC batch, and
+ * then cleared so the persistence context never holds more than one batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferBatchWriter {
+
+    private static final String INSERT_WITH_ID = "INSERT INTO financial_transfers "
+            + "(id, source_account, destination_account, transfer_amount, fee, transfer_date, schedule_date, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize = 500;
+
+    /**
+     * Persist all transfers; on return each one carries its generated id.
+     */
+    @Transactional
+    public void insertAll(List<FinancialTransfer> transfers) {
+        for (int i = 0; i < transfers.size(); i++) {
+            entityManager.persist(transfers.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Take the next id from the generator Hibernate uses for {@link FinancialTransfer}, so ids
+     * handed out here never collide with those of {@link #insertAll}. The sequence is only read
+     * once every allocation block.
+     */
+    public long reserveId() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) sessionFactory.getMetamodel().entityPersister(FinancialTransfer.class)
+                    .getIdentifierGenerator()
+                    .generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+
+    /**
+     * Insert transfers whose id and schedule date are already set, as one JDBC batch per
+     * {@code hibernate.jdbc.batch_size} rows, all in one transaction.
+     */
+    @Transactional
+    public void insertAllWithIds(List<FinancialTransfer> transfers) {
+        jdbcTemplate.batchUpdate(INSERT_WITH_ID, transfers, batchSize, (statement, transfer) -> {
+            statement.setLong(1, transfer.getId());
+            statement.setString(2, transfer.getSourceAccount());
+            statement.setString(3, transfer.getDestinationAccount());
+            statement.setBigDecimal(4, transfer.getTransferAmount());
+            statement.setBigDecimal(5, transfer.getFee());
+            statement.setDate(6, Date.valueOf(transfer.getTransferDate()));
+            statement.setTimestamp(7, Timestamp.valueOf(transfer.getScheduleDate()));
+            statement.setString(8, transfer.getStatus().name());
+        });
+    }
+}
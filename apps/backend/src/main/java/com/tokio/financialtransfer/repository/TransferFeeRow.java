@@ -0,0 +1,22 @@
+package com.tokio.financialtransfer.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Columns needed to re-price a stored transfer. Read through a constructor expression,
+ * so rows are never managed by the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class TransferFeeRow {
+
+    private final BigDecimal transferAmount;
+    private final BigDecimal fee;
+    private final LocalDate transferDate;
+    private final LocalDateTime scheduleDate;
+}
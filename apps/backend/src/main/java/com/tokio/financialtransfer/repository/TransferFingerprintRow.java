@@ -0,0 +1,21 @@
+package com.tokio.financialtransfer.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Columns that identify a duplicate transfer. Read through a constructor expression,
+ * so rows are never managed by the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class TransferFingerprintRow {
+
+    private final String sourceAccount;
+    private final String destinationAccount;
+    private final BigDecimal transferAmount;
+    private final LocalDate transferDate;
+}
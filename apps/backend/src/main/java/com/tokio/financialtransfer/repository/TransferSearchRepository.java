@@ -0,0 +1,19 @@
+package com.tokio.financialtransfer.repository;
+
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
+import com.tokio.financialtransfer.util.TransferCursor;
+
+import java.util.List;
+
+/**
+ * Filtered listing, mixed into {@link FinancialTransferRepository}.
+ */
+public interface TransferSearchRepository {
+
+    /**
+     * Transfers matching {@code criteria} in (scheduleDate DESC, id DESC) order, starting right
+     * after {@code after} when it is not {@code null}, at most {@code limit} of them.
+     */
+    List<TransferResponseDTO> search(TransferSearchCriteria criteria, TransferCursor after, int limit);
+}
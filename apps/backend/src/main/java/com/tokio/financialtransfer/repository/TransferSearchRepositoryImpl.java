@@ -0,0 +1,79 @@
+package com.tokio.financialtransfer.repository;
+
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.util.TransferCursor;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the search with the Criteria API so the WHERE clause holds only the filters that were
+ * given; with an account filter the query is served by the matching (account, schedule_date, id)
+ * index, already in listing order.
+ */
+@RequiredArgsConstructor
+public class TransferSearchRepositoryImpl implements TransferSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransferResponseDTO> search(TransferSearchCriteria criteria, TransferCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransferResponseDTO> query = cb.createQuery(TransferResponseDTO.class);
+        Root<FinancialTransfer> ft = query.from(FinancialTransfer.class);
+        Path<LocalDateTime> scheduleDate = ft.get("scheduleDate");
+        Path<Long> id = ft.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getSourceAccount() != null) {
+            predicates.add(cb.equal(ft.get("sourceAccount"), criteria.getSourceAccount()));
+        }
+        if (criteria.getDestinationAccount() != null) {
+            predicates.add(cb.equal(ft.get("destinationAccount"), criteria.getDestinationAccount()));
+        }
+        if (criteria.getTransferDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(ft.get("transferDate"), criteria.getTransferDateFrom()));
+        }
+        if (criteria.getTransferDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(ft.get("transferDate"), criteria.getTransferDateTo()));
+        }
+        if (criteria.getAmountMin() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(ft.get("transferAmount"), criteria.getAmountMin()));
+        }
+        if (criteria.getAmountMax() != null) {
+            predicates.add(cb.lessThanOrEqualTo(ft.get("transferAmount"), criteria.getAmountMax()));
+        }
+        if (after != null) {
+            // Same keyset condition as FinancialTransferRepository.findPageAfter
+            predicates.add(cb.lessThanOrEqualTo(scheduleDate, after.getScheduleDate()));
+            predicates.add(cb.or(
+                    cb.lessThan(scheduleDate, after.getScheduleDate()),
+                    cb.lessThan(id, after.getId())));
+        }
+
+        query.select(cb.construct(TransferResponseDTO.class,
+                        id,
+                        ft.get("sourceAccount"),
+                        ft.get("destinationAccount"),
+                        ft.get("transferAmount"),
+                        ft.get("fee"),
+                        ft.get("transferDate"),
+                        scheduleDate))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(scheduleDate), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
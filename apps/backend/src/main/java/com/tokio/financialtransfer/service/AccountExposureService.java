@@ -0,0 +1,149 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.AccountExposureDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.ExposureRow;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Total scheduled amount and fees per source account and transfer date, kept in memory so
+ * exposure lookups never aggregate the transfer history.
+ *
+ * <p>The rollup is rebuilt from the table once at startup and then updated by every scheduling
+ * path. Updates made inside a transaction are applied only after it commits, so a rolled back
+ * transfer is never counted. Totals are {@link LongAdder}s in cents: concurrent schedules for the
+ * same account do not contend, and a read taken during an update may see the count without the
+ * amount for an instant.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccountExposureService {
+
+    private final FinancialTransferRepository repository;
+
+    private final Map<String, Map<Long, Exposure>> exposures = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void rebuild() {
+        long start = System.nanoTime();
+        exposures.clear();
+
+        List<ExposureRow> rows = repository.sumExposureByAccountAndDate();
+        for (ExposureRow row : rows) {
+            Exposure exposure = exposureFor(row.getSourceAccount(), row.getTransferDate().toEpochDay());
+            exposure.transfers.add(row.getTransferCount());
+            exposure.amountCents.add(toCents(row.getTotalAmount()));
+            exposure.feeCents.add(toCents(row.getTotalFees()));
+        }
+
+        log.info("Account exposure rollup rebuilt with {} entries in {} ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Add the transfers to the rollup, after the current transaction commits if there is one.
+     */
+    public void record(List<FinancialTransfer> transfers) {
+        int size = transfers.size();
+        String[] accounts = new String[size];
+        long[] epochDays = new long[size];
+        long[] amountCents = new long[size];
+        long[] feeCents = new long[size];
+        for (int i = 0; i < size; i++) {
+            FinancialTransfer transfer = transfers.get(i);
+            accounts[i] = transfer.getSourceAccount();
+            epochDays[i] = transfer.getTransferDate().toEpochDay();
+            amountCents[i] = toCents(transfer.getTransferAmount());
+            feeCents[i] = toCents(transfer.getFee());
+        }
+
+        Runnable apply = () -> {
+            for (int i = 0; i < size; i++) {
+                Exposure exposure = exposureFor(accounts[i], epochDays[i]);
+                exposure.transfers.increment();
+                exposure.amountCents.add(amountCents[i]);
+                exposure.feeCents.add(feeCents[i]);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    public void record(FinancialTransfer transfer) {
+        record(Collections.singletonList(transfer));
+    }
+
+    /**
+     * Exposure of the account on the date; zero totals when nothing is scheduled.
+     */
+    public AccountExposureDTO getExposure(String sourceAccount, LocalDate transferDate) {
+        Map<Long, Exposure> byDate = exposures.get(sourceAccount);
+        Exposure exposure = byDate == null ? null : byDate.get(transferDate.toEpochDay());
+        return toDTO(sourceAccount, transferDate, exposure);
+    }
+
+    /**
+     * Exposure of the account on every date it has transfers scheduled for, by date.
+     */
+    public List<AccountExposureDTO> getExposures(String sourceAccount) {
+        Map<Long, Exposure> byDate = exposures.get(sourceAccount);
+        if (byDate == null) {
+            return Collections.emptyList();
+        }
+        List<AccountExposureDTO> result = new ArrayList<>(byDate.size());
+        byDate.forEach((epochDay, exposure) -> result.add(toDTO(sourceAccount, LocalDate.ofEpochDay(epochDay), exposure)));
+        result.sort((a, b) -> a.getTransferDate().compareTo(b.getTransferDate()));
+        return result;
+    }
+
+    private Exposure exposureFor(String sourceAccount, long epochDay) {
+        return exposures.computeIfAbsent(sourceAccount, account -> new ConcurrentHashMap<>())
+                .computeIfAbsent(epochDay, day -> new Exposure());
+    }
+
+    private static AccountExposureDTO toDTO(String sourceAccount, LocalDate transferDate, Exposure exposure) {
+        return AccountExposureDTO.builder()
+                .sourceAccount(sourceAccount)
+                .transferDate(transferDate)
+                .transferCount(exposure == null ? 0 : exposure.transfers.sum())
+                .totalAmount(BigDecimal.valueOf(exposure == null ? 0 : exposure.amountCents.sum(), 2))
+                .totalFees(BigDecimal.valueOf(exposure == null ? 0 : exposure.feeCents.sum(), 2))
+                .build();
+    }
+
+    // Same rounding as the DECIMAL(15, 2) columns the values are stored in
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Exposure {
+        private final LongAdder transfers = new LongAdder();
+        private final LongAdder amountCents = new LongAdder();
+        private final LongAdder feeCents = new LongAdder();
+    }
+}
@@ -0,0 +1,181 @@
+package com.tokio.financialtransfer.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes work on one source account across request threads without touching the database.
+ *
+ * <p>Accounts hash onto a fixed, power-of-two number of {@link ReentrantLock} stripes, so two
+ * requests only wait for each other when they are for the same account or, rarely, for accounts
+ * that share a stripe; everything else runs in parallel. Per-account rules (limits, duplicate
+ * checks) can then read and update their state under the lock without racing.
+ *
+ * <p>An acquisition first tries the lock without waiting; only when that fails is it counted as
+ * contended and timed. A caller that waits longer than {@code timeout-ms} is rejected rather than
+ * queued without bound. Callers that take several accounts do so through {@link #withLocks},
+ * which always locks stripes in ascending order so two of them cannot deadlock.
+ */
+@Component
+public class AccountLockService implements MeterBinder {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+
+    private final LongAdder uncontended = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    @Autowired
+    public AccountLockService(@Value("${transfers.account-locks.stripes:1024}") int stripes,
+                              @Value("${transfers.account-locks.timeout-ms:5000}") long timeoutMillis) {
+        if (stripes < 1 || timeoutMillis < 1) {
+            throw new IllegalArgumentException("Configuração de bloqueio por conta inválida");
+        }
+        int size = Integer.highestOneBit(Math.min(stripes, 1 << 16) * 2 - 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Run {@code action} holding the lock of {@code account}.
+     *
+     * @throws RejectedExecutionException when the lock is not acquired within the timeout
+     */
+    public <T> T withLock(String account, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(account)];
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run {@code action} holding the locks of every account in {@code accounts}.
+     *
+     * @throws RejectedExecutionException when a lock is not acquired within the timeout
+     */
+    public <T> T withLocks(Collection<String> accounts, Supplier<T> action) {
+        int[] indexes = accounts.stream().mapToInt(this::stripeOf).distinct().toArray();
+        Arrays.sort(indexes);
+        int held = 0;
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                held++;
+            }
+            return action.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Lock {@code account} until the current transaction completes, so whatever the transaction
+     * wrote for the account is committed (or rolled back) before the next request sees it.
+     *
+     * @throws IllegalStateException when no transaction is active
+     * @throws RejectedExecutionException when the lock is not acquired within the timeout
+     */
+    public void lockForTransaction(String account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Bloqueio por conta exige uma transação ativa");
+        }
+        ReentrantLock lock = stripes[stripeOf(account)];
+        acquire(lock);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            uncontended.increment();
+            return;
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitNanos.add(System.nanoTime() - start);
+        if (!acquired) {
+            timedOut.increment();
+            throw new RejectedExecutionException("Conta de origem ocupada, tente novamente");
+        }
+        contended.increment();
+    }
+
+    int stripeOf(String account) {
+        int hash = account.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    public long getUncontended() {
+        return uncontended.sum();
+    }
+
+    public long getContended() {
+        return contended.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transfers.account_lock.acquisitions", this, AccountLockService::getUncontended)
+                .tag("result", "uncontended")
+                .description("Account locks taken without waiting")
+                .register(registry);
+        FunctionCounter.builder("transfers.account_lock.acquisitions", this, AccountLockService::getContended)
+                .tag("result", "contended")
+                .description("Account locks taken after waiting for another request")
+                .register(registry);
+        FunctionCounter.builder("transfers.account_lock.acquisitions", this, AccountLockService::getTimedOut)
+                .tag("result", "timeout")
+                .description("Requests rejected after waiting too long for an account lock")
+                .register(registry);
+        FunctionTimer.builder("transfers.account_lock.wait", this,
+                        service -> service.contended.sum() + service.timedOut.sum(),
+                        service -> service.waitNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent waiting for contended account locks")
+                .register(registry);
+    }
+}
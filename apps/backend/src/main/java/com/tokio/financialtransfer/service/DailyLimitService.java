@@ -0,0 +1,304 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.repository.ExposureRow;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.util.BusinessClock;
+import com.tokio.financialtransfer.util.ConcurrentLongLongMap;
+import com.tokio.financialtransfer.util.LoggingContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the amount a source account may schedule for a single transfer date.
+ *
+ * <p>Totals per (account, transfer date) live in two {@link ConcurrentLongLongMap}s keyed by the
+ * account number and the epoch day packed into one {@code long}, with the amount in cents as the
+ * value: one for what is committed and one for what is reserved but not committed yet, so a check
+ * is two hash lookups with no boxing and no query. The committed totals are loaded from the table
+ * at startup; only dates from today on are kept, since earlier dates can no longer be scheduled,
+ * and past days are dropped once the business day rolls over.
+ *
+ * <p>A check and its reservation run under the account's lock from {@link AccountLockService}, so
+ * concurrent requests for an account can never both slip under the limit. A reservation stays in
+ * flight until the caller reports the insert with {@link #confirm} or gives it back with
+ * {@link #release}; inside a transaction {@link #reserve} does either when the transaction ends.
+ *
+ * <p>The committed totals only see this instance's inserts, plus what was in the table when it
+ * started, while several instances may share the table. Once a reservation would take an account
+ * past {@code recheck-ratio} of the limit, the amount committed for that account and date by every
+ * instance is read from the table and used in place of the local committed total when it is
+ * larger, still adding this instance's in-flight reservations on top; below that point no query
+ * is made. Amounts another instance has reserved but not committed yet are not seen, so an account
+ * can overshoot by what is in flight on other instances at that moment.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DailyLimitService {
+
+    /** Bits of the key holding the epoch day; leaves 41 bits for the 10-digit account number. */
+    private static final int DAY_BITS = 22;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+
+    private final FinancialTransferRepository repository;
+    private final BusinessClock businessClock;
+    private final AccountLockService accountLockService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transfers.limits.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transfers.limits.daily-amount:100000.00}")
+    private BigDecimal dailyAmount = new BigDecimal("100000.00");
+
+    @Value("${transfers.limits.recheck-ratio:0.8}")
+    private double recheckRatio = 0.8;
+
+    private long limitCents;
+    private long recheckCents;
+    private final ConcurrentLongLongMap committed = new ConcurrentLongLongMap(65536);
+    private final ConcurrentLongLongMap inFlight = new ConcurrentLongLongMap(1024);
+    private final AtomicLong currentDay = new AtomicLong();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rechecks = new LongAdder();
+    private final LongAdder reconciled = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (dailyAmount.signum() <= 0) {
+            throw new IllegalArgumentException("Limite diário de transferências deve ser maior que zero");
+        }
+        if (recheckRatio <= 0 || recheckRatio > 1) {
+            throw new IllegalArgumentException("Proporção de reconferência do limite diário deve estar entre 0 e 1");
+        }
+        limitCents = toCents(dailyAmount);
+        recheckCents = (long) (limitCents * recheckRatio);
+        registerMeters(meterRegistry);
+        if (enabled) {
+            rebuild();
+            log.info("Daily limit of {} per account and date enforced in memory; totals past {} are re-checked "
+                    + "against the committed transfers of every instance", dailyAmount, BigDecimal.valueOf(recheckCents, 2));
+        }
+    }
+
+    /**
+     * Reload the committed totals of every transfer date from today on.
+     */
+    void rebuild() {
+        long start = System.nanoTime();
+        LocalDate today = businessClock.today();
+        currentDay.set(today.toEpochDay());
+        committed.clear();
+
+        List<ExposureRow> rows = repository.sumExposureByAccountAndDateFrom(today);
+        for (ExposureRow row : rows) {
+            committed.addAndGet(key(row.getSourceAccount(), row.getTransferDate()), toCents(row.getTotalAmount()));
+        }
+
+        log.info("Daily limit totals loaded with {} entries in {} ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserve {@code amount} on the account's total for {@code transferDate}. Inside a transaction
+     * the reservation is confirmed when the transaction commits and released otherwise.
+     *
+     * @throws IllegalArgumentException when the total would go past the daily limit
+     */
+    public void reserve(String sourceAccount, LocalDate transferDate, BigDecimal amount) {
+        if (!tryReserve(sourceAccount, transferDate, amount)) {
+            throw new IllegalArgumentException(limitExceededMessage());
+        }
+        if (enabled && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        confirm(sourceAccount, transferDate, amount);
+                    } else {
+                        release(sourceAccount, transferDate, amount);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Reserve {@code amount} unless it would take the account past the limit for the date. The
+     * reservation stays in flight until the caller {@link #confirm confirms} or
+     * {@link #release releases} it.
+     *
+     * @return whether the amount was reserved
+     * @throws java.util.concurrent.RejectedExecutionException when the account lock is not acquired in time
+     */
+    public boolean tryReserve(String sourceAccount, LocalDate transferDate, BigDecimal amount) {
+        if (!enabled) {
+            return true;
+        }
+        rollOver();
+        long key = key(sourceAccount, transferDate);
+        long cents = toCents(amount);
+        boolean reserved = accountLockService.withLock(sourceAccount, () -> {
+            // In flight first: a concurrent confirm adds to committed before it subtracts here, so
+            // reading in this order can only count a transfer twice, never miss it
+            long pending = inFlight.get(key);
+            long done = committed.get(key);
+            if (pending + done + cents > recheckCents) {
+                done = Math.max(done, stored(sourceAccount, transferDate, done));
+            }
+            if (pending + done + cents > limitCents) {
+                return false;
+            }
+            inFlight.addAndGet(key, cents);
+            return true;
+        });
+        if (reserved) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        LoggingContext.set("dailyLimitExceeded", true);
+        return false;
+    }
+
+    /**
+     * Amount committed in the table for the account and date, which includes the transfers other
+     * instances stored. Read only; the local committed total is left as it is, so two checks
+     * racing on it cannot both add the same difference.
+     */
+    private long stored(String sourceAccount, LocalDate transferDate, long local) {
+        rechecks.increment();
+        long stored = toCents(repository.sumAmountBySourceAccountAndDate(sourceAccount, transferDate));
+        if (stored > local) {
+            reconciled.increment();
+            log.debug("Daily limit total checked with {} cents committed by other instances", stored - local);
+        }
+        return stored;
+    }
+
+    /**
+     * Move a reserved amount to the committed total once its transfer is stored.
+     */
+    public void confirm(String sourceAccount, LocalDate transferDate, BigDecimal amount) {
+        if (enabled) {
+            long key = key(sourceAccount, transferDate);
+            long cents = toCents(amount);
+            committed.addAndGet(key, cents);
+            inFlight.addAndGet(key, -cents);
+        }
+    }
+
+    /**
+     * Give back an amount reserved for a transfer that was not stored.
+     */
+    public void release(String sourceAccount, LocalDate transferDate, BigDecimal amount) {
+        if (enabled) {
+            inFlight.addAndGet(key(sourceAccount, transferDate), -toCents(amount));
+        }
+    }
+
+    /**
+     * Amount already scheduled, or reserved, by the account for the date.
+     */
+    public BigDecimal getUsed(String sourceAccount, LocalDate transferDate) {
+        long key = key(sourceAccount, transferDate);
+        return BigDecimal.valueOf(inFlight.get(key) + committed.get(key), 2);
+    }
+
+    public String limitExceededMessage() {
+        return "Limite diário de transferências da conta excedido (" + dailyAmount.setScale(2, RoundingMode.HALF_UP) + ")";
+    }
+
+    /**
+     * Drop the totals of past days the first time a check runs on a new business day.
+     */
+    private void rollOver() {
+        long today = businessClock.todayEpochDay();
+        long previous = currentDay.get();
+        if (today != previous && currentDay.compareAndSet(previous, today)) {
+            int dropped = committed.removeKeysIf(key -> (key & DAY_MASK) < today)
+                    + inFlight.removeKeysIf(key -> (key & DAY_MASK) < today);
+            log.info("Dropped {} daily limit totals of past days", dropped);
+        }
+    }
+
+    static long key(String sourceAccount, LocalDate transferDate) {
+        long account = Long.parseLong(sourceAccount);
+        long epochDay = transferDate.toEpochDay();
+        if (account < 0 || account >= 1L << (63 - DAY_BITS) || epochDay < 0 || epochDay > DAY_MASK) {
+            throw new IllegalArgumentException("Conta ou data fora do intervalo suportado");
+        }
+        return account << DAY_BITS | epochDay;
+    }
+
+    // Same rounding as the DECIMAL(15, 2) columns the values are stored in
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getRechecks() {
+        return rechecks.sum();
+    }
+
+    public long getReconciled() {
+        return reconciled.sum();
+    }
+
+    public int getEntries() {
+        return committed.size() + inFlight.size();
+    }
+
+    /**
+     * Registered from {@link #start()} rather than as a {@code MeterBinder}, like the other services
+     * that read the table while the context starts.
+     */
+    private void registerMeters(MeterRegistry registry) {
+        FunctionCounter.builder("transfers.limits.checks", this, DailyLimitService::getAccepted)
+                .tag("result", "accepted")
+                .description("Transfers that fit within the daily limit of their account")
+                .register(registry);
+        FunctionCounter.builder("transfers.limits.checks", this, DailyLimitService::getRejected)
+                .tag("result", "rejected")
+                .description("Transfers rejected for exceeding the daily limit of their account")
+                .register(registry);
+        FunctionCounter.builder("transfers.limits.rechecks", this, service -> service.getRechecks() - service.getReconciled())
+                .tag("result", "unchanged")
+                .description("Near-limit checks where the table held nothing beyond the local committed total")
+                .register(registry);
+        FunctionCounter.builder("transfers.limits.rechecks", this, DailyLimitService::getReconciled)
+                .tag("result", "raised")
+                .description("Near-limit checks that counted amounts other instances committed")
+                .register(registry);
+        Gauge.builder("transfers.limits.entries", this, DailyLimitService::getEntries)
+                .description("Committed and in-flight account and transfer date totals kept in memory")
+                .register(registry);
+    }
+}
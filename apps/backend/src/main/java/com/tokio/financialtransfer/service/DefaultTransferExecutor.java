@@ -0,0 +1,30 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.validation.TransferChecks;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Placeholder used until transfers are settled against a payment system: it re-checks the stored
+ * transfer, so a row that could never be settled ends up FAILED, and records the execution without
+ * moving any money. {@link TransferExecutionService} refuses to run with it under the prod profile.
+ * Registered only when no other {@link TransferExecutor} bean exists.
+ */
+@Slf4j
+public class DefaultTransferExecutor implements TransferExecutor {
+
+    @Override
+    public void execute(FinancialTransfer transfer) {
+        String error = TransferChecks.checkSourceAccount(transfer.getSourceAccount());
+        if (error == null) {
+            error = TransferChecks.checkDestinationAccount(transfer.getDestinationAccount());
+        }
+        if (error == null) {
+            error = TransferChecks.checkAmount(transfer.getTransferAmount());
+        }
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        log.debug("Transfer {} executed", transfer.getId());
+    }
+}
@@ -0,0 +1,321 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.repository.TransferFingerprintRow;
+import com.tokio.financialtransfer.util.BloomFilter;
+import com.tokio.financialtransfer.util.Hashing;
+import com.tokio.financialtransfer.util.LoggingContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Spots a transfer scheduled twice: same source, destination, amount and transfer date.
+ *
+ * <p>The fingerprint of every stored transfer goes into a {@link BloomFilter}, so the common case,
+ * a new transfer, is answered from memory. Only when the filter says "maybe" is the table asked,
+ * through the duplicate lookup index, whether the transfer really exists; lookups that find
+ * nothing are counted as false positives. A confirmed duplicate is logged as a warning or
+ * rejected, depending on {@code policy}. The check runs on every scheduling path (single
+ * transfers, write-behind, batches and CSV imports) under the source account lock. A write-behind
+ * or batch transfer goes into the filter as soon as it is accepted, and its fingerprint is kept
+ * among the queued ones until its insert commits or fails, so a duplicate of a transfer still
+ * waiting for its commit, including a repeated item of the same batch, is caught without a lookup.
+ *
+ * <p>The filter is built from the table at startup, sized for twice the rows found (at least
+ * {@code min-capacity}) at {@code false-positive-rate}. When its estimated false positive rate
+ * passes twice the target it is rebuilt, bigger, on a background thread; transfers stored
+ * meanwhile go into both filters until the new one takes over. Transfers are added once their
+ * transaction commits. The filter holds this instance's inserts only, plus what was in the table
+ * when it was built.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DuplicateTransferDetector {
+
+    public enum Policy { OFF, WARN, REJECT }
+
+    private final FinancialTransferRepository repository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transfers.duplicates.policy:off}")
+    private Policy policy = Policy.OFF;
+
+    @Value("${transfers.duplicates.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${transfers.duplicates.min-capacity:100000}")
+    private long minCapacity = 100000;
+
+    private volatile BloomFilter filter;
+    /** New filter being loaded by a rebuild; receives every insert until it replaces {@link #filter}. */
+    private volatile BloomFilter building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    /** Fingerprints of write-behind and batch transfers accepted but not committed yet, with their count. */
+    private final Map<Long, Integer> queued = new ConcurrentHashMap<>();
+    private ExecutorService rebuilder;
+
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 0.5 || minCapacity < 1) {
+            throw new IllegalArgumentException("Configuração de detecção de duplicatas inválida");
+        }
+        registerMeters(meterRegistry);
+        if (policy == Policy.OFF) {
+            return;
+        }
+        rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "duplicate-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuild();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    /**
+     * Load a new filter, sized for the current table, from every stored transfer and switch to it.
+     */
+    void rebuild() {
+        long start = System.nanoTime();
+        long rows = repository.count();
+        BloomFilter next = BloomFilter.create(Math.max(minCapacity, rows * 2), falsePositiveRate);
+        // Published before the scan: a transfer committed after the scan started is added by record()
+        building = next;
+        LongAdder loaded = new LongAdder();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<TransferFingerprintRow> stored = repository.streamFingerprintRows()) {
+                stored.forEach(row -> {
+                    next.put(fingerprint(row.getSourceAccount(), row.getDestinationAccount(),
+                            row.getTransferAmount(), row.getTransferDate()));
+                    loaded.increment();
+                });
+            }
+        });
+        filter = next;
+        building = null;
+        rebuilds.increment();
+
+        log.info("Duplicate filter built from {} transfers in {} ms: {} KB, {} hashes, expected false positive rate {}",
+                loaded.sum(), (System.nanoTime() - start) / 1_000_000, next.getMemoryBytes() / 1024, next.getHashes(),
+                String.format("%.5f", next.expectedFalsePositiveRate()));
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Check the transfer against those already stored.
+     *
+     * @return whether it duplicates a stored transfer (always {@code false} when the policy is OFF)
+     * @throws IllegalArgumentException when it is a duplicate and the policy is REJECT
+     */
+    public boolean check(String sourceAccount, String destinationAccount, BigDecimal transferAmount, LocalDate transferDate) {
+        if (policy == Policy.OFF) {
+            return false;
+        }
+        long fingerprint = fingerprint(sourceAccount, destinationAccount, transferAmount, transferDate);
+        if (!filter.mightContain(fingerprint)) {
+            misses.increment();
+            return false;
+        }
+        if (!queued.containsKey(fingerprint)
+                && !repository.existsDuplicate(sourceAccount, destinationAccount, transferAmount, transferDate)) {
+            falsePositives.increment();
+            return false;
+        }
+
+        duplicates.increment();
+        LoggingContext.set("duplicateTransfer", true);
+        if (policy == Policy.REJECT) {
+            log.warn("Duplicate transfer rejected");
+            throw new IllegalArgumentException(
+                    "Transferência duplicada: já existe um agendamento com a mesma origem, destino, valor e data");
+        }
+        log.warn("Possible duplicate transfer scheduled");
+        return true;
+    }
+
+    /**
+     * Add a stored transfer to the filter, once the current transaction commits if there is one.
+     */
+    public void record(FinancialTransfer transfer) {
+        if (policy == Policy.OFF) {
+            return;
+        }
+        long fingerprint = fingerprint(transfer);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(fingerprint);
+                }
+            });
+        } else {
+            add(fingerprint);
+        }
+    }
+
+    /**
+     * Add a write-behind or batch transfer that was just accepted, before its insert commits. Must
+     * be followed by {@link #releaseQueued} once the insert has committed or failed.
+     */
+    public void recordQueued(FinancialTransfer transfer) {
+        if (policy == Policy.OFF) {
+            return;
+        }
+        long fingerprint = fingerprint(transfer);
+        queued.merge(fingerprint, 1, Integer::sum);
+        add(fingerprint);
+    }
+
+    /**
+     * Forget queued transfers whose insert committed, and is now found by the lookup, or failed.
+     */
+    public void releaseQueued(List<FinancialTransfer> transfers) {
+        if (policy == Policy.OFF) {
+            return;
+        }
+        for (FinancialTransfer transfer : transfers) {
+            queued.computeIfPresent(fingerprint(transfer), (fingerprint, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Warning reported for a batch item accepted as a possible duplicate.
+     */
+    public String possibleDuplicateMessage() {
+        return "Possível transferência duplicada: já existe um agendamento com a mesma origem, destino, valor e data";
+    }
+
+    private void add(long fingerprint) {
+        // Read the rebuild target before the live filter: either the put lands in the new filter,
+        // or it happened before the rebuild's scan started and the scan sees the committed row
+        BloomFilter next = building;
+        BloomFilter current = filter;
+        current.put(fingerprint);
+        if (next != null && next != current) {
+            next.put(fingerprint);
+        }
+        if (current.expectedFalsePositiveRate() > 2 * falsePositiveRate && rebuilding.compareAndSet(false, true)) {
+            log.info("Duplicate filter is getting full, rebuilding it");
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("Duplicate filter rebuild failed", ex);
+                    building = null;
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    private static long fingerprint(FinancialTransfer transfer) {
+        return fingerprint(transfer.getSourceAccount(), transfer.getDestinationAccount(),
+                transfer.getTransferAmount(), transfer.getTransferDate());
+    }
+
+    /**
+     * 64-bit fingerprint of the fields that make two transfers duplicates. The amount is taken in
+     * cents, like the DECIMAL(15, 2) column, so 10.0 and 10.00 match.
+     */
+    static long fingerprint(String sourceAccount, String destinationAccount, BigDecimal transferAmount, LocalDate transferDate) {
+        long hash = Hashing.mix(Hashing.accountKey(sourceAccount));
+        hash = Hashing.mix(hash ^ Hashing.accountKey(destinationAccount));
+        hash = Hashing.mix(hash ^ transferAmount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue());
+        return Hashing.mix(hash ^ transferDate.toEpochDay());
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    public int getQueued() {
+        return queued.size();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    /**
+     * False positive rate the filter has reached with the bits set so far.
+     */
+    public double getExpectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.expectedFalsePositiveRate();
+    }
+
+    /**
+     * Registered from {@link #start()} rather than as a {@code MeterBinder}, like the other services
+     * that read the table while the context starts.
+     */
+    private void registerMeters(MeterRegistry registry) {
+        FunctionCounter.builder("transfers.duplicates.checks", this, DuplicateTransferDetector::getMisses)
+                .tag("result", "new")
+                .description("Transfers the filter ruled out as duplicates without a query")
+                .register(registry);
+        FunctionCounter.builder("transfers.duplicates.checks", this, DuplicateTransferDetector::getFalsePositives)
+                .tag("result", "false_positive")
+                .description("Filter hits the exact lookup found to be new transfers")
+                .register(registry);
+        FunctionCounter.builder("transfers.duplicates.checks", this, DuplicateTransferDetector::getDuplicates)
+                .tag("result", "duplicate")
+                .description("Transfers confirmed as duplicates of a stored transfer")
+                .register(registry);
+        Gauge.builder("transfers.duplicates.filter.false_positive_rate", this,
+                        DuplicateTransferDetector::getExpectedFalsePositiveRate)
+                .description("False positive rate of the duplicate filter at its current fill")
+                .register(registry);
+        FunctionCounter.builder("transfers.duplicates.filter.rebuilds", this, DuplicateTransferDetector::getRebuilds)
+                .description("Times the duplicate filter was built from the table")
+                .register(registry);
+    }
+}
@@ -0,0 +1,272 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.FeeBacktestBandDTO;
+import com.tokio.financialtransfer.dto.FeeBacktestReportDTO;
+import com.tokio.financialtransfer.dto.FeeRuleDTO;
+import com.tokio.financialtransfer.model.CompiledFeeRule;
+import com.tokio.financialtransfer.model.FeeRule;
+import com.tokio.financialtransfer.model.FeeSchedule;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.repository.TransferFeeRow;
+import com.tokio.financialtransfer.util.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Re-prices every stored transfer under a candidate fee schedule and reports, per band, how
+ * much the candidate would have charged compared to the fees actually stored.
+ *
+ * <p>Rows are read through a forward-only stream into two reusable chunks of primitive arrays.
+ * While one chunk is priced on the fork-join pool the reader fills the other, so memory stays
+ * at two chunks however many transfers there are. Each transfer is priced at its original
+ * offset: {@code transferDate} minus the day it was scheduled.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FeeBacktestService {
+
+    /** Rows priced sequentially by a single fork-join leaf; also keeps leaf sums far from overflow. */
+    private static final int LEAF_SIZE = 2048;
+
+    private final FinancialTransferRepository repository;
+
+    @Value("${fees.backtest.chunk-size:65536}")
+    private int chunkSize = 65536;
+
+    @Transactional(readOnly = true)
+    public FeeBacktestReportDTO backtest(List<FeeRuleDTO> rules) {
+        FeeSchedule candidate = FeeSchedule.compile(FeeScheduleRegistry.toRules(rules));
+        Bands bands = new Bands(candidate);
+        long start = System.nanoTime();
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        BandTotals totals = new BandTotals(bands.size());
+        Chunk filling = new Chunk(chunkSize);
+        Chunk spare = new Chunk(chunkSize);
+        ForkJoinTask<BandTotals> pending = null;
+
+        try (Stream<TransferFeeRow> rows = repository.streamFeeRows()) {
+            Iterator<TransferFeeRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                filling.add(iterator.next());
+                if (filling.isFull()) {
+                    if (pending != null) {
+                        totals.merge(pending.join());
+                    }
+                    pending = pool.submit(new PriceTask(filling, bands, 0, filling.size));
+                    Chunk next = spare;
+                    spare = filling;
+                    filling = next;
+                    filling.clear();
+                }
+            }
+        }
+        if (pending != null) {
+            totals.merge(pending.join());
+        }
+        if (filling.size > 0) {
+            totals.merge(pool.invoke(new PriceTask(filling, bands, 0, filling.size)));
+        }
+
+        FeeBacktestReportDTO report = toReport(candidate, totals, (System.nanoTime() - start) / 1_000_000);
+
+        LoggingContext.set("transfersAnalyzed", report.getTransfersAnalyzed());
+        LoggingContext.set("feeDelta", report.getTotalDelta());
+        log.info("Fee schedule backtest completed over {} transfers in {} ms", report.getTransfersAnalyzed(), report.getElapsedMillis());
+        return report;
+    }
+
+    private static FeeBacktestReportDTO toReport(FeeSchedule candidate, BandTotals totals, long elapsedMillis) {
+        List<FeeBacktestBandDTO> bandReports = new ArrayList<>();
+        long analyzed = totals.transfers[totals.unpriced];
+        long originalCents = 0;
+        long candidateCents = 0;
+
+        List<FeeRule> rules = candidate.getRules();
+        for (int band = 0; band < rules.size(); band++) {
+            FeeRule rule = rules.get(band);
+            analyzed += totals.transfers[band];
+            originalCents = Math.addExact(originalCents, totals.originalCents[band]);
+            candidateCents = Math.addExact(candidateCents, totals.candidateCents[band]);
+            bandReports.add(new FeeBacktestBandDTO(
+                    rule.getType(),
+                    rule.getMinDays(),
+                    rule.getMaxDays(),
+                    totals.transfers[band],
+                    toAmount(totals.originalCents[band]),
+                    toAmount(totals.candidateCents[band]),
+                    toAmount(totals.candidateCents[band] - totals.originalCents[band])));
+        }
+
+        return FeeBacktestReportDTO.builder()
+                .transfersAnalyzed(analyzed)
+                .bands(bandReports)
+                .unpricedTransfers(totals.transfers[totals.unpriced])
+                .unpricedOriginalFees(toAmount(totals.originalCents[totals.unpriced]))
+                .totalOriginalFees(toAmount(originalCents))
+                .totalCandidateFees(toAmount(candidateCents))
+                .totalDelta(toAmount(candidateCents - originalCents))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        long cents = CompiledFeeRule.toCents(amount);
+        return cents >= 0 ? cents : amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Band index for every day offset of the candidate schedule.
+     */
+    private static final class Bands {
+        private final CompiledFeeRule[] rules;
+        private final int[] bandByDay;
+
+        private Bands(FeeSchedule schedule) {
+            this.rules = new CompiledFeeRule[schedule.getRules().size()];
+            this.bandByDay = new int[schedule.getMaxDays() + 1];
+
+            int band = -1;
+            CompiledFeeRule previous = null;
+            for (int day = 0; day < bandByDay.length; day++) {
+                CompiledFeeRule rule = schedule.ruleFor(day);
+                if (rule != previous) {
+                    previous = rule;
+                    rules[++band] = rule;
+                }
+                bandByDay[day] = band;
+            }
+        }
+
+        private int size() {
+            return rules.length;
+        }
+
+        private int bandFor(int dayOffset) {
+            return dayOffset < 0 || dayOffset >= bandByDay.length ? -1 : bandByDay[dayOffset];
+        }
+    }
+
+    /**
+     * Reusable batch of rows as primitive columns.
+     */
+    private static final class Chunk {
+        private final long[] amountCents;
+        private final long[] feeCents;
+        private final int[] dayOffsets;
+        private int size;
+
+        private Chunk(int capacity) {
+            this.amountCents = new long[capacity];
+            this.feeCents = new long[capacity];
+            this.dayOffsets = new int[capacity];
+        }
+
+        private void add(TransferFeeRow row) {
+            long offset = row.getTransferDate().toEpochDay() - row.getScheduleDate().toLocalDate().toEpochDay();
+            amountCents[size] = toCents(row.getTransferAmount());
+            feeCents[size] = toCents(row.getFee());
+            dayOffsets[size] = offset < 0 || offset > Integer.MAX_VALUE ? -1 : (int) offset;
+            size++;
+        }
+
+        private boolean isFull() {
+            return size == amountCents.length;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Per-band counters. The last slot collects transfers the candidate schedule does not cover.
+     */
+    private static final class BandTotals {
+        private final int unpriced;
+        private final long[] transfers;
+        private final long[] originalCents;
+        private final long[] candidateCents;
+
+        private BandTotals(int bands) {
+            this.unpriced = bands;
+            this.transfers = new long[bands + 1];
+            this.originalCents = new long[bands + 1];
+            this.candidateCents = new long[bands + 1];
+        }
+
+        private void merge(BandTotals other) {
+            for (int i = 0; i < transfers.length; i++) {
+                transfers[i] += other.transfers[i];
+                originalCents[i] = Math.addExact(originalCents[i], other.originalCents[i]);
+                candidateCents[i] = Math.addExact(candidateCents[i], other.candidateCents[i]);
+            }
+        }
+    }
+
+    private static final class PriceTask extends RecursiveTask<BandTotals> {
+        private final Chunk chunk;
+        private final Bands bands;
+        private final int from;
+        private final int to;
+
+        private PriceTask(Chunk chunk, Bands bands, int from, int to) {
+            this.chunk = chunk;
+            this.bands = bands;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BandTotals compute() {
+            if (to - from <= LEAF_SIZE) {
+                return priceRange();
+            }
+            int middle = (from + to) >>> 1;
+            PriceTask left = new PriceTask(chunk, bands, from, middle);
+            left.fork();
+            BandTotals totals = new PriceTask(chunk, bands, middle, to).compute();
+            totals.merge(left.join());
+            return totals;
+        }
+
+        private BandTotals priceRange() {
+            BandTotals totals = new BandTotals(bands.size());
+            for (int i = from; i < to; i++) {
+                int band = bands.bandFor(chunk.dayOffsets[i]);
+                long amountCents = chunk.amountCents[i];
+                if (band < 0) {
+                    totals.transfers[totals.unpriced]++;
+                    totals.originalCents[totals.unpriced] += chunk.feeCents[i];
+                    continue;
+                }
+
+                CompiledFeeRule rule = bands.rules[band];
+                long candidateFee = rule.supportsCents(amountCents)
+                        ? rule.feeCents(amountCents)
+                        : rule.calculate(BigDecimal.valueOf(amountCents, 2)).unscaledValue().longValueExact();
+                totals.transfers[band]++;
+                totals.originalCents[band] += chunk.feeCents[i];
+                totals.candidateCents[band] += candidateFee;
+            }
+            return totals;
+        }
+    }
+}
@@ -1,78 +1,146 @@
 package com.tokio.financialtransfer.service;
 
-import com.tokio.financialtransfer.model.FeeRule;
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.FeeBatchResponseDTO;
+import com.tokio.financialtransfer.dto.FeeCalendarResponseDTO;
+import com.tokio.financialtransfer.dto.FeeQuoteRequest;
+import com.tokio.financialtransfer.model.CompiledFeeRule;
+import com.tokio.financialtransfer.model.FeeSchedule;
+import com.tokio.financialtransfer.util.BusinessClock;
 import com.tokio.financialtransfer.util.LoggingContext;
+import com.tokio.financialtransfer.validation.TransferChecks;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class FeeCalculationService {
 
-    private static final int SCALE = 2;
-    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
-    
-    private static final List<FeeRule> FEE_RULES = Arrays.asList(
-        new FeeRule(0, 0, "same_day", new BigDecimal("3.00"), new BigDecimal("0.025")),
-        new FeeRule(1, 10, "1_to_10_days", new BigDecimal("12.00"), null),
-        new FeeRule(11, 20, "11_to_20_days", null, new BigDecimal("0.082")),
-        new FeeRule(21, 30, "21_to_30_days", null, new BigDecimal("0.069")),
-        new FeeRule(31, 40, "31_to_40_days", null, new BigDecimal("0.047")),
-        new FeeRule(41, 50, "41_to_50_days", null, new BigDecimal("0.017"))
-    );
+    private final FeeScheduleRegistry feeScheduleRegistry;
+    private final BusinessClock businessClock;
+    private final FeeQuoteCache feeQuoteCache;
+
+    @Value("${fees.batch.parallel-threshold:2048}")
+    private int batchParallelThreshold = 2048;
 
     public BigDecimal calculateFee(BigDecimal transferAmount, LocalDate transferDate) {
-        LocalDate today = LocalDate.now();
-        long daysDifference = ChronoUnit.DAYS.between(today, transferDate);
+        LocalDate today = businessClock.today();
+        long todayEpochDay = today.toEpochDay();
+        long daysDifference = transferDate.toEpochDay() - todayEpochDay;
         
         logCalculationStart(today, daysDifference);
         
-        var applicableRule = findApplicableRule(daysDifference);
+        FeeSchedule schedule = feeScheduleRegistry.current();
+        var applicableRule = schedule.ruleFor(daysDifference);
         if (applicableRule == null) {
-            throw new IllegalArgumentException("Não há taxa aplicável para transferências com mais de 50 dias");
+            throw new IllegalArgumentException(noApplicableFeeMessage(schedule));
         }
         
-        BigDecimal fee = calculateFeeByRule(transferAmount, applicableRule);
+        BigDecimal fee = feeQuoteCache.feeFor(transferAmount, applicableRule, todayEpochDay, schedule.getVersion());
         
         logCalculationSuccess(applicableRule.getType(), fee);
         return fee;
     }
     
-    private void logCalculationStart(LocalDate today, long daysDifference) {
-        LoggingContext.set("currentDate", today);
-        LoggingContext.set("daysDifference", daysDifference);
-        log.debug("Starting fee calculation for {} days difference", daysDifference);
+    /**
+     * Price many (amount, date) pairs at once. "Today" is read a single time for the whole batch,
+     * and an invalid item only produces an error at its own index.
+     */
+    public FeeBatchResponseDTO calculateFeeBatch(List<? extends FeeQuoteRequest> items) {
+        long todayEpochDay = businessClock.todayEpochDay();
+        FeeSchedule schedule = feeScheduleRegistry.current();
+        int size = items.size();
+        BigDecimal[] fees = new BigDecimal[size];
+        String[] errors = new String[size];
+
+        if (size >= batchParallelThreshold) {
+            IntStream.range(0, size).parallel().forEach(i -> quoteItem(items.get(i), schedule, todayEpochDay, i, fees, errors));
+        } else {
+            for (int i = 0; i < size; i++) {
+                quoteItem(items.get(i), schedule, todayEpochDay, i, fees, errors);
+            }
+        }
+
+        List<BatchItemErrorDTO> itemErrors = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null) {
+                itemErrors.add(new BatchItemErrorDTO(i, errors[i]));
+            }
+        }
+
+        LoggingContext.set("batchSize", size);
+        LoggingContext.set("batchErrors", itemErrors.size());
+        log.info("Batch fee calculation completed for {} items with {} errors", size, itemErrors.size());
+        return new FeeBatchResponseDTO(Arrays.asList(fees), itemErrors);
     }
-    
-    private FeeRule findApplicableRule(long daysDifference) {
-        return FEE_RULES.stream()
-                .filter(rule -> rule.appliesTo(daysDifference))
-                .findFirst()
-                .orElse(null);
+
+    /**
+     * Fee for every day offset covered by the schedule, starting today. Each band is priced
+     * once and its fee reused for all the days it covers.
+     */
+    public FeeCalendarResponseDTO calculateFeeCalendar(BigDecimal transferAmount) {
+        LocalDate today = businessClock.today();
+        FeeSchedule schedule = feeScheduleRegistry.current();
+        int days = schedule.getMaxDays() + 1;
+        BigDecimal[] fees = new BigDecimal[days];
+
+        CompiledFeeRule previousRule = null;
+        BigDecimal previousFee = null;
+        for (int day = 0; day < days; day++) {
+            CompiledFeeRule rule = schedule.ruleFor(day);
+            if (rule != previousRule) {
+                previousRule = rule;
+                previousFee = rule == null ? null : rule.calculate(transferAmount);
+            }
+            fees[day] = previousFee;
+        }
+
+        LoggingContext.set("currentDate", today);
+        log.info("Fee calendar calculated for {} days", days);
+        return new FeeCalendarResponseDTO(transferAmount, today, businessClock.nextMidnight().toOffsetDateTime(), Arrays.asList(fees));
     }
-    
-    private BigDecimal calculateFeeByRule(BigDecimal transferAmount, FeeRule rule) {        
-        if (rule.hasFixedAndPercentageFee()) {
-            var fixedComponent = rule.getFixedFee();
-            var percentageComponent = transferAmount.multiply(rule.getPercentageFee());
-            var fee = fixedComponent.add(percentageComponent);
-            
-            LoggingContext.set("fixedFee", fixedComponent);
-            LoggingContext.set("percentageFee", percentageComponent);
-            return fee.setScale(SCALE, ROUNDING_MODE);
+
+    private void quoteItem(FeeQuoteRequest item, FeeSchedule schedule, long todayEpochDay,
+                           int index, BigDecimal[] fees, String[] errors) {
+        if (item == null) {
+            errors[index] = "Item inválido";
+            return;
+        }
+
+        String error = TransferChecks.checkAmount(item.getTransferAmount());
+        if (error == null) {
+            error = TransferChecks.checkTransferDate(item.getTransferDate(), todayEpochDay);
+        }
+        if (error != null) {
+            errors[index] = error;
+            return;
         }
 
-        if (rule.hasOnlyFixedFee()) {
-            return rule.getFixedFee().setScale(SCALE, ROUNDING_MODE);
+        CompiledFeeRule rule = schedule.ruleFor(item.getTransferDate().toEpochDay() - todayEpochDay);
+        if (rule == null) {
+            errors[index] = noApplicableFeeMessage(schedule);
+            return;
         }
+        fees[index] = feeQuoteCache.feeFor(item.getTransferAmount(), rule, todayEpochDay, schedule.getVersion());
+    }
 
-        return transferAmount.multiply(rule.getPercentageFee()).setScale(SCALE, ROUNDING_MODE);
+    private void logCalculationStart(LocalDate today, long daysDifference) {
+        LoggingContext.set("currentDate", today);
+        LoggingContext.set("daysDifference", daysDifference);
+        log.debug("Starting fee calculation for {} days difference", daysDifference);
+    }
+    
+    private static String noApplicableFeeMessage(FeeSchedule schedule) {
+        return "Não há taxa aplicável para transferências com mais de " + schedule.getMaxDays() + " dias";
     }
     
     private void logCalculationSuccess(String feeType, BigDecimal fee) {
@@ -0,0 +1,218 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.CompiledFeeRule;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional bounded cache of fee quotes, keyed by the amount in cents and the band of the
+ * schedule that prices it.
+ *
+ * <p>The table is direct-mapped: each key hashes to exactly one slot, a lookup is one array
+ * read and a store overwrites whatever the slot held, so memory is bounded by the capacity and
+ * no lock is ever taken. The whole table belongs to a single business day and schedule version;
+ * the first quote that sees a later day or version swaps in an empty table, and a quote for an
+ * earlier one, e.g. priced just before a schedule swap, is computed without touching the cache.
+ *
+ * <p>Only amounts priced on the long cents path are cached, which makes a hit bit-for-bit
+ * identical to recomputing the fee. Hits, misses and evictions are published as the standard
+ * {@code cache.*} meters with {@code cache=feeQuotes}.
+ */
+@Component
+@Slf4j
+public class FeeQuoteCache implements MeterBinder {
+
+    static final String CACHE_NAME = "feeQuotes";
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int mask;
+    private final AtomicReference<Table> table;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public FeeQuoteCache(@Value("${fees.quote-cache.enabled:false}") boolean enabled,
+                         @Value("${fees.quote-cache.capacity:4096}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade do cache de taxas deve ser maior que zero");
+        }
+        this.enabled = enabled;
+        this.capacity = Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1);
+        this.mask = this.capacity - 1;
+        this.table = new AtomicReference<>();
+
+        if (enabled) {
+            log.info("Fee quote cache enabled with {} slots", this.capacity);
+        }
+    }
+
+    /**
+     * Cache that always computes, for callers built outside the Spring context.
+     */
+    public static FeeQuoteCache disabled() {
+        return new FeeQuoteCache(false, 1);
+    }
+
+    /**
+     * Fee for the amount under the given rule, served from the cache when possible.
+     *
+     * @param todayEpochDay   business day the quote belongs to
+     * @param scheduleVersion version of the schedule the rule was taken from
+     */
+    public BigDecimal feeFor(BigDecimal transferAmount, CompiledFeeRule rule, long todayEpochDay, long scheduleVersion) {
+        if (!enabled) {
+            return rule.calculate(transferAmount);
+        }
+        long amountCents = CompiledFeeRule.toCents(transferAmount);
+        if (!rule.supportsCents(amountCents)) {
+            return rule.calculate(transferAmount);
+        }
+
+        Table current = tableFor(todayEpochDay, scheduleVersion);
+        if (current == null) {
+            misses.increment();
+            return BigDecimal.valueOf(rule.feeCents(amountCents), 2);
+        }
+        int band = rule.getRule().getMinDays();
+        int slot = slotOf(amountCents, band);
+
+        Entry entry = current.slots.get(slot);
+        if (entry != null && entry.amountCents == amountCents && entry.band == band) {
+            hits.increment();
+            return entry.fee;
+        }
+
+        misses.increment();
+        BigDecimal fee = BigDecimal.valueOf(rule.feeCents(amountCents), 2);
+        Entry previous = current.slots.getAndSet(slot, new Entry(amountCents, band, fee));
+        if (previous != null) {
+            evictions.increment();
+        }
+        return fee;
+    }
+
+    /**
+     * Table for the caller's day and schedule version, or {@code null} when a newer table is
+     * installed: a caller still pricing under an older day or version must neither read from nor
+     * store into the newer table, nor swap its own back in.
+     */
+    private Table tableFor(long epochDay, long scheduleVersion) {
+        Table current = table.get();
+        while (true) {
+            if (current != null && current.epochDay == epochDay && current.scheduleVersion == scheduleVersion) {
+                return current;
+            }
+            if (current != null && (current.epochDay > epochDay || current.scheduleVersion > scheduleVersion)) {
+                return null;
+            }
+            Table fresh = new Table(epochDay, scheduleVersion, capacity);
+            if (table.compareAndSet(current, fresh)) {
+                if (current != null) {
+                    invalidations.increment();
+                }
+                log.debug("Fee quote cache cleared for day {} and schedule version {}", epochDay, scheduleVersion);
+                return fresh;
+            }
+            // Another thread swapped the table first; check its key again
+            current = table.get();
+        }
+    }
+
+    private int slotOf(long amountCents, int band) {
+        long hash = (amountCents * 31 + band) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Number of times the whole cache was dropped because the day or the schedule changed.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("cache", CACHE_NAME);
+        FunctionCounter.builder("cache.gets", this, FeeQuoteCache::getHits)
+                .tags(tags).tag("result", "hit")
+                .description("Fee quotes served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, FeeQuoteCache::getMisses)
+                .tags(tags).tag("result", "miss")
+                .description("Fee quotes computed and stored in the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, FeeQuoteCache::getEvictions)
+                .tags(tags)
+                .description("Cached fee quotes overwritten by a colliding quote")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", this, FeeQuoteCache::getInvalidations)
+                .tags(tags)
+                .description("Times the fee quote cache was cleared by a day rollover or schedule change")
+                .register(registry);
+        Gauge.builder("cache.capacity", this, cache -> cache.getCapacity())
+                .tags(tags)
+                .description("Slots in the fee quote cache")
+                .register(registry);
+    }
+
+    private static final class Table {
+        private final long epochDay;
+        private final long scheduleVersion;
+        private final AtomicReferenceArray<Entry> slots;
+
+        private Table(long epochDay, long scheduleVersion, int capacity) {
+            this.epochDay = epochDay;
+            this.scheduleVersion = scheduleVersion;
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    private static final class Entry {
+        private final long amountCents;
+        private final int band;
+        private final BigDecimal fee;
+
+        private Entry(long amountCents, int band, BigDecimal fee) {
+            this.amountCents = amountCents;
+            this.band = band;
+            this.fee = fee;
+        }
+    }
+}
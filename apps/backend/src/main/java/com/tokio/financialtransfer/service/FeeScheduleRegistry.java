@@ -0,0 +1,108 @@
+package com.tokio.financialtransfer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.FeeRuleDTO;
+import com.tokio.financialtransfer.dto.FeeScheduleDTO;
+import com.tokio.financialtransfer.model.FeeRule;
+import com.tokio.financialtransfer.model.FeeSchedule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the fee schedule currently in effect.
+ *
+ * <p>The schedule is read from {@code fees.schedule.location} and published as an immutable
+ * {@link FeeSchedule} through a single volatile reference: readers never lock, and a quote
+ * that reads the reference once sees one consistent version even while a reload is running.
+ * A schedule that fails validation is never published.
+ */
+@Component
+@Slf4j
+public class FeeScheduleRegistry {
+
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    private volatile FeeSchedule current;
+
+    public FeeScheduleRegistry(ObjectMapper objectMapper,
+                               ResourceLoader resourceLoader,
+                               @Value("${fees.schedule.location:classpath:fee-schedule.json}") String location) {
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Schedule currently in effect.
+     */
+    public FeeSchedule current() {
+        return current;
+    }
+
+    /**
+     * Read the schedule again from its location and publish it.
+     *
+     * @throws IllegalArgumentException when the file is unreadable or the schedule is invalid
+     */
+    public FeeSchedule reload() {
+        Resource resource = resourceLoader.getResource(location);
+        FeeScheduleDTO schedule;
+        try (InputStream input = resource.getInputStream()) {
+            schedule = objectMapper.readValue(input, FeeScheduleDTO.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Não foi possível ler a tabela de taxas em " + location + ": " + e.getMessage(), e);
+        }
+        return publish(schedule.getRules());
+    }
+
+    /**
+     * Validate the given rules and atomically replace the current schedule.
+     */
+    public synchronized FeeSchedule publish(List<FeeRuleDTO> rules) {
+        long nextVersion = current == null ? 1 : current.getVersion() + 1;
+        FeeSchedule schedule = FeeSchedule.compile(toRules(rules), nextVersion);
+        current = schedule;
+
+        log.info("Fee schedule version {} published with {} rules", schedule.getVersion(), schedule.getRules().size());
+        return schedule;
+    }
+
+    static List<FeeRule> toRules(List<FeeRuleDTO> rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Tabela de taxas deve ter ao menos uma regra");
+        }
+        return rules.stream()
+                .map(rule -> new FeeRule(rule.getMinDays(), rule.getMaxDays(), rule.getType(), rule.getFixedFee(), rule.getPercentageFee()))
+                .collect(Collectors.toList());
+    }
+
+    static FeeScheduleDTO toDTO(FeeSchedule schedule) {
+        List<FeeRuleDTO> rules = schedule.getRules().stream()
+                .map(rule -> new FeeRuleDTO(rule.getMinDays(), rule.getMaxDays(), rule.getType(), rule.getFixedFee(), rule.getPercentageFee()))
+                .collect(Collectors.toList());
+        return new FeeScheduleDTO(schedule.getVersion(), rules);
+    }
+
+    /**
+     * Current schedule in its external representation.
+     */
+    public FeeScheduleDTO describe() {
+        return toDTO(current);
+    }
+}
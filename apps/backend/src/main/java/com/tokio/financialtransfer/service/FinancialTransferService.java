@@ -1,21 +1,35 @@
 package com.tokio.financialtransfer.service;
 
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.FeeBatchResponseDTO;
+import com.tokio.financialtransfer.dto.FeeCalculationRequestDTO;
+import com.tokio.financialtransfer.dto.FeeCalendarResponseDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferPageDTO;
 import com.tokio.financialtransfer.dto.TransferRequestDTO;
 import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
 import com.tokio.financialtransfer.model.FinancialTransfer;
 import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.repository.TransferBatchWriter;
 import com.tokio.financialtransfer.util.LoggingContext;
+import com.tokio.financialtransfer.util.TransferCursor;
+import com.tokio.financialtransfer.validation.TransferChecks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import javax.transaction.Transactional;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -24,15 +38,42 @@ public class FinancialTransferService {
 
     private final FinancialTransferRepository repository;
     private final FeeCalculationService feeCalculationService;
+    private final TransferBatchWriter transferBatchWriter;
+    private final AccountExposureService accountExposureService;
+    private final AccountLockService accountLockService;
+    private final DailyLimitService dailyLimitService;
+    private final TransferAnomalyScorer transferAnomalyScorer;
+    private final DuplicateTransferDetector duplicateTransferDetector;
+
+    @Value("${transfers.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${transfers.page.max-size:500}")
+    private int maxPageSize = 500;
 
+    /**
+     * Price and store one transfer. The source account stays locked until the transaction
+     * completes, so requests for the same account are applied one after the other. The response
+     * carries the account's anomaly score when scoring is enabled, and is marked as a possible
+     * duplicate when the same transfer is already stored and the duplicate policy only warns.
+     *
+     * @throws IllegalArgumentException when the transfer would exceed the account's daily limit,
+     *                                  or duplicates a stored one and the duplicate policy rejects
+     */
     @Transactional
     public TransferResponseDTO scheduleTransfer(TransferRequestDTO request) {
         log.debug("Processing transfer scheduling request");
+        accountLockService.lockForTransaction(request.getSourceAccount());
+        boolean duplicate = duplicateTransferDetector.check(request.getSourceAccount(), request.getDestinationAccount(),
+                request.getTransferAmount(), request.getTransferDate());
         
         BigDecimal fee = feeCalculationService.calculateFee(request.getTransferAmount(), request.getTransferDate());
         
         LoggingContext.set(LoggingContext.FEE_AMOUNT, fee);
         log.debug("Fee calculated for transfer");
+
+        dailyLimitService.reserve(request.getSourceAccount(), request.getTransferDate(), request.getTransferAmount());
+        Integer anomalyScore = transferAnomalyScorer.score(request.getSourceAccount(), request.getDestinationAccount());
         
         FinancialTransfer transfer = FinancialTransfer.builder()
                 .sourceAccount(request.getSourceAccount())
@@ -43,25 +84,241 @@ public class FinancialTransferService {
                 .build();
 
         FinancialTransfer savedTransfer = repository.save(transfer);
+        accountExposureService.record(savedTransfer);
+        duplicateTransferDetector.record(savedTransfer);
         
         LoggingContext.set(LoggingContext.TRANSFER_ID, savedTransfer.getId());
         LoggingContext.set("scheduleDate", savedTransfer.getScheduleDate());
         log.info("Transfer successfully saved to database");
         
-        return mapToResponseDTO(savedTransfer);
+        TransferResponseDTO response = mapToResponseDTO(savedTransfer);
+        response.setAnomalyScore(anomalyScore);
+        if (duplicate) {
+            response.setPossibleDuplicate(true);
+        }
+        return response;
     }
 
+    /**
+     * Validate and price every item, then insert the valid ones in a single transaction with
+     * batched inserts. An invalid item is reported at its index and does not stop the others.
+     * Items are checked for duplicates and against the daily limit under their account's lock,
+     * one lock stripe at a time, and in order, so earlier items use up the limit first and a
+     * repeated item is caught against the earlier one of the same batch; no lock is held while the
+     * rows are inserted, so single requests for other accounts never wait for the batch. Possible
+     * duplicates the policy lets through are listed as warnings. Accepted items count towards the
+     * anomaly scores of their accounts, though the scores are not returned.
+     */
+    public TransferBatchResponseDTO scheduleTransferBatch(List<TransferRequestDTO> requests) {
+        long start = System.nanoTime();
+        int size = requests.size();
+
+        FeeBatchResponseDTO quotes = feeCalculationService.calculateFeeBatch(requests);
+        String[] errors = new String[size];
+        boolean[] possibleDuplicates = new boolean[size];
+        for (BatchItemErrorDTO error : quotes.getErrors()) {
+            errors[error.getIndex()] = error.getMessage();
+        }
+
+        Map<Integer, List<Integer>> byStripe = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            TransferRequestDTO request = requests.get(i);
+            if (request == null) {
+                continue;
+            }
+            String accountError = TransferChecks.checkSourceAccount(request.getSourceAccount());
+            if (accountError == null) {
+                accountError = TransferChecks.checkDestinationAccount(request.getDestinationAccount());
+            }
+            if (accountError != null) {
+                errors[i] = accountError;
+            }
+            if (errors[i] == null) {
+                byStripe.computeIfAbsent(accountLockService.stripeOf(request.getSourceAccount()), stripe -> new ArrayList<>()).add(i);
+            }
+        }
+
+        FinancialTransfer[] accepted = new FinancialTransfer[size];
+        List<FinancialTransfer> transfers = new ArrayList<>(size);
+        int[] itemIndexes = new int[size];
+        try {
+            for (List<Integer> items : byStripe.values()) {
+                // Every account in the group shares this stripe, so one acquisition covers them all
+                accountLockService.withLock(requests.get(items.get(0)).getSourceAccount(), () -> {
+                    for (int i : items) {
+                        TransferRequestDTO request = requests.get(i);
+                        try {
+                            possibleDuplicates[i] = duplicateTransferDetector.check(request.getSourceAccount(),
+                                    request.getDestinationAccount(), request.getTransferAmount(), request.getTransferDate());
+                        } catch (IllegalArgumentException ex) {
+                            errors[i] = ex.getMessage();
+                            continue;
+                        }
+                        if (!dailyLimitService.tryReserve(request.getSourceAccount(), request.getTransferDate(), request.getTransferAmount())) {
+                            errors[i] = dailyLimitService.limitExceededMessage();
+                            continue;
+                        }
+                        accepted[i] = FinancialTransfer.builder()
+                                .sourceAccount(request.getSourceAccount())
+                                .destinationAccount(request.getDestinationAccount())
+                                .transferAmount(request.getTransferAmount())
+                                .fee(quotes.getFees().get(i))
+                                .transferDate(request.getTransferDate())
+                                .build();
+                        // Queued until the insert ends, so a later copy in this batch, or a single
+                        // request for the account, sees it before it is committed
+                        duplicateTransferDetector.recordQueued(accepted[i]);
+                        transferAnomalyScorer.score(request.getSourceAccount(), request.getDestinationAccount());
+                    }
+                    return null;
+                });
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (accepted[i] != null) {
+                    itemIndexes[transfers.size()] = i;
+                    transfers.add(accepted[i]);
+                }
+            }
+            if (!transfers.isEmpty()) {
+                transferBatchWriter.insertAll(transfers);
+            }
+        } catch (RuntimeException ex) {
+            // Nothing was inserted: give back every reservation made so far
+            List<FinancialTransfer> reserved = new ArrayList<>();
+            for (FinancialTransfer transfer : accepted) {
+                if (transfer != null) {
+                    dailyLimitService.release(transfer.getSourceAccount(), transfer.getTransferDate(), transfer.getTransferAmount());
+                    reserved.add(transfer);
+                }
+            }
+            duplicateTransferDetector.releaseQueued(reserved);
+            throw ex;
+        }
+
+        if (!transfers.isEmpty()) {
+            for (FinancialTransfer transfer : transfers) {
+                dailyLimitService.confirm(transfer.getSourceAccount(), transfer.getTransferDate(), transfer.getTransferAmount());
+            }
+            accountExposureService.record(transfers);
+            // Already in the duplicate filter since they were queued
+            duplicateTransferDetector.releaseQueued(transfers);
+        }
+
+        Long[] ids = new Long[size];
+        BigDecimal[] fees = new BigDecimal[size];
+        for (int t = 0; t < transfers.size(); t++) {
+            FinancialTransfer transfer = transfers.get(t);
+            ids[itemIndexes[t]] = transfer.getId();
+            fees[itemIndexes[t]] = transfer.getFee();
+        }
+        List<BatchItemErrorDTO> itemErrors = new ArrayList<>();
+        List<BatchItemErrorDTO> warnings = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null) {
+                itemErrors.add(new BatchItemErrorDTO(i, errors[i]));
+            } else if (possibleDuplicates[i]) {
+                warnings.add(new BatchItemErrorDTO(i, duplicateTransferDetector.possibleDuplicateMessage()));
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long transfersPerSecond = elapsedNanos == 0 ? 0 : transfers.size() * 1_000_000_000L / elapsedNanos;
+
+        LoggingContext.set("batchSize", size);
+        LoggingContext.set("batchAccepted", transfers.size());
+        LoggingContext.set("batchErrors", itemErrors.size());
+        LoggingContext.set("transfersPerSecond", transfersPerSecond);
+        log.info("Transfer batch scheduled: {} accepted, {} rejected", transfers.size(), itemErrors.size());
+
+        return TransferBatchResponseDTO.builder()
+                .accepted(transfers.size())
+                .rejected(itemErrors.size())
+                .ids(Arrays.asList(ids))
+                .fees(Arrays.asList(fees))
+                .errors(itemErrors)
+                .warnings(warnings)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .transfersPerSecond(transfersPerSecond)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public List<TransferResponseDTO> getAllTransfers() {
         log.debug("Fetching all transfers from database");
         
-        List<FinancialTransfer> transfers = repository.findAllOrderByScheduleDateDesc();
+        List<TransferResponseDTO> transfers = repository.findAllResponsesOrderByScheduleDateDesc();
         
         LoggingContext.set("transferCount", transfers.size());
         log.debug("Successfully retrieved transfers from database");
         
-        return transfers.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return transfers;
+    }
+
+    /**
+     * One page of the listing in (scheduleDate DESC, id DESC) order, starting after {@code cursor}
+     * when given. The size defaults to {@code transfers.page.default-size} and is capped at
+     * {@code transfers.page.max-size}.
+     *
+     * @throws IllegalArgumentException when the cursor is not one returned by a previous page
+     */
+    @Transactional(readOnly = true)
+    public TransferPageDTO getTransfersPage(Integer limit, String cursor) {
+        int pageSize = Math.min(limit == null ? defaultPageSize : limit, maxPageSize);
+        // One extra row tells whether there is a next page without a count query
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+
+        List<TransferResponseDTO> transfers;
+        if (cursor == null || cursor.isEmpty()) {
+            transfers = repository.findFirstPage(pageRequest);
+        } else {
+            TransferCursor position = TransferCursor.decode(cursor);
+            transfers = repository.findPageAfter(position.getScheduleDate(), position.getId(), pageRequest);
+        }
+
+        return toPage(transfers, pageSize);
+    }
+
+    /**
+     * Transfers matching every given filter, paged like {@link #getTransfersPage}.
+     *
+     * @throws IllegalArgumentException when a range is inverted or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public TransferPageDTO searchTransfers(TransferSearchCriteria criteria, Integer limit, String cursor) {
+        if (criteria.getTransferDateFrom() != null && criteria.getTransferDateTo() != null
+                && criteria.getTransferDateFrom().isAfter(criteria.getTransferDateTo())) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior ou igual à data final");
+        }
+        if (criteria.getAmountMin() != null && criteria.getAmountMax() != null
+                && criteria.getAmountMin().compareTo(criteria.getAmountMax()) > 0) {
+            throw new IllegalArgumentException("Valor mínimo deve ser menor ou igual ao valor máximo");
+        }
+
+        int pageSize = Math.min(limit == null ? defaultPageSize : limit, maxPageSize);
+        TransferCursor after = cursor == null || cursor.isEmpty() ? null : TransferCursor.decode(cursor);
+        List<TransferResponseDTO> transfers = repository.search(criteria, after, pageSize + 1);
+
+        log.debug("Transfer search returned {} rows", transfers.size());
+        return toPage(transfers, pageSize);
+    }
+
+    /**
+     * Trims the extra row fetched past {@code pageSize} and turns it into the next cursor.
+     */
+    private TransferPageDTO toPage(List<TransferResponseDTO> transfers, int pageSize) {
+        String nextCursor = null;
+        if (transfers.size() > pageSize) {
+            transfers = transfers.subList(0, pageSize);
+            TransferResponseDTO last = transfers.get(pageSize - 1);
+            nextCursor = new TransferCursor(last.getScheduleDate(), last.getId()).encode();
+        }
+
+        LoggingContext.set("transferCount", transfers.size());
+        LoggingContext.set("pageSize", pageSize);
+        log.debug("Successfully retrieved transfer page from database");
+
+        return new TransferPageDTO(transfers, nextCursor);
     }
 
     public BigDecimal calculateFee(BigDecimal transferAmount, LocalDate transferDate) {
@@ -73,6 +330,16 @@ public class FinancialTransferService {
         return fee;
     }
 
+    public FeeBatchResponseDTO calculateFeeBatch(List<FeeCalculationRequestDTO> items) {
+        log.debug("Delegating batch fee calculation to FeeCalculationService");
+        return feeCalculationService.calculateFeeBatch(items);
+    }
+
+    public FeeCalendarResponseDTO calculateFeeCalendar(BigDecimal transferAmount) {
+        log.debug("Delegating fee calendar calculation to FeeCalculationService");
+        return feeCalculationService.calculateFeeCalendar(transferAmount);
+    }
+
     private TransferResponseDTO mapToResponseDTO(FinancialTransfer transfer) {
         return new TransferResponseDTO(
             transfer.getId(),
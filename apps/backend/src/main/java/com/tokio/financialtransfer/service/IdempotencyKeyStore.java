@@ -0,0 +1,254 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of transfers scheduled with an {@code Idempotency-Key} so a client retry
+ * gets the original response back instead of scheduling the transfer again.
+ *
+ * <p>Keys are spread over a fixed number of stripes, each a {@link ConcurrentHashMap}, so a
+ * lookup never takes a lock. Inserts lock only their stripe, which also keeps the keys in
+ * insertion order; since every key lives for the same ttl that is also expiry order, so expired
+ * keys and, once a stripe is full, the oldest keys are dropped from the head of that queue.
+ *
+ * <p>A key is stored before the transfer is scheduled: a retry that arrives while the first
+ * attempt is still running waits for it. A failed attempt forgets its key so it can be retried.
+ */
+@Component
+public class IdempotencyKeyStore implements MeterBinder {
+
+    static final String CACHE_NAME = "idempotencyKeys";
+    private static final int STRIPES = 16;
+
+    private final long ttlNanos;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public IdempotencyKeyStore(@Value("${transfers.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                               @Value("${transfers.idempotency.capacity:65536}") int capacity) {
+        this(ttlSeconds, capacity, System::nanoTime);
+    }
+
+    IdempotencyKeyStore(long ttlSeconds, int capacity, LongSupplier nanoClock) {
+        if (ttlSeconds < 1 || capacity < STRIPES) {
+            throw new IllegalArgumentException("Configuração de chaves de idempotência inválida");
+        }
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity / STRIPES);
+        }
+    }
+
+    /**
+     * Schedule through {@code action} the first time {@code key} is seen and replay that response
+     * for every later request with the same key while it is remembered.
+     *
+     * @throws IllegalArgumentException when the key was already used for a different transfer
+     */
+    public Result execute(String key, TransferRequestDTO request, Supplier<TransferResponseDTO> action) {
+        Stripe stripe = stripes[stripeOf(key)];
+        long now = nanoClock.getAsLong();
+
+        Entry entry = stripe.entries.get(key);
+        if (entry == null || entry.isExpired(now)) {
+            Entry claimed = new Entry(key, request, now + ttlNanos);
+            entry = stripe.putIfAbsent(claimed, now, evictions);
+            if (entry == claimed) {
+                misses.increment();
+                return new Result(run(stripe, claimed, action), false);
+            }
+        }
+
+        if (!entry.request.equals(request)) {
+            throw new IllegalArgumentException("Idempotency-Key já utilizada para outra transferência");
+        }
+        hits.increment();
+        try {
+            return new Result(entry.response.join(), true);
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : ex;
+        }
+    }
+
+    private TransferResponseDTO run(Stripe stripe, Entry entry, Supplier<TransferResponseDTO> action) {
+        try {
+            TransferResponseDTO response = action.get();
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            stripe.remove(entry);
+            entry.response.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static int stripeOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.entries.size();
+        }
+        return size;
+    }
+
+    /**
+     * Entries held in the stripes' insertion queues, which is what bounds memory.
+     */
+    int queued() {
+        int queued = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                queued += stripe.order.size();
+            }
+        }
+        return queued;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("cache", CACHE_NAME);
+        FunctionCounter.builder("cache.gets", this, IdempotencyKeyStore::getHits)
+                .tags(tags).tag("result", "hit")
+                .description("Requests answered with the response stored for their idempotency key")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, IdempotencyKeyStore::getMisses)
+                .tags(tags).tag("result", "miss")
+                .description("Requests whose idempotency key was seen for the first time")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, IdempotencyKeyStore::getEvictions)
+                .tags(tags)
+                .description("Idempotency keys dropped to stay within capacity before they expired")
+                .register(registry);
+        Gauge.builder("cache.size", this, IdempotencyKeyStore::size)
+                .tags(tags)
+                .description("Idempotency keys currently remembered")
+                .register(registry);
+    }
+
+    /**
+     * Outcome of {@link #execute}: the response and whether it was replayed from an earlier request.
+     */
+    public static final class Result {
+        private final TransferResponseDTO response;
+        private final boolean replayed;
+
+        private Result(TransferResponseDTO response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public TransferResponseDTO getResponse() {
+            return response;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        /** Entries in insertion order, guarded by the stripe's lock. */
+        private final ArrayDeque<Entry> order = new ArrayDeque<>();
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Store {@code claimed} unless a live entry for its key exists, which is returned instead.
+         */
+        private synchronized Entry putIfAbsent(Entry claimed, long now, LongAdder evictions) {
+            Entry existing = entries.get(claimed.key);
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+
+            // Bounded by the queue, which also holds entries replaced after they expired
+            while (!order.isEmpty() && (order.peekFirst().isExpired(now) || order.size() >= capacity)) {
+                Entry oldest = order.pollFirst();
+                if (entries.remove(oldest.key, oldest) && !oldest.isExpired(now)) {
+                    evictions.increment();
+                }
+            }
+            entries.put(claimed.key, claimed);
+            order.addLast(claimed);
+            return claimed;
+        }
+
+        /**
+         * Forget an entry whose attempt failed. It was added recently, so it is looked for from the tail.
+         */
+        private synchronized void remove(Entry entry) {
+            entries.remove(entry.key, entry);
+            order.removeLastOccurrence(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final TransferRequestDTO request;
+        private final long expiresAt;
+        private final CompletableFuture<TransferResponseDTO> response = new CompletableFuture<>();
+
+        private Entry(String key, TransferRequestDTO request, long expiresAt) {
+            this.key = key;
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.util.CountMinSketch;
+import com.tokio.financialtransfer.util.DistinctCountSketch;
+import com.tokio.financialtransfer.util.Hashing;
+import com.tokio.financialtransfer.util.LoggingContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Scores how unusual a source account's recent scheduling looks, for the fraud team to follow up.
+ *
+ * <p>Two signals are tracked per source account without keeping any per-account history: how many
+ * transfers it scheduled, in a {@link CountMinSketch}, and how many distinct destinations it sent
+ * to, in a {@link DistinctCountSketch}. Both have a fixed size chosen at startup, whatever the
+ * number of accounts, and are updated with atomic operations only.
+ *
+ * <p>Counts are kept per window of {@code window-seconds}. When a window ends the sketches of the
+ * current window become the previous one and fresh ones take over; the previous window fades out
+ * linearly over the current one, so an account's numbers cover a sliding window instead of
+ * dropping to zero at each boundary. Each signal is compared with its threshold and the score
+ * (0 to 100) is high when either is reached. Scoring never rejects a transfer: the score is
+ * returned with the response and logged, and a score of at least {@code flag-score} is logged
+ * as a warning and counted.
+ */
+@Component
+@Slf4j
+public class TransferAnomalyScorer implements MeterBinder {
+
+    private static final int DEPTH = 4;
+    private static final int DISTINCT_DEPTH = 2;
+
+    @Value("${transfers.anomaly.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transfers.anomaly.window-seconds:3600}")
+    private long windowSeconds = 3600;
+
+    @Value("${transfers.anomaly.velocity-threshold:50}")
+    private long velocityThreshold = 50;
+
+    @Value("${transfers.anomaly.destination-threshold:20}")
+    private long destinationThreshold = 20;
+
+    @Value("${transfers.anomaly.flag-score:80}")
+    private int flagScore = 80;
+
+    @Value("${transfers.anomaly.counter-width:16384}")
+    private int counterWidth = 16384;
+
+    @Value("${transfers.anomaly.distinct-width:4096}")
+    private int distinctWidth = 4096;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private long windowMillis;
+    private final AtomicReference<Windows> windows = new AtomicReference<>();
+
+    private final LongAdder scored = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (windowSeconds < 1 || velocityThreshold < 1 || destinationThreshold < 1 || flagScore < 0 || flagScore > 100) {
+            throw new IllegalArgumentException("Configuração de pontuação de anomalias inválida");
+        }
+        if (!enabled) {
+            return;
+        }
+        windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        long now = clock.getAsLong();
+        windows.set(new Windows(now - now % windowMillis, newWindow(), newWindow()));
+        log.info("Transfer anomaly scoring enabled: {} s windows, {} KB of sketches",
+                windowSeconds, getMemoryBytes() / 1024);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Count the transfer against its source account and score the account's activity.
+     *
+     * @return the score from 0 to 100, or {@code null} when scoring is disabled
+     */
+    public Integer score(String sourceAccount, String destinationAccount) {
+        if (!enabled) {
+            return null;
+        }
+        long source = Hashing.accountKey(sourceAccount);
+        Windows current = currentWindows();
+        Window window = current.current;
+        long inWindowTransfers = window.transfers.add(source, 1);
+        window.destinations.offer(source, Hashing.accountKey(destinationAccount));
+
+        double previousWeight = 1.0 - (double) (clock.getAsLong() - current.start) / windowMillis;
+        previousWeight = Math.max(0.0, Math.min(1.0, previousWeight));
+
+        double transfers = inWindowTransfers + previousWeight * current.previous.transfers.estimate(source);
+        double inWindow = window.destinations.estimate(source);
+        double inBoth = window.destinations.estimateUnion(source, current.previous.destinations);
+        double destinations = inWindow + previousWeight * Math.max(0.0, inBoth - inWindow);
+
+        int score = score(transfers, destinations);
+        scored.increment();
+        LoggingContext.set(LoggingContext.ANOMALY_SCORE, score);
+        if (score >= flagScore) {
+            flagged.increment();
+            LoggingContext.set("anomalyTransfers", Math.round(transfers));
+            LoggingContext.set("anomalyDestinations", Math.round(destinations));
+            log.warn("Unusual scheduling activity for source account");
+        }
+        return score;
+    }
+
+    /**
+     * Either signal at its threshold gives 100; below that they add up like independent
+     * probabilities, so two moderate signals score higher than either alone.
+     */
+    int score(double transfers, double destinations) {
+        double velocity = Math.min(1.0, transfers / velocityThreshold);
+        double spread = Math.min(1.0, destinations / destinationThreshold);
+        return (int) Math.round(100 * (1 - (1 - velocity) * (1 - spread)));
+    }
+
+    /**
+     * Windows for the current time, rotating them first when the current one has ended. Only the
+     * thread whose compare-and-set wins installs the new windows; writers still holding the old
+     * ones just count into a window that is being retired.
+     */
+    private Windows currentWindows() {
+        Windows current = windows.get();
+        long now = clock.getAsLong();
+        while (now - current.start >= windowMillis) {
+            long start = now - now % windowMillis;
+            // After a gap of more than one window there is nothing recent to carry over
+            Window previous = start - current.start == windowMillis ? current.current : newWindow();
+            Windows rotated = new Windows(start, newWindow(), previous);
+            if (windows.compareAndSet(current, rotated)) {
+                return rotated;
+            }
+            current = windows.get();
+        }
+        return current;
+    }
+
+    private Window newWindow() {
+        return new Window(new CountMinSketch(DEPTH, counterWidth), new DistinctCountSketch(DISTINCT_DEPTH, distinctWidth));
+    }
+
+    public long getScored() {
+        return scored.sum();
+    }
+
+    public long getFlagged() {
+        return flagged.sum();
+    }
+
+    /**
+     * Size of the sketches of both windows; fixed at startup.
+     */
+    public long getMemoryBytes() {
+        Windows current = windows.get();
+        return current == null ? 0 : 2 * current.current.getMemoryBytes();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transfers.anomaly.scored", this, TransferAnomalyScorer::getScored)
+                .description("Transfers scored for unusual account activity")
+                .register(registry);
+        FunctionCounter.builder("transfers.anomaly.flagged", this, TransferAnomalyScorer::getFlagged)
+                .description("Transfers whose anomaly score reached the flag score")
+                .register(registry);
+        Gauge.builder("transfers.anomaly.memory", this, TransferAnomalyScorer::getMemoryBytes)
+                .description("Memory held by the anomaly scoring sketches")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static final class Window {
+        private final CountMinSketch transfers;
+        private final DistinctCountSketch destinations;
+
+        private Window(CountMinSketch transfers, DistinctCountSketch destinations) {
+            this.transfers = transfers;
+            this.destinations = destinations;
+        }
+
+        private long getMemoryBytes() {
+            return transfers.getMemoryBytes() + destinations.getMemoryBytes();
+        }
+    }
+
+    private static final class Windows {
+        private final long start;
+        private final Window current;
+        private final Window previous;
+
+        private Windows(long start, Window current, Window previous) {
+            this.start = start;
+            this.current = current;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.model.TransferStatus;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.util.BusinessClock;
+import com.tokio.financialtransfer.util.LoggingContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes scheduled transfers once their transfer date is due.
+ *
+ * <p>Every {@code interval-ms} the scheduler walks the due transfers in transfer-date order
+ * through the (status, transfer_date) index, a chunk of at most {@code chunk-size} at a time.
+ * A chunk is run on the worker pool and then marked EXECUTED or FAILED in one update per outcome.
+ * Within a chunk each source account is handled by a single lane, so one account's transfers run
+ * in order while distinct accounts run in parallel; the next chunk starts only when the previous
+ * one is recorded.
+ *
+ * <p>Several instances can share the table. A chunk is claimed with a conditional update that
+ * moves it to EXECUTING under this instance's {@code instance-id} with a lease of
+ * {@code lease-ms}; a row another instance claimed in the meantime fails the condition and is
+ * skipped, so instances split the due work without a global lock. The lease is renewed while the
+ * chunk runs and the outcome is only recorded for rows still held, so an instance that lost its
+ * lease cannot overwrite the work of the one that took it over. EXECUTING rows whose lease expired,
+ * because their instance died or stalled, are claimed again before new due transfers.
+ *
+ * <p>Claims are account-affine: a due transfer is not claimed while another instance holds a
+ * transfer of the same source account, live or expired, so an account's transfers keep their
+ * transfer-date order across instances too. The check is part of the claim update; the one gap
+ * left is two claim transactions for the same account committing at the same moment, each before
+ * seeing the other.
+ *
+ * <p>Execution is off unless {@code enabled} is set. Under the prod profile it also needs a real
+ * {@link TransferExecutor}: the context does not start with the {@link DefaultTransferExecutor}.
+ *
+ * <p>Executed and failed counts, claims, takeovers and lost leases, run time, lag behind the due
+ * date and the throughput of the last run are published under {@code transfers.execution.*}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransferExecutionService {
+
+    private static final Comparator<FinancialTransfer> DUE_ORDER =
+            Comparator.comparing(FinancialTransfer::getTransferDate).thenComparing(FinancialTransfer::getId);
+
+    private final FinancialTransferRepository repository;
+    private final TransferExecutor transferExecutor;
+    private final BusinessClock businessClock;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${transfers.execution.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transfers.execution.interval-ms:60000}")
+    private long intervalMillis = 60000;
+
+    @Value("${transfers.execution.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${transfers.execution.workers:4}")
+    private int workerCount = 4;
+
+    @Value("${transfers.execution.lease-ms:300000}")
+    private long leaseMillis = 300000;
+
+    @Value("${transfers.execution.instance-id:}")
+    private String instanceId;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder takenOver = new LongAdder();
+    private final LongAdder lostLeases = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private volatile double lagSeconds;
+    private volatile double lastRunThroughput;
+
+    @PostConstruct
+    void start() {
+        if (chunkSize < 1 || workerCount < 1 || leaseMillis < 3) {
+            throw new IllegalArgumentException("Configuração de execução de transferências inválida");
+        }
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = defaultInstanceId();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        registerMeters(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        if (transferExecutor instanceof DefaultTransferExecutor && environment.acceptsProfiles(Profiles.of("prod"))) {
+            // The default executor moves no money: executing with it would mark transfers EXECUTED for good
+            throw new IllegalStateException("Execução de transferências habilitada sem um executor que liquide as transferências");
+        }
+
+        int released = releaseOwnLeases();
+        scheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("transfer-execution-scheduler-"));
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Transfer execution enabled as {}: every {} ms, chunks of {}, {} workers, {} ms leases, {} own leases released",
+                instanceId, intervalMillis, chunkSize, workerCount, leaseMillis, released);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        if (workers != null) {
+            workers.shutdown();
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Put transfers still claimed under this instance id back to SCHEDULED. Only useful when
+     * {@code instance-id} is stable across restarts; otherwise those leases simply expire.
+     */
+    int releaseOwnLeases() {
+        Integer released = transactionTemplate.execute(status ->
+                repository.releaseLeases(instanceId, TransferStatus.EXECUTING, TransferStatus.SCHEDULED));
+        return released == null ? 0 : released;
+    }
+
+    private void runSafely() {
+        try {
+            executeDueTransfers();
+        } catch (RuntimeException ex) {
+            log.error("Due transfer execution run failed", ex);
+        } finally {
+            LoggingContext.clear();
+        }
+    }
+
+    /**
+     * Execute every transfer due by today, chunk by chunk.
+     *
+     * @return number of transfers executed or failed
+     */
+    public synchronized int executeDueTransfers() {
+        long start = System.nanoTime();
+        LocalDate today = businessClock.today();
+        int processed = 0;
+        if (workers == null) {
+            // Built on first use, so an instance with execution disabled keeps no idle threads
+            workers = Executors.newFixedThreadPool(workerCount, namedThreads("transfer-execution-worker-"));
+        }
+
+        Claim claim;
+        while ((claim = claimChunk(today)).candidates > 0) {
+            if (claim.transfers.isEmpty()) {
+                // Every candidate was claimed by another instance first; read the next ones
+                continue;
+            }
+            FinancialTransfer oldest = claim.transfers.get(0);
+            lagSeconds = Duration.between(oldest.getTransferDate().atStartOfDay(businessClock.getZone()).toInstant(),
+                    Instant.now()).getSeconds();
+            processed += processChunk(claim.transfers);
+        }
+        lagSeconds = 0;
+
+        long elapsedNanos = System.nanoTime() - start;
+        runs.increment();
+        runNanos.add(elapsedNanos);
+        lastRunThroughput = elapsedNanos == 0 ? 0 : processed * 1e9 / elapsedNanos;
+        if (processed > 0) {
+            LoggingContext.setOperation("execute_due_transfers");
+            LoggingContext.set("transfersProcessed", processed);
+            log.info("Executed {} due transfers in {} ms", processed, elapsedNanos / 1_000_000);
+        }
+        return processed;
+    }
+
+    /**
+     * Read up to a chunk of candidates, expired leases first, and claim whichever of them no other
+     * instance claimed since. The lease end doubles as the claim token: it is unique per claim of
+     * this instance because claims of one instance never run concurrently.
+     */
+    private Claim claimChunk(LocalDate today) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime leaseExpiresAt = now.plus(leaseMillis, ChronoUnit.MILLIS);
+        Claim claim = transactionTemplate.execute(status -> {
+            List<Long> expired = repository.findExpiredLeaseIds(TransferStatus.EXECUTING, now, PageRequest.of(0, chunkSize));
+            List<Long> due = expired.size() < chunkSize
+                    ? repository.findDueIds(TransferStatus.SCHEDULED, today, TransferStatus.EXECUTING, instanceId,
+                            PageRequest.of(0, chunkSize - expired.size()))
+                    : Collections.emptyList();
+            if (expired.isEmpty() && due.isEmpty()) {
+                return new Claim(0, Collections.emptyList());
+            }
+
+            int tookOver = expired.isEmpty() ? 0 : claim(expired, now, leaseExpiresAt);
+            int claimedDue = due.isEmpty() ? 0 : claim(due, now, leaseExpiresAt);
+            takenOver.add(tookOver);
+            claimed.add(tookOver + claimedDue);
+            if (tookOver + claimedDue == 0) {
+                return new Claim(expired.size() + due.size(), Collections.emptyList());
+            }
+
+            List<Long> ids = new ArrayList<>(expired.size() + due.size());
+            ids.addAll(expired);
+            ids.addAll(due);
+            List<FinancialTransfer> transfers =
+                    new ArrayList<>(repository.findClaimed(ids, TransferStatus.EXECUTING, instanceId, leaseExpiresAt));
+            transfers.sort(DUE_ORDER);
+            if (tookOver > 0) {
+                log.warn("Took over {} transfers whose execution lease expired", tookOver);
+            }
+            return new Claim(ids.size(), transfers);
+        });
+        return claim == null ? new Claim(0, Collections.emptyList()) : claim;
+    }
+
+    private int claim(List<Long> ids, LocalDateTime now, LocalDateTime leaseExpiresAt) {
+        return repository.claim(ids, instanceId, now, leaseExpiresAt, TransferStatus.SCHEDULED, TransferStatus.EXECUTING);
+    }
+
+    private int processChunk(List<FinancialTransfer> chunk) {
+        List<List<FinancialTransfer>> lanes = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (FinancialTransfer transfer : chunk) {
+            lanes.get(Math.floorMod(transfer.getSourceAccount().hashCode(), workerCount)).add(transfer);
+        }
+
+        List<Future<LaneResult>> results = new ArrayList<>(workerCount);
+        for (List<FinancialTransfer> lane : lanes) {
+            if (!lane.isEmpty()) {
+                results.add(workers.submit(() -> runLane(lane)));
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (FinancialTransfer transfer : chunk) {
+            ids.add(transfer.getId());
+        }
+        List<Long> executedIds = new ArrayList<>(chunk.size());
+        List<Long> failedIds = new ArrayList<>();
+        for (Future<LaneResult> result : results) {
+            LaneResult lane = await(result, ids);
+            executedIds.addAll(lane.executedIds);
+            failedIds.addAll(lane.failedIds);
+        }
+
+        LocalDateTime executedAt = LocalDateTime.now();
+        Integer recorded = transactionTemplate.execute(status ->
+                complete(executedIds, TransferStatus.EXECUTED, executedAt) + complete(failedIds, TransferStatus.FAILED, executedAt));
+        int lost = chunk.size() - (recorded == null ? 0 : recorded);
+        if (lost > 0) {
+            lostLeases.add(lost);
+            log.warn("Lease lost on {} transfers before their outcome was recorded", lost);
+        }
+        executed.add(executedIds.size());
+        failed.add(failedIds.size());
+        return chunk.size();
+    }
+
+    private int complete(List<Long> ids, TransferStatus outcome, LocalDateTime executedAt) {
+        return ids.isEmpty() ? 0 : repository.completeExecution(ids, instanceId, outcome, executedAt, TransferStatus.EXECUTING);
+    }
+
+    /**
+     * Extend the lease on a chunk that is still running so no other instance takes it over.
+     */
+    private void renewLease(List<Long> ids) {
+        LocalDateTime leaseExpiresAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).plus(leaseMillis, ChronoUnit.MILLIS);
+        Integer renewed = transactionTemplate.execute(status ->
+                repository.renewLease(ids, TransferStatus.EXECUTING, instanceId, leaseExpiresAt));
+        log.debug("Renewed execution lease on {} of {} transfers", renewed, ids.size());
+    }
+
+    private LaneResult runLane(List<FinancialTransfer> lane) {
+        LaneResult result = new LaneResult();
+        for (FinancialTransfer transfer : lane) {
+            try {
+                transferExecutor.execute(transfer);
+                result.executedIds.add(transfer.getId());
+            } catch (RuntimeException ex) {
+                result.failedIds.add(transfer.getId());
+                log.warn("Transfer {} failed to execute: {}", transfer.getId(), ex.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wait for a lane, renewing the chunk's lease every third of the lease while it runs.
+     */
+    private LaneResult await(Future<LaneResult> result, List<Long> chunkIds) {
+        try {
+            while (true) {
+                try {
+                    return result.get(leaseMillis / 3, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    renewLease(chunkIds);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execução de transferências interrompida", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Falha na execução de transferências", ex.getCause());
+        }
+    }
+
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getClaimed() {
+        return claimed.sum();
+    }
+
+    public long getTakenOver() {
+        return takenOver.sum();
+    }
+
+    public long getLostLeases() {
+        return lostLeases.sum();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    /**
+     * Seconds between the start of the due date of the oldest transfer being executed and now;
+     * zero once the run has caught up.
+     */
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public double getLastRunThroughput() {
+        return lastRunThroughput;
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        FunctionCounter.builder("transfers.execution.transfers", this, TransferExecutionService::getExecuted)
+                .tag("result", "executed")
+                .description("Due transfers executed")
+                .register(registry);
+        FunctionCounter.builder("transfers.execution.transfers", this, TransferExecutionService::getFailed)
+                .tag("result", "failed")
+                .description("Due transfers that failed to execute")
+                .register(registry);
+        FunctionCounter.builder("transfers.execution.leases", this, TransferExecutionService::getClaimed)
+                .tag("result", "claimed")
+                .description("Transfers claimed by this instance, takeovers included")
+                .register(registry);
+        FunctionCounter.builder("transfers.execution.leases", this, TransferExecutionService::getTakenOver)
+                .tag("result", "taken_over")
+                .description("Transfers claimed after the lease of another claim expired")
+                .register(registry);
+        FunctionCounter.builder("transfers.execution.leases", this, TransferExecutionService::getLostLeases)
+                .tag("result", "lost")
+                .description("Transfers whose lease was taken over before this instance recorded their outcome")
+                .register(registry);
+        FunctionTimer.builder("transfers.execution.run", this,
+                        TransferExecutionService::getRuns, service -> service.runNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time to execute every due transfer in one scheduler run")
+                .register(registry);
+        Gauge.builder("transfers.execution.lag", this, TransferExecutionService::getLagSeconds)
+                .baseUnit("seconds")
+                .description("How long the oldest transfer being executed has been due")
+                .register(registry);
+        Gauge.builder("transfers.execution.throughput", this, TransferExecutionService::getLastRunThroughput)
+                .baseUnit("transfers/s")
+                .description("Transfers executed per second in the last scheduler run")
+                .register(registry);
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "unknown";
+        }
+        String suffix = "-" + UUID.randomUUID().toString().substring(0, 8);
+        return (host.length() > 64 - suffix.length() ? host.substring(0, 64 - suffix.length()) : host) + suffix;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Claim {
+        /** Candidates read for this claim; zero means nothing is left to execute. */
+        private final int candidates;
+        private final List<FinancialTransfer> transfers;
+
+        private Claim(int candidates, List<FinancialTransfer> transfers) {
+            this.candidates = candidates;
+            this.transfers = transfers;
+        }
+    }
+
+    private static final class LaneResult {
+        private final List<Long> executedIds = new ArrayList<>();
+        private final List<Long> failedIds = new ArrayList<>();
+    }
+}
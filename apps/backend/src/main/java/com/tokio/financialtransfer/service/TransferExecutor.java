@@ -0,0 +1,17 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+
+/**
+ * Carries out one due transfer for {@link TransferExecutionService}. Called from the worker
+ * pool, one transfer at a time per source account and in transfer-date order, also across
+ * instances sharing the table (see the claim rules there); a transfer claimed by an instance
+ * that died is executed again after restart, so implementations must tolerate repeats.
+ */
+public interface TransferExecutor {
+
+    /**
+     * @throws RuntimeException when the transfer cannot be executed; it is then marked FAILED
+     */
+    void execute(FinancialTransfer transfer);
+}
@@ -0,0 +1,69 @@
+package com.tokio.financialtransfer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.util.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every transfer as newline-delimited JSON, one {@link TransferResponseDTO} per line.
+ *
+ * <p>Rows come from a forward-only stream projected straight to the response type, so no entity
+ * ever enters the persistence context and nothing grows with the table: memory stays at the
+ * JDBC fetch size plus the output buffer.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransferExportService {
+
+    /** Rows written between two flushes of the output stream. */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final FinancialTransferRepository repository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return number of transfers written
+     */
+    @Transactional(readOnly = true)
+    public long exportTransfers(OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TransferResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (Stream<TransferResponseDTO> transfers = repository.streamAllResponsesOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are terminated explicitly instead of separating root values with a space
+            generator.setRootValueSeparator(null);
+
+            Iterator<TransferResponseDTO> iterator = transfers.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        LoggingContext.set("transferCount", count);
+        log.info("Transfer export completed with {} transfers", count);
+        return count;
+    }
+}
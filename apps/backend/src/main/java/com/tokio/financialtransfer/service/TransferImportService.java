@@ -0,0 +1,235 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.ImportLineErrorDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferImportReportDTO;
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.util.CsvRecordReader;
+import com.tokio.financialtransfer.util.LoggingContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Imports scheduled transfers from a CSV file with the columns
+ * {@code sourceAccount,destinationAccount,transferAmount,transferDate}; the header line is optional.
+ *
+ * <p>The file is read record by record and collected into chunks of
+ * {@code transfers.import.chunk-size} transfers. Each chunk goes through
+ * {@link FinancialTransferService#scheduleTransferBatch}, which checks and prices it in parallel
+ * and inserts it with JDBC batching in its own transaction. Memory is therefore bounded by one
+ * chunk plus the capped error and warning lists, whatever the size of the file. Chunks already
+ * inserted stay committed if the import stops halfway. Lines that repeat a stored transfer, or an
+ * earlier line of the file, are rejected or listed as warnings according to the duplicate policy.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransferImportService {
+
+    static final String HEADER_FIRST_COLUMN = "sourceAccount";
+    private static final int COLUMNS = 4;
+
+    private final FinancialTransferService financialTransferService;
+
+    @Value("${transfers.import.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    @Value("${transfers.import.max-errors:1000}")
+    private int maxErrors = 1000;
+
+    @Value("${transfers.import.max-line-length:1024}")
+    private int maxLineLength = 1024;
+
+    public TransferImportReportDTO importCsv(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(input, StandardCharsets.UTF_8), maxLineLength);
+        ImportErrors errors = new ImportErrors(maxErrors);
+        ImportErrors warnings = new ImportErrors(maxErrors);
+        List<TransferRequestDTO> chunk = new ArrayList<>(chunkSize);
+        long[] chunkLines = new long[chunkSize];
+        long records = 0;
+        long accepted = 0;
+
+        boolean firstRecord = true;
+        while (reader.next()) {
+            if (firstRecord) {
+                firstRecord = false;
+                if (reader.getError() == null && HEADER_FIRST_COLUMN.equalsIgnoreCase(reader.getField(0).trim())) {
+                    continue;
+                }
+            }
+            records++;
+
+            TransferRequestDTO request = new TransferRequestDTO();
+            String error = toRequest(reader, request);
+            if (error != null) {
+                errors.add(reader.getLineNumber(), error);
+                continue;
+            }
+
+            chunkLines[chunk.size()] = reader.getLineNumber();
+            chunk.add(request);
+            if (chunk.size() == chunkSize) {
+                accepted += scheduleChunk(chunk, chunkLines, errors, warnings);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            accepted += scheduleChunk(chunk, chunkLines, errors, warnings);
+        }
+        errors.flush();
+
+        long elapsedNanos = System.nanoTime() - start;
+        long transfersPerSecond = elapsedNanos == 0 ? 0 : accepted * 1_000_000_000L / elapsedNanos;
+
+        LoggingContext.set("importRecords", records);
+        LoggingContext.set("importAccepted", accepted);
+        LoggingContext.set("importRejected", errors.count);
+        LoggingContext.set("transfersPerSecond", transfersPerSecond);
+        log.info("Transfer import completed: {} records, {} accepted, {} rejected", records, accepted, errors.count);
+
+        return TransferImportReportDTO.builder()
+                .records(records)
+                .accepted(accepted)
+                .rejected(errors.count)
+                .errors(errors.listed)
+                .errorsTruncated(errors.count > errors.listed.size())
+                .warnings(warnings.listed)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .transfersPerSecond(transfersPerSecond)
+                .build();
+    }
+
+    private long scheduleChunk(List<TransferRequestDTO> chunk, long[] chunkLines, ImportErrors errors, ImportErrors warnings) {
+        TransferBatchResponseDTO result = financialTransferService.scheduleTransferBatch(chunk);
+        for (BatchItemErrorDTO error : result.getErrors()) {
+            errors.add(chunkLines[error.getIndex()], error.getMessage());
+        }
+        for (BatchItemErrorDTO warning : result.getWarnings()) {
+            warnings.add(chunkLines[warning.getIndex()], warning.getMessage());
+        }
+        // Every line up to the end of this chunk has been reported; later chunks only add later lines
+        errors.flush();
+        warnings.flush();
+        return result.getAccepted();
+    }
+
+    /**
+     * Copy the record into the request. Only the parsing errors are reported here; blank
+     * values are left {@code null} so the batch checks report them with the usual messages.
+     */
+    private static String toRequest(CsvRecordReader reader, TransferRequestDTO request) {
+        if (reader.getError() != null) {
+            return reader.getError();
+        }
+        if (reader.getFieldCount() != COLUMNS) {
+            return "Linha deve ter 4 colunas: sourceAccount,destinationAccount,transferAmount,transferDate";
+        }
+
+        request.setSourceAccount(reader.getField(0));
+        request.setDestinationAccount(reader.getField(1));
+
+        String amount = reader.getField(2).trim();
+        if (!amount.isEmpty()) {
+            try {
+                request.setTransferAmount(new BigDecimal(amount));
+            } catch (NumberFormatException e) {
+                return "Valor da transferência inválido";
+            }
+        }
+
+        String date = reader.getField(3).trim();
+        if (!date.isEmpty()) {
+            LocalDate transferDate = parseIsoDate(date);
+            if (transferDate == null) {
+                return "Data da transferência deve estar no formato AAAA-MM-DD";
+            }
+            request.setTransferDate(transferDate);
+        }
+        return null;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} digit by digit; {@code null} when the text is not a valid date.
+     */
+    static LocalDate parseIsoDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Counts every rejected, or flagged, line but keeps only the first ones. The errors of a
+     * chunk's batch come after the parsing errors of the lines around it, so lines are held until
+     * the chunk is done, keeping the lowest ones that can still make the list, and then listed in
+     * line order.
+     */
+    private static final class ImportErrors {
+        private final int max;
+        private final List<ImportLineErrorDTO> listed = new ArrayList<>();
+        /** Lowest lines of the current chunk, highest on top so it is the one replaced. */
+        private final PriorityQueue<ImportLineErrorDTO> pending =
+                new PriorityQueue<>(Comparator.comparingLong(ImportLineErrorDTO::getLine).reversed());
+        private long count;
+
+        private ImportErrors(int max) {
+            this.max = max;
+        }
+
+        private void add(long line, String message) {
+            count++;
+            int room = max - listed.size();
+            if (pending.size() < room) {
+                pending.add(new ImportLineErrorDTO(line, message));
+            } else if (room > 0 && line < pending.peek().getLine()) {
+                pending.poll();
+                pending.add(new ImportLineErrorDTO(line, message));
+            }
+        }
+
+        private void flush() {
+            int from = listed.size();
+            listed.addAll(pending);
+            pending.clear();
+            listed.subList(from, listed.size()).sort(Comparator.comparingLong(ImportLineErrorDTO::getLine));
+        }
+    }
+}
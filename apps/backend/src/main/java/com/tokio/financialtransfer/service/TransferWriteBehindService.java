@@ -0,0 +1,351 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.TransferBatchWriter;
+import com.tokio.financialtransfer.util.LoggingContext;
+import com.tokio.financialtransfer.util.MpscRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional group-commit path for single transfer scheduling.
+ *
+ * <p>The request thread prices the transfer, takes its id from the sequence and puts it in a
+ * bounded {@link MpscRingBuffer}. One writer thread drains the buffer in micro-batches of up to
+ * {@code batch-size} transfers, waiting at most {@code linger-ms} for a batch to fill, and
+ * inserts each batch in a single transaction. The caller returns only after the batch holding
+ * its transfer has committed, so a successful response still means the transfer is durable.
+ * When the buffer is full the request is rejected rather than queued without bound. The source
+ * account is locked while the transfer is priced and enqueued; since the writer commits in queue
+ * order that is enough to keep one account's transfers in order, and requests for a busy account
+ * still share a commit instead of waiting for each other's. The duplicate check runs under the
+ * same lock and also sees transfers that are queued but not committed yet.
+ *
+ * <p>Queue depth, committed transfers and commit latency are published under
+ * {@code transfers.write_behind.*}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransferWriteBehindService {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long LINGER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final FeeCalculationService feeCalculationService;
+    private final TransferBatchWriter transferBatchWriter;
+    private final AccountExposureService accountExposureService;
+    private final AccountLockService accountLockService;
+    private final DailyLimitService dailyLimitService;
+    private final TransferAnomalyScorer transferAnomalyScorer;
+    private final DuplicateTransferDetector duplicateTransferDetector;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transfers.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transfers.write-behind.capacity:8192}")
+    private int capacity = 8192;
+
+    @Value("${transfers.write-behind.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${transfers.write-behind.linger-ms:1}")
+    private long lingerMillis = 1;
+
+    private MpscRingBuffer<PendingTransfer> queue;
+    private Thread writer;
+    private volatile boolean running;
+    /** Set once the final drain of {@link #stop()} is done; nothing queued after it will be committed. */
+    private volatile boolean stopped;
+    private volatile boolean writerParked;
+
+    private final LongAdder committedTransfers = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+    private final LongAdder failedTransfers = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Tamanho do lote de gravação deve ser maior que zero");
+        }
+        queue = new MpscRingBuffer<>(capacity);
+        stopped = false;
+        running = true;
+        writer = new Thread(this::drainLoop, "transfer-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        registerMeters(meterRegistry);
+        log.info("Write-behind transfer scheduling enabled: {} slots, batches of {}, linger {} ms",
+                queue.getCapacity(), batchSize, lingerMillis);
+    }
+
+    /**
+     * Stop accepting transfers, commit everything already queued and stop the writer. A request
+     * that still manages to enqueue afterwards is failed with {@link RejectedExecutionException}.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+        writer = null;
+
+        // A request that passed the running check just before shutdown may still have enqueued
+        List<PendingTransfer> batch = new ArrayList<>(batchSize);
+        while (queue.drain(batch::add, batchSize) > 0) {
+            commit(batch);
+            batch.clear();
+        }
+        stopped = true;
+        rejectStragglers();
+    }
+
+    /**
+     * Fail whatever was enqueued after the final drain, so its caller does not wait forever. Runs
+     * from {@link #stop()} and from any request that finds the service stopped after enqueueing,
+     * whichever comes last; synchronized because the queue has a single consumer.
+     */
+    private synchronized void rejectStragglers() {
+        List<PendingTransfer> stragglers = new ArrayList<>();
+        queue.drain(stragglers::add, Integer.MAX_VALUE);
+        if (stragglers.isEmpty()) {
+            return;
+        }
+        List<FinancialTransfer> transfers = new ArrayList<>(stragglers.size());
+        RejectedExecutionException rejected = new RejectedExecutionException("Gravação de transferências indisponível");
+        for (PendingTransfer pending : stragglers) {
+            FinancialTransfer transfer = pending.transfer;
+            dailyLimitService.release(transfer.getSourceAccount(), transfer.getTransferDate(), transfer.getTransferAmount());
+            transfers.add(transfer);
+            pending.committed.completeExceptionally(rejected);
+        }
+        duplicateTransferDetector.releaseQueued(transfers);
+        log.warn("Rejected {} transfers queued after the write-behind writer stopped", stragglers.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Price and enqueue the transfer, then wait until the batch holding it has committed.
+     *
+     * @throws RejectedExecutionException when the queue is full or the pipeline is stopped
+     * @throws IllegalArgumentException when the transfer would exceed the account's daily limit,
+     *                                  or duplicates a stored or queued one and the duplicate policy rejects
+     */
+    public TransferResponseDTO scheduleTransfer(TransferRequestDTO request) {
+        if (!running) {
+            throw new RejectedExecutionException("Gravação de transferências indisponível");
+        }
+        PendingTransfer pending = accountLockService.withLock(request.getSourceAccount(), () -> enqueue(request));
+        FinancialTransfer transfer = pending.transfer;
+        if (stopped) {
+            // Enqueued after stop() drained the queue for the last time
+            rejectStragglers();
+        }
+
+        try {
+            pending.committed.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : ex;
+        }
+
+        LoggingContext.set(LoggingContext.TRANSFER_ID, transfer.getId());
+        LoggingContext.set("scheduleDate", transfer.getScheduleDate());
+        log.info("Transfer successfully saved to database");
+
+        return new TransferResponseDTO(
+                transfer.getId(),
+                transfer.getSourceAccount(),
+                transfer.getDestinationAccount(),
+                transfer.getTransferAmount(),
+                transfer.getFee(),
+                transfer.getTransferDate(),
+                transfer.getScheduleDate(),
+                pending.anomalyScore,
+                pending.possibleDuplicate ? Boolean.TRUE : null);
+    }
+
+    private PendingTransfer enqueue(TransferRequestDTO request) {
+        boolean duplicate = duplicateTransferDetector.check(request.getSourceAccount(), request.getDestinationAccount(),
+                request.getTransferAmount(), request.getTransferDate());
+        BigDecimal fee = feeCalculationService.calculateFee(request.getTransferAmount(), request.getTransferDate());
+        LoggingContext.set(LoggingContext.FEE_AMOUNT, fee);
+        if (!dailyLimitService.tryReserve(request.getSourceAccount(), request.getTransferDate(), request.getTransferAmount())) {
+            throw new IllegalArgumentException(dailyLimitService.limitExceededMessage());
+        }
+
+        FinancialTransfer transfer = FinancialTransfer.builder()
+                .id(transferBatchWriter.reserveId())
+                .sourceAccount(request.getSourceAccount())
+                .destinationAccount(request.getDestinationAccount())
+                .transferAmount(request.getTransferAmount())
+                .fee(fee)
+                .transferDate(request.getTransferDate())
+                .scheduleDate(LocalDateTime.now())
+                .build();
+
+        PendingTransfer pending = new PendingTransfer(transfer);
+        pending.possibleDuplicate = duplicate;
+        // Recorded before the offer: the writer may commit the transfer, and release it, right after
+        duplicateTransferDetector.recordQueued(transfer);
+        if (!queue.offer(pending)) {
+            dailyLimitService.release(transfer.getSourceAccount(), transfer.getTransferDate(), transfer.getTransferAmount());
+            duplicateTransferDetector.releaseQueued(List.of(transfer));
+            LoggingContext.set("writeBehindQueueDepth", queue.size());
+            log.warn("Write-behind queue full, rejecting transfer");
+            throw new RejectedExecutionException("Fila de gravação de transferências cheia");
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        pending.anomalyScore = transferAnomalyScorer.score(request.getSourceAccount(), request.getDestinationAccount());
+        return pending;
+    }
+
+    private void drainLoop() {
+        List<PendingTransfer> batch = new ArrayList<>(batchSize);
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+
+        while (running || !queue.isEmpty()) {
+            if (queue.drain(batch::add, batchSize) == 0) {
+                awaitTransfers();
+                continue;
+            }
+
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize && running && System.nanoTime() < deadline) {
+                if (queue.drain(batch::add, batchSize - batch.size()) == 0) {
+                    LockSupport.parkNanos(LINGER_PARK_NANOS);
+                }
+            }
+
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void awaitTransfers() {
+        writerParked = true;
+        // Re-check after publishing the flag so an offer made in between is not missed
+        if (running && queue.isEmpty()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        writerParked = false;
+    }
+
+    private void commit(List<PendingTransfer> batch) {
+        List<FinancialTransfer> transfers = new ArrayList<>(batch.size());
+        for (PendingTransfer pending : batch) {
+            transfers.add(pending.transfer);
+        }
+
+        long start = System.nanoTime();
+        try {
+            transferBatchWriter.insertAllWithIds(transfers);
+        } catch (RuntimeException ex) {
+            failedTransfers.add(batch.size());
+            log.error("Write-behind batch of {} transfers failed", batch.size(), ex);
+            for (PendingTransfer pending : batch) {
+                FinancialTransfer transfer = pending.transfer;
+                dailyLimitService.release(transfer.getSourceAccount(), transfer.getTransferDate(), transfer.getTransferAmount());
+                pending.committed.completeExceptionally(ex);
+            }
+            duplicateTransferDetector.releaseQueued(transfers);
+            return;
+        }
+        commitNanos.add(System.nanoTime() - start);
+        commits.increment();
+        committedTransfers.add(batch.size());
+
+        accountExposureService.record(transfers);
+        // Already in the duplicate filter since they were queued
+        duplicateTransferDetector.releaseQueued(transfers);
+        for (PendingTransfer pending : batch) {
+            FinancialTransfer transfer = pending.transfer;
+            dailyLimitService.confirm(transfer.getSourceAccount(), transfer.getTransferDate(), transfer.getTransferAmount());
+            pending.committed.complete(null);
+        }
+        log.debug("Write-behind batch of {} transfers committed", batch.size());
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getCommittedTransfers() {
+        return committedTransfers.sum();
+    }
+
+    public long getFailedTransfers() {
+        return failedTransfers.sum();
+    }
+
+    /**
+     * Registered from {@link #start()} rather than as a {@code MeterBinder}: binders are bound while
+     * the registry is created, which happens during the exposure rollup rebuild this service depends on.
+     */
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("transfers.write_behind.queue.depth", this, TransferWriteBehindService::getQueueDepth)
+                .description("Transfers waiting for the write-behind writer")
+                .register(registry);
+        FunctionTimer.builder("transfers.write_behind.commit", this,
+                        TransferWriteBehindService::getCommits, service -> service.commitNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time to insert and commit one write-behind batch")
+                .register(registry);
+        FunctionCounter.builder("transfers.write_behind.transfers", this, TransferWriteBehindService::getCommittedTransfers)
+                .tag("result", "committed")
+                .description("Transfers committed by the write-behind writer")
+                .register(registry);
+        FunctionCounter.builder("transfers.write_behind.transfers", this, TransferWriteBehindService::getFailedTransfers)
+                .tag("result", "failed")
+                .description("Transfers whose write-behind batch failed to commit")
+                .register(registry);
+    }
+
+    private static final class PendingTransfer {
+        private final FinancialTransfer transfer;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+        private Integer anomalyScore;
+        private boolean possibleDuplicate;
+
+        private PendingTransfer(FinancialTransfer transfer) {
+            this.transfer = transfer;
+        }
+    }
+}
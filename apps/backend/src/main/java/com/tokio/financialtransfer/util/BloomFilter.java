@@ -0,0 +1,113 @@
+package com.tokio.financialtransfer.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free set membership test for {@code long} keys that may answer "maybe" for a
+ * key it never saw, but never "no" for one it did.
+ *
+ * <p>The bits live in an {@link AtomicLongArray}; a key sets {@code hashes} bits derived from one
+ * 64-bit hash, each with a compare-and-set, so concurrent writers never block and readers never
+ * see a key half added once {@link #put} has returned. The number of set bits is tracked as they
+ * flip, which gives the current false positive rate without scanning the array.
+ */
+public final class BloomFilter {
+
+    private static final int MAX_BITS_SHIFT = 31;
+
+    private final AtomicLongArray words;
+    private final long bitMask;
+    private final int hashes;
+    private final long expectedInsertions;
+    private final LongAdder bitsSet = new LongAdder();
+
+    private BloomFilter(long bits, int hashes, long expectedInsertions) {
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.bitMask = bits - 1;
+        this.hashes = hashes;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Filter sized for {@code expectedInsertions} keys at {@code falsePositiveRate}; the bit count
+     * is rounded up to a power of two.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Dimensionamento do filtro inválido");
+        }
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bits = Long.highestOneBit(Math.max(64, (long) Math.ceil(optimalBits)) * 2 - 1);
+        bits = Math.min(bits, 1L << MAX_BITS_SHIFT);
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / expectedInsertions * Math.log(2))));
+        return new BloomFilter(bits, hashes, expectedInsertions);
+    }
+
+    /**
+     * Add {@code key}.
+     *
+     * @return whether any bit changed, i.e. the key was certainly not in the filter before
+     */
+    public boolean put(long key) {
+        long hash = Hashing.mix(key);
+        long h1 = hash;
+        long h2 = Hashing.mix(hash) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(index);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(index, current, current | mask)) {
+                    bitsSet.increment();
+                    changed = true;
+                    break;
+                }
+                current = words.get(index);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Whether {@code key} may have been added; {@code false} means it certainly was not.
+     */
+    public boolean mightContain(long key) {
+        long hash = Hashing.mix(key);
+        long h1 = hash;
+        long h2 = Hashing.mix(hash) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probability that {@link #mightContain} answers {@code true} for a key never added, given the
+     * bits set so far.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / getBitCount(), hashes);
+    }
+
+    public long getBitCount() {
+        return bitMask + 1;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long getMemoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tokio.financialtransfer.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Business "today" shared by fee calculation and date validation.
+ *
+ * <p>The current day is cached together with the instant it ends, so reading it costs one
+ * {@link Clock#millis()} call and a comparison; the time-zone rules are only consulted again
+ * when the day rolls over. Every caller sees the same day boundary, in the zone configured
+ * by {@code business.clock.zone} (the system zone by default).
+ *
+ * <p>A thread can {@link #pin()} the current day, e.g. for the length of an HTTP request: until
+ * {@link #unpin()} every read on that thread returns the pinned day, so a request that straddles
+ * midnight is validated and priced against the same day.
+ */
+@Component
+public class BusinessClock {
+
+    private final Clock clock;
+    private volatile Day current;
+    private final ThreadLocal<Day> pinned = new ThreadLocal<>();
+
+    @Autowired
+    public BusinessClock(@Value("${business.clock.zone:}") String zoneId) {
+        this(zoneId == null || zoneId.isBlank() ? Clock.systemDefaultZone() : Clock.system(ZoneId.of(zoneId)));
+    }
+
+    public BusinessClock(Clock clock) {
+        this.clock = clock;
+        this.current = Day.containing(clock.millis(), clock.getZone());
+    }
+
+    /**
+     * Clock pinned to the start of the given date in the system zone, for tests.
+     */
+    public static BusinessClock fixed(LocalDate date) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new BusinessClock(Clock.fixed(date.atStartOfDay(zone).toInstant(), zone));
+    }
+
+    public LocalDate today() {
+        return currentDay().date;
+    }
+
+    public long todayEpochDay() {
+        return currentDay().epochDay;
+    }
+
+    /**
+     * Start of the next business day, when {@link #today()} rolls over.
+     */
+    public ZonedDateTime nextMidnight() {
+        return Instant.ofEpochMilli(currentDay().endMillis).atZone(clock.getZone());
+    }
+
+    public ZoneId getZone() {
+        return clock.getZone();
+    }
+
+    /**
+     * Keep today's day for the current thread until {@link #unpin()}.
+     */
+    public void pin() {
+        pinned.remove();
+        pinned.set(currentDay());
+    }
+
+    public void unpin() {
+        pinned.remove();
+    }
+
+    private Day currentDay() {
+        Day day = pinned.get();
+        if (day != null) {
+            return day;
+        }
+        day = current;
+        long now = clock.millis();
+        if (now >= day.endMillis || now < day.startMillis) {
+            day = Day.containing(now, clock.getZone());
+            current = day;
+        }
+        return day;
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final long epochDay;
+        private final long startMillis;
+        private final long endMillis;
+
+        private Day(LocalDate date, long startMillis, long endMillis) {
+            this.date = date;
+            this.epochDay = date.toEpochDay();
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        static Day containing(long epochMillis, ZoneId zone) {
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+            return new Day(date,
+                    date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.tokio.financialtransfer.util;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Thread-safe map from {@code long} keys to {@code long} values without boxing.
+ *
+ * <p>Keys are spread over a fixed number of segments by the high bits of their hash; each segment
+ * is an open-addressing table with linear probing over two parallel {@code long[]} arrays, guarded
+ * by the segment's monitor. An operation touches one segment only, so threads working on
+ * different keys rarely meet, and a lookup is a hash, a lock and a few array reads. A key whose
+ * value drops to zero is removed, so absent and zero are the same thing.
+ */
+public final class ConcurrentLongLongMap {
+
+    /** Marks a free slot; not usable as a key. */
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int SEGMENT_SHIFT = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_SHIFT;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public ConcurrentLongLongMap() {
+        this(1024);
+    }
+
+    public ConcurrentLongLongMap(int expectedSize) {
+        int perSegment = Math.max(4, expectedSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Value of {@code key}, zero when absent.
+     */
+    public long get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Add {@code delta} to the value of {@code key}.
+     *
+     * @return the new value
+     */
+    public long addAndGet(long key, long delta) {
+        long hash = hash(key);
+        return segmentFor(hash).add(key, hash, delta, Long.MAX_VALUE);
+    }
+
+    /**
+     * Add {@code delta} to the value of {@code key} unless the result would exceed {@code max};
+     * the check and the update are one atomic step.
+     *
+     * @return whether the value was updated
+     */
+    public boolean addIfNotAbove(long key, long delta, long max) {
+        long hash = hash(key);
+        return segmentFor(hash).add(key, hash, delta, max) != EMPTY;
+    }
+
+    /**
+     * Remove every key matching {@code filter}, one segment at a time.
+     *
+     * @return number of keys removed
+     */
+    public int removeKeysIf(LongPredicate filter) {
+        int removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.removeIf(filter);
+        }
+        return removed;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.removeIf(key -> true);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> (64 - SEGMENT_SHIFT))];
+    }
+
+    private static long hash(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Chave inválida: " + key);
+        }
+        // MurmurHash3 finalizer: every key bit affects both the segment and the slot bits
+        long h = key;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Segment {
+        private long[] keys;
+        private long[] values;
+        private int mask;
+        private int size;
+
+        private Segment(int expectedSize) {
+            allocate(Integer.highestOneBit(Math.max(expectedSize * 2, 8) - 1) << 1);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            mask = capacity - 1;
+        }
+
+        private synchronized long get(long key, long hash) {
+            int slot = find(key, hash);
+            return keys[slot] == EMPTY ? 0 : values[slot];
+        }
+
+        /**
+         * @return the new value, or {@link #EMPTY} when it would exceed {@code max}
+         */
+        private synchronized long add(long key, long hash, long delta, long max) {
+            int slot = find(key, hash);
+            boolean present = keys[slot] != EMPTY;
+            long value = Math.addExact(present ? values[slot] : 0, delta);
+            if (value > max) {
+                return EMPTY;
+            }
+            if (value == 0) {
+                if (present) {
+                    removeAt(slot);
+                }
+                return 0;
+            }
+            if (present) {
+                values[slot] = value;
+                return value;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size > (mask + 1) >> 1) {
+                resize();
+            }
+            return value;
+        }
+
+        private synchronized int removeIf(LongPredicate filter) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            int removed = 0;
+            allocate(oldKeys.length);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY) {
+                    continue;
+                }
+                if (filter.test(oldKeys[i])) {
+                    removed++;
+                } else {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+            return removed;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Slot holding {@code key}, or the empty slot where it would go.
+         */
+        private int find(long key, long hash) {
+            int slot = (int) hash & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void insert(long key, long value) {
+            int slot = find(key, hash(key));
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            allocate(oldKeys.length << 1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        /**
+         * Free the slot and shift later entries of the same probe run back into the gap, so
+         * lookups never need tombstones.
+         */
+        private void removeAt(int slot) {
+            int gap = slot;
+            int i = slot;
+            while (true) {
+                i = (i + 1) & mask;
+                long key = keys[i];
+                if (key == EMPTY) {
+                    break;
+                }
+                int home = (int) hash(key) & mask;
+                // Movable unless its home slot lies after the gap, up to i
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    keys[gap] = key;
+                    values[gap] = values[i];
+                    gap = i;
+                }
+            }
+            keys[gap] = EMPTY;
+            values[gap] = 0;
+            size--;
+        }
+    }
+}
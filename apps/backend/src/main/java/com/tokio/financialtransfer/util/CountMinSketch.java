@@ -0,0 +1,71 @@
+package com.tokio.financialtransfer.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free frequency counter for {@code long} keys.
+ *
+ * <p>{@code depth} rows of {@code width} counters live in one {@link AtomicLongArray}; a key adds
+ * to one counter per row, chosen by its own hash per row, and its count is the smallest of those
+ * counters. Other keys sharing a counter can only push it up, so an estimate never undercounts and
+ * overcounts by at most about {@code e * total / width} with probability {@code 1 - e^-depth}.
+ * Updates are a single atomic add per row, so concurrent writers never wait for each other.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > 16 || width < 2) {
+            throw new IllegalArgumentException("Dimensões do sketch inválidas");
+        }
+        int size = Integer.highestOneBit(Math.min(width, 1 << 24) * 2 - 1);
+        this.depth = depth;
+        this.mask = size - 1;
+        this.counters = new AtomicLongArray(depth * size);
+    }
+
+    /**
+     * Add {@code delta} to the count of {@code key}.
+     *
+     * @return the estimated count of {@code key} after the update
+     */
+    public long add(long key, long delta) {
+        long hash = Hashing.mix(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(hash, row), delta));
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimated count of {@code key}; never below the true count.
+     */
+    public long estimate(long key) {
+        long hash = Hashing.mix(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    public long getMemoryBytes() {
+        return (long) counters.length() * Long.BYTES;
+    }
+
+    private int index(long hash, int row) {
+        return row * (mask + 1) + Hashing.bucket(hash, row, mask);
+    }
+}
@@ -0,0 +1,196 @@
+package com.tokio.financialtransfer.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Forward-only CSV reader that holds one small character buffer and the fields of the current
+ * record, so files of any size are read in constant memory.
+ *
+ * <p>Supports comma-separated fields, double-quoted fields with {@code ""} escapes and line breaks
+ * inside quotes, and both LF and CRLF line endings. A leading byte order mark and blank lines are skipped. A record longer than
+ * the configured maximum is skipped up to the next line break and reported through
+ * {@link #getError()} instead of being buffered.
+ */
+public final class CsvRecordReader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FIELDS = 16;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean bufferStarted;
+
+    private final StringBuilder field = new StringBuilder();
+    private final String[] fields = new String[MAX_FIELDS];
+    private int fieldCount;
+    private int recordLength;
+    private String error;
+
+    private long lineNumber;
+    private long nextLineNumber = 1;
+
+    public CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Advance to the next record.
+     *
+     * @return {@code false} at the end of the input
+     */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        recordLength = 0;
+        error = null;
+        field.setLength(0);
+        lineNumber = nextLineNumber;
+
+        boolean started = false;
+        boolean inQuotes = false;
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                if (!started) {
+                    return false;
+                }
+                if (inQuotes && error == null) {
+                    error = "Aspas não fechadas";
+                }
+                endField();
+                return true;
+            }
+            if (c == '\n') {
+                nextLineNumber++;
+            }
+
+            if (error != null) {
+                // Skipping the rest of a record that is too long
+                if (c == '\n') {
+                    return true;
+                }
+                continue;
+            }
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '\r':
+                    break;
+                case '\n':
+                    if (!started) {
+                        lineNumber = nextLineNumber;
+                        break;
+                    }
+                    endField();
+                    return true;
+                case ',':
+                    started = true;
+                    endField();
+                    break;
+                case '"':
+                    started = true;
+                    if (field.length() == 0) {
+                        inQuotes = true;
+                    } else {
+                        append('"');
+                    }
+                    break;
+                default:
+                    started = true;
+                    append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Line on which the current record starts, counting from 1.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public String getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Why the current record could not be read, or {@code null} when it was read in full.
+     */
+    public String getError() {
+        return error;
+    }
+
+    private void append(char c) {
+        if (++recordLength > maxRecordLength) {
+            error = "Linha excede o tamanho máximo de " + maxRecordLength + " caracteres";
+            field.setLength(0);
+            fieldCount = 0;
+            return;
+        }
+        field.append(c);
+    }
+
+    private void endField() {
+        if (fieldCount < MAX_FIELDS) {
+            fields[fieldCount] = field.toString();
+        }
+        fieldCount++;
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer, 0, BUFFER_SIZE);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        if (!bufferStarted) {
+            bufferStarted = true;
+            if (buffer[0] == BYTE_ORDER_MARK) {
+                position = 1;
+                return position < limit || fill();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package com.tokio.financialtransfer.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free estimate of how many distinct items each {@code long} key has been seen
+ * with, e.g. distinct destination accounts per source account.
+ *
+ * <p>Laid out like a {@link CountMinSketch} whose cells are small HyperLogLog counters instead of
+ * numbers: {@code depth} rows of {@code width} cells, each cell {@value #REGISTERS} one-byte
+ * registers packed eight to a {@code long} of an {@link AtomicLongArray}. Offering an item raises
+ * one register in the key's cell of every row to the item's hash rank with a compare-and-set, so
+ * writers never block. Keys sharing a cell only add items, so the key's estimate is the smallest
+ * over its rows. With {@value #REGISTERS} registers a cell is within about 18% of the true count,
+ * and much closer for the small counts that linear counting handles.
+ */
+public final class DistinctCountSketch {
+
+    private static final int INDEX_BITS = 5;
+    static final int REGISTERS = 1 << INDEX_BITS;
+    private static final int WORDS_PER_CELL = REGISTERS / 8;
+    private static final double ALPHA = 0.697;
+    /** Keeps the item hash independent from the key hash when both are the same number. */
+    private static final long ITEM_SEED = 0x9e3779b97f4a7c15L;
+    /** 2^-rank for every possible register value. */
+    private static final double[] INVERSE_POWERS = new double[66];
+
+    static {
+        for (int rank = 0; rank < INVERSE_POWERS.length; rank++) {
+            INVERSE_POWERS[rank] = Math.scalb(1.0, -rank);
+        }
+    }
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray registers;
+
+    public DistinctCountSketch(int depth, int width) {
+        if (depth < 1 || depth > 16 || width < 2) {
+            throw new IllegalArgumentException("Dimensões do sketch inválidas");
+        }
+        int size = Integer.highestOneBit(Math.min(width, 1 << 20) * 2 - 1);
+        this.depth = depth;
+        this.mask = size - 1;
+        this.registers = new AtomicLongArray(depth * size * WORDS_PER_CELL);
+    }
+
+    /**
+     * Record that {@code key} was seen with {@code item}.
+     */
+    public void offer(long key, long item) {
+        long keyHash = Hashing.mix(key);
+        long itemHash = Hashing.mix(item ^ ITEM_SEED);
+        int register = (int) (itemHash >>> (64 - INDEX_BITS));
+        long rank = Long.numberOfLeadingZeros((itemHash << INDEX_BITS) | (1L << (INDEX_BITS - 1))) + 1;
+
+        int word = register >>> 3;
+        int shift = (register & 7) << 3;
+        for (int row = 0; row < depth; row++) {
+            int index = cellOf(keyHash, row) + word;
+            long current = registers.get(index);
+            while (((current >>> shift) & 0xFF) < rank) {
+                long updated = (current & ~(0xFFL << shift)) | (rank << shift);
+                if (registers.compareAndSet(index, current, updated)) {
+                    break;
+                }
+                current = registers.get(index);
+            }
+        }
+    }
+
+    /**
+     * Estimated number of distinct items seen with {@code key}.
+     */
+    public double estimate(long key) {
+        return estimateUnion(key, null);
+    }
+
+    /**
+     * Estimated number of distinct items seen with {@code key} in this sketch or in {@code other},
+     * counting items seen in both once. {@code other} must have the same dimensions; {@code null}
+     * stands for an empty sketch.
+     */
+    public double estimateUnion(long key, DistinctCountSketch other) {
+        if (other != null && (other.depth != depth || other.mask != mask)) {
+            throw new IllegalArgumentException("Sketches com dimensões diferentes");
+        }
+        long keyHash = Hashing.mix(key);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, estimateCell(cellOf(keyHash, row), other));
+        }
+        return estimate;
+    }
+
+    private double estimateCell(int cell, DistinctCountSketch other) {
+        double sum = 0;
+        int zeros = 0;
+        for (int word = 0; word < WORDS_PER_CELL; word++) {
+            long packed = registers.get(cell + word);
+            long otherPacked = other == null ? 0 : other.registers.get(cell + word);
+            for (int shift = 0; shift < 64; shift += 8) {
+                int rank = (int) Math.max((packed >>> shift) & 0xFF, (otherPacked >>> shift) & 0xFF);
+                if (rank == 0) {
+                    zeros++;
+                }
+                sum += INVERSE_POWERS[rank];
+            }
+        }
+        double raw = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is far more accurate while many registers are still empty
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            return REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return raw;
+    }
+
+    private int cellOf(long keyHash, int row) {
+        return (row * (mask + 1) + Hashing.bucket(keyHash, row, mask)) * WORDS_PER_CELL;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    public long getMemoryBytes() {
+        return (long) registers.length() * Long.BYTES;
+    }
+}
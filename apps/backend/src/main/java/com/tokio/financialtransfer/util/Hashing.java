@@ -0,0 +1,42 @@
+package com.tokio.financialtransfer.util;
+
+/**
+ * Hash helpers shared by the sketches and filters.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * MurmurHash3 finalizer: every input bit affects every output bit.
+     */
+    public static long mix(long key) {
+        long h = key;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Key of an account number. Account numbers are digit strings; a base-31 polynomial over
+     * 64 bits keeps every 10-digit number distinct without parsing.
+     */
+    public static long accountKey(String account) {
+        long key = 0;
+        for (int i = 0; i < account.length(); i++) {
+            key = 31 * key + account.charAt(i);
+        }
+        return key;
+    }
+
+    /**
+     * Bucket of {@code hash} in row {@code row}. The row hashes are derived from the two halves of
+     * one 64-bit hash (Kirsch and Mitzenmacher), which is as good as independent hash functions here.
+     */
+    static int bucket(long hash, int row, int mask) {
+        int low = (int) hash;
+        int high = (int) (hash >>> 32) | 1;
+        return (low + row * high) & mask;
+    }
+}
@@ -20,6 +20,7 @@ public class LoggingContext {
     public static final String TRANSFER_AMOUNT = "transferAmount";
     public static final String FEE_AMOUNT = "feeAmount";
     public static final String TRANSFER_DATE = "transferDate";
+    public static final String ANOMALY_SCORE = "anomalyScore";
     
     /**
      * Set correlation ID for request tracking
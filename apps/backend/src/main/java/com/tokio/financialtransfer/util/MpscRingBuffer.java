@@ -0,0 +1,102 @@
+package com.tokio.financialtransfer.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Every slot carries a sequence number that says whose turn it is: a producer claims the
+ * next position with one CAS on the tail, stores the element and then publishes the slot by
+ * advancing its sequence; the consumer takes a slot only once it is published and hands it
+ * back to producers one lap later. A full buffer makes {@link #offer} fail instead of blocking.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Written by the consumer only; volatile so {@link #size()} can be read from any thread. */
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacidade da fila deve ser maior que um");
+        }
+        this.capacity = Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1);
+        this.mask = this.capacity - 1;
+        this.elements = new Object[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Append the element; safe to call from any number of threads.
+     *
+     * @return false when the buffer is full
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) position & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The consumer has not freed this slot from the previous lap yet
+                return false;
+            }
+            // Another producer claimed the position first; retry with the new tail
+        }
+    }
+
+    /**
+     * Hand up to {@code max} published elements to {@code sink} in FIFO order. Consumer thread only.
+     *
+     * @return number of elements drained
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> sink, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break;
+            }
+            E element = (E) elements[slot];
+            elements[slot] = null;
+            sequences.set(slot, position + capacity);
+            head = ++position;
+            drained++;
+            sink.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Elements claimed by producers and not yet drained; approximate while producers are active.
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,58 @@
+package com.tokio.financialtransfer.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the transfer listing, ordered by {@code scheduleDate DESC, id DESC}.
+ *
+ * <p>Clients receive it as an opaque URL-safe token holding the sort key of the last row of a
+ * page; the next page starts strictly after that row, so no rows are skipped or repeated when
+ * transfers are inserted between requests.
+ */
+public final class TransferCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime scheduleDate;
+    private final long id;
+
+    public TransferCursor(LocalDateTime scheduleDate, long id) {
+        this.scheduleDate = scheduleDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getScheduleDate() {
+        return scheduleDate;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = scheduleDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static TransferCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new TransferCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.tokio.financialtransfer.validation;
 
+import com.tokio.financialtransfer.util.BusinessClock;
+import org.springframework.beans.factory.annotation.Autowired;
+
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import java.time.LocalDate;
 
 public class FutureOrTodayValidator implements ConstraintValidator<FutureOrToday, LocalDate> {
 
+    // Replaced by the application's clock when created by Spring, so validation and
+    // fee calculation agree on what "today" is
+    private BusinessClock businessClock = new BusinessClock("");
+
+    @Autowired(required = false)
+    public void setBusinessClock(BusinessClock businessClock) {
+        this.businessClock = businessClock;
+    }
+
     @Override
     public void initialize(FutureOrToday constraintAnnotation) {
         // No initialization needed
@@ -16,7 +28,6 @@ public class FutureOrTodayValidator implements ConstraintValidator<FutureOrToday
         if (value == null) {
             return true; // Let @NotNull handle null validation
         }
-        LocalDate today = LocalDate.now();
-        return !value.isBefore(today);
+        return value.toEpochDay() >= businessClock.todayEpochDay();
     }
 }
@@ -0,0 +1,65 @@
+package com.tokio.financialtransfer.validation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Allocation-free equivalents of the bean validation constraints on the transfer DTOs,
+ * used by the batch endpoints where one invalid item must not reject the whole request.
+ * Each check returns the same message as the matching annotation, or {@code null} when valid.
+ */
+public final class TransferChecks {
+
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    private static final int ACCOUNT_LENGTH = 10;
+
+    private TransferChecks() {
+    }
+
+    public static String checkAmount(BigDecimal transferAmount) {
+        if (transferAmount == null) {
+            return "Valor da transferência é obrigatório";
+        }
+        if (transferAmount.compareTo(MIN_AMOUNT) < 0) {
+            return "Valor deve ser maior que zero";
+        }
+        return null;
+    }
+
+    public static String checkTransferDate(LocalDate transferDate, long todayEpochDay) {
+        if (transferDate == null) {
+            return "Data da transferência é obrigatória";
+        }
+        if (transferDate.toEpochDay() < todayEpochDay) {
+            return "Data de transferência não pode ser anterior à data atual";
+        }
+        return null;
+    }
+
+    public static String checkSourceAccount(String account) {
+        return checkAccount(account, "Conta de origem é obrigatória", "Conta de origem deve ter 10 dígitos");
+    }
+
+    public static String checkDestinationAccount(String account) {
+        return checkAccount(account, "Conta de destino é obrigatória", "Conta de destino deve ter 10 dígitos");
+    }
+
+    /**
+     * Same as {@code @NotBlank @Pattern(regexp = "\\d{10}")}: exactly ten ASCII digits.
+     */
+    private static String checkAccount(String account, String requiredMessage, String formatMessage) {
+        if (account == null || account.isBlank()) {
+            return requiredMessage;
+        }
+        if (account.length() != ACCOUNT_LENGTH) {
+            return formatMessage;
+        }
+        for (int i = 0; i < ACCOUNT_LENGTH; i++) {
+            char c = account.charAt(i);
+            if (c < '0' || c > '9') {
+                return formatMessage;
+            }
+        }
+        return null;
+    }
+}
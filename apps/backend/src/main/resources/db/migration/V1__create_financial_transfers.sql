@@ -0,0 +1,25 @@
+-- Ids come from a pooled sequence: Hibernate reserves 50 values per call (allocationSize = 50)
+CREATE SEQUENCE financial_transfers_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE financial_transfers (
+    id                  BIGINT         NOT NULL,
+    source_account      VARCHAR(10)    NOT NULL,
+    destination_account VARCHAR(10)    NOT NULL,
+    transfer_amount     DECIMAL(15, 2) NOT NULL,
+    fee                 DECIMAL(15, 2) NOT NULL,
+    transfer_date       DATE           NOT NULL,
+    schedule_date       TIMESTAMP      NOT NULL,
+    CONSTRAINT pk_financial_transfers PRIMARY KEY (id)
+);
+
+-- Listing and keyset pagination
+CREATE INDEX idx_financial_transfers_schedule_date_id
+    ON financial_transfers (schedule_date DESC, id DESC);
+
+-- Transfer search
+CREATE INDEX idx_financial_transfers_source_schedule
+    ON financial_transfers (source_account, schedule_date DESC, id DESC);
+CREATE INDEX idx_financial_transfers_destination_schedule
+    ON financial_transfers (destination_account, schedule_date DESC, id DESC);
+CREATE INDEX idx_financial_transfers_transfer_date_amount
+    ON financial_transfers (transfer_date, transfer_amount);
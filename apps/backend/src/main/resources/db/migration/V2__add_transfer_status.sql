@@ -0,0 +1,7 @@
+-- Execution lifecycle; rows that existed before are still waiting to be executed
+ALTER TABLE financial_transfers ADD COLUMN status VARCHAR(16) DEFAULT 'SCHEDULED' NOT NULL;
+ALTER TABLE financial_transfers ADD COLUMN executed_at TIMESTAMP;
+
+-- Due-transfer scan: one status, transfer dates up to today, oldest first
+CREATE INDEX idx_financial_transfers_status_transfer_date
+    ON financial_transfers (status, transfer_date);
@@ -0,0 +1,8 @@
+-- Execution leases: the instance that claimed an EXECUTING transfer and until when the claim holds.
+-- An EXECUTING row whose lease expired (or that was claimed before leases existed) can be claimed again.
+ALTER TABLE financial_transfers ADD COLUMN claim_owner VARCHAR(64);
+ALTER TABLE financial_transfers ADD COLUMN lease_expires_at TIMESTAMP;
+
+-- Takeover scan: EXECUTING rows ordered by lease expiry
+CREATE INDEX idx_financial_transfers_status_lease
+    ON financial_transfers (status, lease_expires_at);
@@ -0,0 +1,3 @@
+-- Duplicate check: exact lookup of a transfer by source account, transfer date, destination and amount
+CREATE INDEX idx_financial_transfers_duplicate
+    ON financial_transfers (source_account, transfer_date, destination_account, transfer_amount);
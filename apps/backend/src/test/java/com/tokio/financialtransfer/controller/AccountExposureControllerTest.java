@@ -0,0 +1,67 @@
+package com.tokio.financialtransfer.controller;
+
+import com.tokio.financialtransfer.dto.AccountExposureDTO;
+import com.tokio.financialtransfer.service.AccountExposureService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AccountExposureController.class)
+@ActiveProfiles("test")
+@DisplayName("Account Exposure Controller Tests")
+class AccountExposureControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AccountExposureService accountExposureService;
+
+    private final AccountExposureDTO exposure = new AccountExposureDTO(
+            "1234567890", LocalDate.of(2030, 1, 10), 2, new BigDecimal("1500.00"), new BigDecimal("18.00"));
+
+    @Test
+    @DisplayName("Should return the exposure of an account on a date")
+    void shouldReturnExposureOnDate() throws Exception {
+        when(accountExposureService.getExposure("1234567890", LocalDate.of(2030, 1, 10))).thenReturn(exposure);
+
+        mockMvc.perform(get("/api/accounts/1234567890/exposure/2030-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.transferCount").value(2))
+                .andExpect(jsonPath("$.data.totalAmount").value(1500.00))
+                .andExpect(jsonPath("$.data.totalFees").value(18.00));
+    }
+
+    @Test
+    @DisplayName("Should return the exposure of an account by date")
+    void shouldReturnExposuresByDate() throws Exception {
+        when(accountExposureService.getExposures("1234567890")).thenReturn(Collections.singletonList(exposure));
+
+        mockMvc.perform(get("/api/accounts/1234567890/exposure"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].transferDate").value("2030-01-10"));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed account or date")
+    void shouldRejectMalformedAccountOrDate() throws Exception {
+        mockMvc.perform(get("/api/accounts/123/exposure"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Conta de origem deve ter 10 dígitos"));
+        mockMvc.perform(get("/api/accounts/1234567890/exposure/10-01-2030"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Parâmetro inválido: transferDate"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.tokio.financialtransfer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.FeeBacktestBandDTO;
+import com.tokio.financialtransfer.dto.FeeBacktestReportDTO;
+import com.tokio.financialtransfer.dto.FeeRuleDTO;
+import com.tokio.financialtransfer.dto.FeeScheduleDTO;
+import com.tokio.financialtransfer.service.FeeBacktestService;
+import com.tokio.financialtransfer.service.FeeScheduleRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FeeScheduleController.class)
+@ActiveProfiles("test")
+@DisplayName("Fee Schedule Controller Tests")
+class FeeScheduleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private FeeScheduleRegistry feeScheduleRegistry;
+
+    @MockBean
+    private FeeBacktestService feeBacktestService;
+
+    private final FeeScheduleDTO schedule = new FeeScheduleDTO(3L, Collections.singletonList(
+            new FeeRuleDTO(0, 10, "flat", new BigDecimal("5.00"), null)));
+
+    @Test
+    @DisplayName("Should return the current fee schedule")
+    void shouldReturnCurrentFeeSchedule() throws Exception {
+        when(feeScheduleRegistry.describe()).thenReturn(schedule);
+
+        mockMvc.perform(get("/api/admin/fee-schedule"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.version").value(3))
+                .andExpect(jsonPath("$.data.rules[0].type").value("flat"));
+    }
+
+    @Test
+    @DisplayName("Should reload the fee schedule")
+    void shouldReloadFeeSchedule() throws Exception {
+        when(feeScheduleRegistry.describe()).thenReturn(schedule);
+
+        mockMvc.perform(post("/api/admin/fee-schedule/reload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Fee schedule reloaded successfully"));
+
+        verify(feeScheduleRegistry).reload();
+    }
+
+    @Test
+    @DisplayName("Should return bad request when the reloaded schedule is invalid")
+    void shouldReturnBadRequestWhenReloadedScheduleIsInvalid() throws Exception {
+        when(feeScheduleRegistry.reload()).thenThrow(new IllegalArgumentException("Regra b sobrepõe o intervalo da regra anterior"));
+
+        mockMvc.perform(post("/api/admin/fee-schedule/reload"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("ERROR"))
+                .andExpect(jsonPath("$.message").value("Regra b sobrepõe o intervalo da regra anterior"));
+    }
+
+    @Test
+    @DisplayName("Should backtest a candidate fee schedule")
+    void shouldBacktestCandidateFeeSchedule() throws Exception {
+        FeeBacktestReportDTO report = FeeBacktestReportDTO.builder()
+                .transfersAnalyzed(2)
+                .bands(Collections.singletonList(new FeeBacktestBandDTO("flat", 0, 10, 2,
+                        new BigDecimal("24.00"), new BigDecimal("10.00"), new BigDecimal("-14.00"))))
+                .unpricedOriginalFees(BigDecimal.ZERO)
+                .totalOriginalFees(new BigDecimal("24.00"))
+                .totalCandidateFees(new BigDecimal("10.00"))
+                .totalDelta(new BigDecimal("-14.00"))
+                .build();
+        when(feeBacktestService.backtest(anyList())).thenReturn(report);
+
+        mockMvc.perform(post("/api/admin/fee-schedule/backtest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(schedule)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Fee schedule backtest completed successfully"))
+                .andExpect(jsonPath("$.data.transfersAnalyzed").value(2))
+                .andExpect(jsonPath("$.data.bands[0].delta").value(-14.00))
+                .andExpect(jsonPath("$.data.totalDelta").value(-14.00));
+    }
+
+    @Test
+    @DisplayName("Should reject a backtest without rules")
+    void shouldRejectBacktestWithoutRules() throws Exception {
+        mockMvc.perform(post("/api/admin/fee-schedule/backtest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rules\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+}
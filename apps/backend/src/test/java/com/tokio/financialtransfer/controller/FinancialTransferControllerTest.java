@@ -1,32 +1,60 @@
 package com.tokio.financialtransfer.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.FeeBatchRequestDTO;
+import com.tokio.financialtransfer.dto.FeeBatchResponseDTO;
+import com.tokio.financialtransfer.dto.FeeCalendarResponseDTO;
 import com.tokio.financialtransfer.dto.FeeCalculationRequestDTO;
+import com.tokio.financialtransfer.dto.TransferBatchRequestDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferImportReportDTO;
+import com.tokio.financialtransfer.dto.ImportLineErrorDTO;
+import com.tokio.financialtransfer.dto.TransferPageDTO;
 import com.tokio.financialtransfer.dto.TransferRequestDTO;
 import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
 import com.tokio.financialtransfer.service.FinancialTransferService;
+import com.tokio.financialtransfer.service.IdempotencyKeyStore;
+import com.tokio.financialtransfer.service.TransferExportService;
+import com.tokio.financialtransfer.service.TransferImportService;
+import com.tokio.financialtransfer.service.TransferWriteBehindService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FinancialTransferController.class)
+@Import(IdempotencyKeyStore.class)
 @ActiveProfiles("test")
 @DisplayName("Financial Transfer Controller Integration Tests")
 class FinancialTransferControllerTest {
@@ -37,6 +65,15 @@ class FinancialTransferControllerTest {
     @MockBean
     private FinancialTransferService financialTransferService;
 
+    @MockBean
+    private TransferExportService transferExportService;
+
+    @MockBean
+    private TransferImportService transferImportService;
+
+    @MockBean
+    private TransferWriteBehindService transferWriteBehindService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,6 +125,91 @@ class FinancialTransferControllerTest {
                 .andExpect(jsonPath("$.data.fee").value(12.00));
     }
 
+    @Test
+    @DisplayName("Should schedule through the write-behind pipeline when it is enabled")
+    void shouldScheduleThroughWriteBehindWhenEnabled() throws Exception {
+        when(transferWriteBehindService.isEnabled()).thenReturn(true);
+        when(transferWriteBehindService.scheduleTransfer(any(TransferRequestDTO.class))).thenReturn(transferResponse);
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validTransferRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.id").value(1));
+
+        verify(financialTransferService, never()).scheduleTransfer(any(TransferRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should replay the first response for a retried Idempotency-Key")
+    void shouldReplayResponseForRetriedIdempotencyKey() throws Exception {
+        when(financialTransferService.scheduleTransfer(any(TransferRequestDTO.class))).thenReturn(transferResponse);
+        String body = objectMapper.writeValueAsString(validTransferRequest);
+
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.fee").value(12.00));
+
+        verify(financialTransferService, times(1)).scheduleTransfer(any(TransferRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should reject an Idempotency-Key reused for a different transfer")
+    void shouldRejectIdempotencyKeyReusedForDifferentTransfer() throws Exception {
+        when(financialTransferService.scheduleTransfer(any(TransferRequestDTO.class))).thenReturn(transferResponse);
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "reused-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validTransferRequest)))
+                .andExpect(status().isCreated());
+
+        validTransferRequest.setTransferAmount(new BigDecimal("2000.00"));
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "reused-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validTransferRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key já utilizada para outra transferência"));
+    }
+
+    @Test
+    @DisplayName("Should reject an Idempotency-Key longer than 255 characters")
+    void shouldRejectTooLongIdempotencyKey() throws Exception {
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validTransferRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key deve ter entre 1 e 255 caracteres"));
+
+        verify(financialTransferService, never()).scheduleTransfer(any(TransferRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should return 503 when the write-behind queue is full")
+    void shouldReturnServiceUnavailableWhenWriteBehindQueueIsFull() throws Exception {
+        when(transferWriteBehindService.isEnabled()).thenReturn(true);
+        when(transferWriteBehindService.scheduleTransfer(any(TransferRequestDTO.class)))
+                .thenThrow(new RejectedExecutionException("Fila de gravação de transferências cheia"));
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validTransferRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Fila de gravação de transferências cheia"));
+    }
+
     @Test
     @DisplayName("Should return validation error for invalid source account")
     void shouldReturnValidationErrorForInvalidSourceAccount() throws Exception {
@@ -166,6 +288,69 @@ class FinancialTransferControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should schedule transfer batch with per-item results")
+    void shouldScheduleTransferBatchWithPerItemResults() throws Exception {
+        TransferBatchRequestDTO batchRequest = new TransferBatchRequestDTO();
+        batchRequest.setTransfers(Arrays.asList(validTransferRequest, validTransferRequest));
+
+        TransferBatchResponseDTO batchResponse = TransferBatchResponseDTO.builder()
+                .accepted(1)
+                .rejected(1)
+                .ids(Arrays.asList(1L, null))
+                .fees(Arrays.asList(new BigDecimal("12.00"), null))
+                .errors(Collections.singletonList(new BatchItemErrorDTO(1, "Conta de origem deve ter 10 dígitos")))
+                .elapsedMillis(3)
+                .transfersPerSecond(333)
+                .build();
+        when(financialTransferService.scheduleTransferBatch(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.message").value("Transfer batch processed"))
+                .andExpect(jsonPath("$.data.accepted").value(1))
+                .andExpect(jsonPath("$.data.ids[0]").value(1))
+                .andExpect(jsonPath("$.data.ids[1]").isEmpty())
+                .andExpect(jsonPath("$.data.errors[0].index").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return validation error for empty transfer batch")
+    void shouldReturnValidationErrorForEmptyTransferBatch() throws Exception {
+        TransferBatchRequestDTO batchRequest = new TransferBatchRequestDTO();
+        batchRequest.setTransfers(Collections.emptyList());
+
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should import transfers from a CSV body")
+    void shouldImportTransfersFromCsvBody() throws Exception {
+        TransferImportReportDTO report = TransferImportReportDTO.builder()
+                .records(2)
+                .accepted(1)
+                .rejected(1)
+                .errors(Collections.singletonList(new ImportLineErrorDTO(3, "Valor da transferência inválido")))
+                .build();
+        when(transferImportService.importCsv(any())).thenReturn(report);
+
+        mockMvc.perform(post("/api/transfers/import")
+                        .contentType("text/csv")
+                        .content("sourceAccount,destinationAccount,transferAmount,transferDate\n"
+                                + "1234567890,0987654321,100.00,2030-01-10\n"
+                                + "1234567890,0987654321,abc,2030-01-10\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Transfer import processed"))
+                .andExpect(jsonPath("$.data.accepted").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(3));
+    }
+
     @Test
     @DisplayName("Should get all transfers successfully")
     void shouldGetAllTransfersSuccessfully() throws Exception {
@@ -208,6 +393,98 @@ class FinancialTransferControllerTest {
                 .andExpect(jsonPath("$.data.length()").value(0));
     }
 
+    @Test
+    @DisplayName("Should return a page of transfers with the next cursor")
+    void shouldReturnPageOfTransfersWithNextCursor() throws Exception {
+        when(financialTransferService.getTransfersPage(1, null))
+                .thenReturn(new TransferPageDTO(Arrays.asList(transferResponse), "next-page"));
+
+        mockMvc.perform(get("/api/transfers").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"));
+    }
+
+    @Test
+    @DisplayName("Should omit the cursor on the full listing and on the last page")
+    void shouldOmitCursorOnFullListingAndLastPage() throws Exception {
+        when(financialTransferService.getAllTransfers()).thenReturn(Arrays.asList(transferResponse));
+        when(financialTransferService.getTransfersPage(null, "last-page"))
+                .thenReturn(new TransferPageDTO(Arrays.asList(transferResponse), null));
+
+        mockMvc.perform(get("/api/transfers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/api/transfers").param("cursor", "last-page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return bad request for invalid page parameters")
+    void shouldReturnBadRequestForInvalidPageParameters() throws Exception {
+        when(financialTransferService.getTransfersPage(10, "garbage"))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/transfers").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Tamanho da página deve ser maior que zero"));
+        mockMvc.perform(get("/api/transfers").param("limit", "10").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+    }
+
+    @Test
+    @DisplayName("Should search transfers with only the given filters")
+    void shouldSearchTransfersWithGivenFilters() throws Exception {
+        TransferSearchCriteria criteria = TransferSearchCriteria.builder()
+                .sourceAccount("1234567890")
+                .transferDateFrom(LocalDate.of(2030, 1, 1))
+                .amountMax(new BigDecimal("5000.00"))
+                .build();
+        when(financialTransferService.searchTransfers(criteria, 20, null))
+                .thenReturn(new TransferPageDTO(Arrays.asList(transferResponse), "next-page"));
+
+        mockMvc.perform(get("/api/transfers/search")
+                        .param("sourceAccount", "1234567890")
+                        .param("transferDateFrom", "2030-01-01")
+                        .param("amountMax", "5000.00")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sourceAccount").value("1234567890"))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed search filters")
+    void shouldRejectMalformedSearchFilters() throws Exception {
+        mockMvc.perform(get("/api/transfers/search").param("destinationAccount", "12ab"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Conta de destino deve ter 10 dígitos"));
+    }
+
+    @Test
+    @DisplayName("Should stream the transfer export as NDJSON")
+    void shouldStreamTransferExportAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            output.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(transferExportService).exportTransfers(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/transfers/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment")))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
     @Test
     @DisplayName("Should calculate fee successfully")
     void shouldCalculateFeeSuccessfully() throws Exception {
@@ -265,6 +542,78 @@ class FinancialTransferControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should calculate batch fees with per-item errors")
+    void shouldCalculateBatchFeesWithPerItemErrors() throws Exception {
+        FeeBatchRequestDTO batchRequest = new FeeBatchRequestDTO();
+        batchRequest.setItems(Arrays.asList(feeCalculationRequest, feeCalculationRequest));
+
+        FeeBatchResponseDTO batchResponse = new FeeBatchResponseDTO(
+                Arrays.asList(new BigDecimal("12.00"), null),
+                Collections.singletonList(new BatchItemErrorDTO(1, "Não há taxa aplicável para transferências com mais de 50 dias")));
+        when(financialTransferService.calculateFeeBatch(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/transfers/calculate-fee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.message").value("Fees calculated successfully"))
+                .andExpect(jsonPath("$.data.fees[0]").value(12.00))
+                .andExpect(jsonPath("$.data.fees[1]").isEmpty())
+                .andExpect(jsonPath("$.data.errors[0].index").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return validation error for empty fee batch")
+    void shouldReturnValidationErrorForEmptyFeeBatch() throws Exception {
+        FeeBatchRequestDTO batchRequest = new FeeBatchRequestDTO();
+        batchRequest.setItems(Collections.emptyList());
+
+        mockMvc.perform(post("/api/transfers/calculate-fee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return fee calendar cached privately for a short time")
+    void shouldReturnFeeCalendarCachedPrivately() throws Exception {
+        FeeCalendarResponseDTO calendar = new FeeCalendarResponseDTO(
+                new BigDecimal("1000.00"),
+                LocalDate.now(),
+                OffsetDateTime.now().plusHours(1),
+                Arrays.asList(new BigDecimal("28.00"), new BigDecimal("12.00")));
+        when(financialTransferService.calculateFeeCalendar(any(BigDecimal.class))).thenReturn(calendar);
+
+        mockMvc.perform(get("/api/transfers/fee-calendar").param("amount", "1000.00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, private"))
+                .andExpect(header().doesNotExist("Expires"))
+                .andExpect(jsonPath("$.data.validUntil").exists())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.fees.length()").value(2))
+                .andExpect(jsonPath("$.data.fees[0]").value(28.00));
+    }
+
+    @Test
+    @DisplayName("Should return validation error for fee calendar with invalid amount")
+    void shouldReturnValidationErrorForFeeCalendarWithInvalidAmount() throws Exception {
+        mockMvc.perform(get("/api/transfers/fee-calendar").param("amount", "0.00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("ERROR"))
+                .andExpect(jsonPath("$.message").value("Valor deve ser maior que zero"));
+    }
+
+    @Test
+    @DisplayName("Should return validation error for fee calendar without amount")
+    void shouldReturnValidationErrorForFeeCalendarWithoutAmount() throws Exception {
+        mockMvc.perform(get("/api/transfers/fee-calendar"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("ERROR"))
+                .andExpect(jsonPath("$.message").value("Valor da transferência é obrigatório"));
+    }
+
     @Test
     @DisplayName("Should handle malformed JSON request")
     void shouldHandleMalformedJsonRequest() throws Exception {
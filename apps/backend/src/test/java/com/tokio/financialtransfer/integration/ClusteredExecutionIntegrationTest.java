@@ -0,0 +1,154 @@
+package com.tokio.financialtransfer.integration;
+
+import com.tokio.financialtransfer.FinancialTransferApplication;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.model.TransferStatus;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.service.TransferExecutionService;
+import com.tokio.financialtransfer.service.TransferExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several application contexts against one file database, the way replicas share the
+ * production database, and checks that they split the due transfers through execution leases
+ * without executing any transfer twice.
+ */
+@DisplayName("Clustered Execution Integration Tests")
+class ClusteredExecutionIntegrationTest {
+
+    private static final int INSTANCES = 3;
+    private static final int TRANSFERS = 600;
+
+    @TempDir
+    Path dataDir;
+
+    private final Map<Long, AtomicInteger> executions = new ConcurrentHashMap<>();
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Should split due transfers between instances and execute each exactly once")
+    void shouldExecuteEachTransferOnceAcrossInstances() throws Exception {
+        for (int i = 0; i < INSTANCES; i++) {
+            contexts.add(start("node-" + i));
+        }
+        seed(contexts.get(0).getBean(FinancialTransferRepository.class));
+
+        ExecutorService runners = Executors.newFixedThreadPool(INSTANCES);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> runs = new ArrayList<>();
+        for (ConfigurableApplicationContext context : contexts) {
+            TransferExecutionService service = context.getBean(TransferExecutionService.class);
+            runs.add(runners.submit(() -> {
+                go.await();
+                return service.executeDueTransfers();
+            }));
+        }
+        go.countDown();
+
+        int processed = 0;
+        for (Future<Integer> run : runs) {
+            processed += run.get(60, TimeUnit.SECONDS);
+        }
+        runners.shutdown();
+
+        assertEquals(TRANSFERS, processed);
+        assertEquals(TRANSFERS, executions.size());
+        executions.forEach((id, count) -> assertEquals(1, count.get(), "transfer " + id + " executed more than once"));
+
+        FinancialTransferRepository repository = contexts.get(0).getBean(FinancialTransferRepository.class);
+        assertEquals(TRANSFERS, repository.countByStatus(TransferStatus.EXECUTED));
+
+        List<Map<String, Object>> owners = contexts.get(0).getBean(JdbcTemplate.class).queryForList(
+                "SELECT claim_owner, COUNT(*) AS executed FROM financial_transfers GROUP BY claim_owner");
+        assertTrue(owners.size() > 1, "due work should be split between instances: " + owners);
+        long claimed = 0;
+        for (ConfigurableApplicationContext context : contexts) {
+            claimed += context.getBean(TransferExecutionService.class).getClaimed();
+        }
+        assertEquals(TRANSFERS, claimed);
+    }
+
+    @Test
+    @DisplayName("Should let another instance take over transfers whose lease expired")
+    void shouldTakeOverExpiredLeaseFromAnotherInstance() {
+        contexts.add(start("node-a"));
+        contexts.add(start("node-b"));
+        FinancialTransferRepository repository = contexts.get(0).getBean(FinancialTransferRepository.class);
+        seed(repository);
+
+        // node-a claimed everything and then stopped renewing its leases
+        contexts.get(0).getBean(JdbcTemplate.class).update("UPDATE financial_transfers SET status = 'EXECUTING', "
+                + "claim_owner = 'node-a', lease_expires_at = DATEADD('SECOND', -1, CURRENT_TIMESTAMP)");
+
+        TransferExecutionService survivor = contexts.get(1).getBean(TransferExecutionService.class);
+        assertEquals(TRANSFERS, survivor.executeDueTransfers());
+
+        assertEquals(TRANSFERS, survivor.getTakenOver());
+        assertEquals(TRANSFERS, repository.countByStatus(TransferStatus.EXECUTED));
+        assertEquals(0, contexts.get(0).getBean(TransferExecutionService.class).executeDueTransfers());
+    }
+
+    private void seed(FinancialTransferRepository repository) {
+        List<FinancialTransfer> transfers = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            transfers.add(FinancialTransfer.builder()
+                    .sourceAccount(String.format("%010d", i % 50))
+                    .destinationAccount("0987654321")
+                    .transferAmount(new BigDecimal("100.00"))
+                    .fee(new BigDecimal("3.00"))
+                    .transferDate(LocalDate.now().minusDays(i % 7))
+                    .build());
+        }
+        repository.saveAll(transfers);
+    }
+
+    private ConfigurableApplicationContext start(String instanceId) {
+        TransferExecutor recording = transfer -> {
+            executions.computeIfAbsent(transfer.getId(), id -> new AtomicInteger()).incrementAndGet();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(500));
+        };
+        return new SpringApplicationBuilder(FinancialTransferApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .initializers(context -> ((GenericApplicationContext) context).registerBean("recordingTransferExecutor",
+                        TransferExecutor.class, () -> recording, definition -> definition.setPrimary(true)))
+                .run("--spring.profiles.active=prod",
+                        "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("financial-transfers")
+                                + ";CACHE_SIZE=8192;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.devtools.restart.enabled=false",
+                        // Runs are driven by the test so every instance starts at the same moment
+                        "--transfers.execution.enabled=false",
+                        "--transfers.execution.chunk-size=20",
+                        "--transfers.execution.instance-id=" + instanceId);
+    }
+}
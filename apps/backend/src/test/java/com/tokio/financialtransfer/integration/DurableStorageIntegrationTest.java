@@ -0,0 +1,160 @@
+package com.tokio.financialtransfer.integration;
+
+import com.tokio.financialtransfer.FinancialTransferApplication;
+import com.tokio.financialtransfer.dto.AccountExposureDTO;
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.model.TransferStatus;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.service.AccountExposureService;
+import com.tokio.financialtransfer.service.DailyLimitService;
+import com.tokio.financialtransfer.service.FinancialTransferService;
+import com.tokio.financialtransfer.service.TransferExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the prod storage settings (file database, Flyway migrations, Hibernate validate)
+ * against a temporary directory and checks that transfers and their execution status survive a restart.
+ */
+@DisplayName("Durable Storage Integration Tests")
+class DurableStorageIntegrationTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Should migrate, validate the schema and keep transfers across restarts")
+    void shouldKeepTransfersAcrossRestarts() {
+        TransferRequestDTO request = new TransferRequestDTO();
+        request.setSourceAccount("1234567890");
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(LocalDate.now().plusDays(5));
+
+        Long id;
+        try (ConfigurableApplicationContext context = start("--transfers.limits.enabled=true", "--transfers.duplicates.policy=warn")) {
+            id = context.getBean(FinancialTransferService.class).scheduleTransfer(request).getId();
+
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            assertEquals(4, jdbc.queryForObject("SELECT COUNT(*) FROM \"flyway_schema_history\" "
+                    + "WHERE \"version\" IN ('1', '2', '3', '4') AND \"success\"", Integer.class));
+            assertEquals(7, jdbc.queryForObject("SELECT COUNT(DISTINCT index_name) FROM information_schema.indexes "
+                    + "WHERE table_name = 'FINANCIAL_TRANSFERS' AND index_name LIKE 'IDX_%'", Integer.class));
+        }
+
+        try (ConfigurableApplicationContext context = start("--transfers.limits.enabled=true", "--transfers.duplicates.policy=warn")) {
+            List<TransferResponseDTO> transfers = context.getBean(FinancialTransferService.class).getAllTransfers();
+            assertEquals(1, transfers.size());
+            assertEquals(id, transfers.get(0).getId());
+            assertEquals(new BigDecimal("12.00"), transfers.get(0).getFee());
+
+            AccountExposureDTO exposure = context.getBean(AccountExposureService.class)
+                    .getExposure("1234567890", request.getTransferDate());
+            assertEquals(1, exposure.getTransferCount());
+            assertEquals(new BigDecimal("1000.00"), context.getBean(DailyLimitService.class)
+                    .getUsed("1234567890", request.getTransferDate()));
+
+            // The duplicate filter is rebuilt from the table, so the repeated transfer is flagged
+            TransferResponseDTO repeated = context.getBean(FinancialTransferService.class).scheduleTransfer(request);
+            assertEquals(Boolean.TRUE, repeated.getPossibleDuplicate());
+            assertTrue(repeated.getId() > id, "ids must not be reused after a restart");
+
+            // Batch items are checked too, against the table and against the earlier items of the batch
+            TransferBatchResponseDTO batch = context.getBean(FinancialTransferService.class)
+                    .scheduleTransferBatch(List.of(request, request));
+            assertEquals(2, batch.getAccepted());
+            assertEquals(List.of(0, 1), batch.getWarnings().stream().map(BatchItemErrorDTO::getIndex).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should execute a due transfer whose lease expired after restart")
+    void shouldResumeInterruptedExecutionAfterRestart() throws InterruptedException {
+        FinancialTransfer due = FinancialTransfer.builder()
+                .sourceAccount("1234567890")
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal("500.00"))
+                .fee(new BigDecimal("15.50"))
+                .transferDate(LocalDate.now())
+                .build();
+
+        Long id;
+        try (ConfigurableApplicationContext context = start("--transfers.execution.enabled=false")) {
+            id = context.getBean(FinancialTransferRepository.class).save(due).getId();
+            // Simulates an instance that died after claiming the transfer
+            context.getBean(JdbcTemplate.class).update("UPDATE financial_transfers SET status = 'EXECUTING', "
+                    + "claim_owner = 'crashed-node', lease_expires_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP) WHERE id = ?", id);
+        }
+
+        List<Long> executed = new CopyOnWriteArrayList<>();
+        try (ConfigurableApplicationContext context = start(transfer -> executed.add(transfer.getId()),
+                "--transfers.execution.enabled=true")) {
+            FinancialTransferRepository repository = context.getBean(FinancialTransferRepository.class);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (repository.findById(id).orElseThrow().getStatus() != TransferStatus.EXECUTED && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            FinancialTransfer stored = repository.findById(id).orElseThrow();
+            assertEquals(TransferStatus.EXECUTED, stored.getStatus());
+            assertNotNull(stored.getExecutedAt());
+            assertEquals(List.of(id), executed);
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to execute transfers with the default executor")
+    void shouldRefuseExecutionWithDefaultExecutor() {
+        Exception ex = assertThrows(Exception.class, () -> start("--transfers.execution.enabled=true").close());
+        Throwable cause = ex;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause instanceof IllegalStateException, cause.toString());
+    }
+
+    private ConfigurableApplicationContext start(String... extraArgs) {
+        return start(null, extraArgs);
+    }
+
+    /**
+     * @param executor replaces the default executor when not {@code null}
+     */
+    private ConfigurableApplicationContext start(TransferExecutor executor, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--spring.profiles.active=prod",
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("financial-transfers")
+                        + ";CACHE_SIZE=8192;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.devtools.restart.enabled=false"));
+        args.addAll(List.of(extraArgs));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(FinancialTransferApplication.class);
+        if (executor != null) {
+            // Not primary: the default executor must step aside for any executor the application defines
+            builder.initializers(context -> ((GenericApplicationContext) context).registerBean("testTransferExecutor",
+                    TransferExecutor.class, () -> executor));
+        }
+        return builder
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+}
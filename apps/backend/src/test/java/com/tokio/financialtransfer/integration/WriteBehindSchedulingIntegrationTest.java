@@ -0,0 +1,128 @@
+package com.tokio.financialtransfer.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.service.AccountExposureService;
+import com.tokio.financialtransfer.service.TransferWriteBehindService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transfers.write-behind.enabled=true",
+        "transfers.write-behind.batch-size=64",
+        "transfers.write-behind.linger-ms=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Write-Behind Scheduling Integration Tests")
+class WriteBehindSchedulingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransferWriteBehindService transferWriteBehindService;
+
+    @Autowired
+    private FinancialTransferRepository repository;
+
+    @Autowired
+    private AccountExposureService accountExposureService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should group concurrent schedules into fewer commits and persist every transfer")
+    void shouldGroupConcurrentSchedulesIntoFewerCommits() throws Exception {
+        int transfers = 400;
+        LocalDate transferDate = LocalDate.now().plusDays(7);
+        long commitsBefore = transferWriteBehindService.getCommits();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<TransferResponseDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < transfers; i++) {
+                futures.add(executor.submit(() -> transferWriteBehindService.scheduleTransfer(request("1111111111", transferDate))));
+            }
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<TransferResponseDTO> future : futures) {
+                TransferResponseDTO response = future.get(30, TimeUnit.SECONDS);
+                // The response is only sent once the row is committed
+                assertTrue(repository.existsById(response.getId()));
+                ids.add(response.getId());
+            }
+            assertEquals(transfers, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long commits = transferWriteBehindService.getCommits() - commitsBefore;
+        assertTrue(commits < transfers, "expected batches, got " + commits + " commits");
+        assertEquals(transfers, accountExposureService.getExposure("1111111111", transferDate).getTransferCount());
+        assertTrue(meterRegistry.get("transfers.write_behind.commit").functionTimer().count() >= commits);
+        assertEquals(0.0, meterRegistry.get("transfers.write_behind.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should schedule through the API and share the sequence with the regular path")
+    void shouldScheduleThroughApi() throws Exception {
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("2222222222", LocalDate.now().plusDays(3)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.id").isNumber())
+                .andExpect(jsonPath("$.data.fee").value(12.00));
+
+        // A transfer saved by Hibernate afterwards must not reuse any id handed out up front
+        Long writeBehindId = repository.findAll().stream()
+                .filter(transfer -> transfer.getSourceAccount().equals("2222222222"))
+                .findFirst().orElseThrow().getId();
+        Long hibernateId = repository.save(FinancialTransfer.builder()
+                .sourceAccount("2222222222")
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal("10.00"))
+                .fee(new BigDecimal("3.25"))
+                .transferDate(LocalDate.now())
+                .build()).getId();
+        assertNotEquals(writeBehindId, hibernateId);
+    }
+
+    private static TransferRequestDTO request(String sourceAccount, LocalDate transferDate) {
+        TransferRequestDTO request = new TransferRequestDTO();
+        request.setSourceAccount(sourceAccount);
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(transferDate);
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package com.tokio.financialtransfer.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compiled Fee Rule Tests")
+class CompiledFeeRuleTest {
+
+    private static final List<FeeRule> FEE_RULES = Arrays.asList(
+            new FeeRule(0, 0, "same_day", new BigDecimal("3.00"), new BigDecimal("0.025")),
+            new FeeRule(1, 10, "1_to_10_days", new BigDecimal("12.00"), null),
+            new FeeRule(11, 20, "11_to_20_days", null, new BigDecimal("0.082")),
+            new FeeRule(21, 30, "21_to_30_days", null, new BigDecimal("0.069")),
+            new FeeRule(31, 40, "31_to_40_days", null, new BigDecimal("0.047")),
+            new FeeRule(41, 50, "41_to_50_days", null, new BigDecimal("0.017"))
+    );
+
+    /** Largest amount accepted by the transfer_amount column: DECIMAL(15, 2). */
+    private static final long MAX_AMOUNT_CENTS = 999_999_999_999_999L;
+
+    @Test
+    @DisplayName("Should match BigDecimal for every amount up to 10,000.00 in every band")
+    void shouldMatchBigDecimalExhaustivelyForSmallAmounts() {
+        for (FeeRule rule : FEE_RULES) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            for (long cents = 0; cents <= 1_000_000; cents++) {
+                assertSameFee(compiled, BigDecimal.valueOf(cents, 2));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal for random amounts across the full column range")
+    void shouldMatchBigDecimalForRandomAmountsAcrossFullRange() {
+        SplittableRandom random = new SplittableRandom(20240830L);
+        for (FeeRule rule : FEE_RULES) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            for (int i = 0; i < 200_000; i++) {
+                long cents = random.nextLong(MAX_AMOUNT_CENTS + 1);
+                assertSameFee(compiled, BigDecimal.valueOf(cents, 2));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal on rounding boundaries and range limits")
+    void shouldMatchBigDecimalOnRoundingBoundariesAndLimits() {
+        for (FeeRule rule : FEE_RULES) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            for (long cents : new long[]{1, 20, 40, 60, 80, 100, 12345, 999_999, MAX_AMOUNT_CENTS - 1, MAX_AMOUNT_CENTS}) {
+                assertSameFee(compiled, BigDecimal.valueOf(cents, 2));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should accept amounts with fewer decimal places on the fast path")
+    void shouldAcceptAmountsWithFewerDecimalPlaces() {
+        for (FeeRule rule : FEE_RULES) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            assertSameFee(compiled, new BigDecimal("1000"));
+            assertSameFee(compiled, new BigDecimal("123.4"));
+            assertSameFee(compiled, new BigDecimal("0.1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to BigDecimal for amounts outside the fast path")
+    void shouldFallBackForAmountsOutsideFastPath() {
+        for (FeeRule rule : FEE_RULES) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            assertSameFee(compiled, new BigDecimal("123.455"));
+            assertSameFee(compiled, new BigDecimal("0.005"));
+            assertSameFee(compiled, new BigDecimal("1E+3"));
+            assertSameFee(compiled, new BigDecimal("92233720368547758.07"));
+            assertSameFee(compiled, new BigDecimal("-10.00"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should support rules with unusual fixed and percentage scales")
+    void shouldSupportRulesWithUnusualScales() {
+        List<FeeRule> rules = Arrays.asList(
+                new FeeRule(0, 0, "fixed_three_places", new BigDecimal("2.505"), new BigDecimal("0.01")),
+                new FeeRule(0, 0, "fixed_integer", new BigDecimal("5"), null),
+                new FeeRule(0, 0, "rate_integer", null, new BigDecimal("1")),
+                new FeeRule(0, 0, "rate_many_places", null, new BigDecimal("0.0012345"))
+        );
+        SplittableRandom random = new SplittableRandom(7L);
+        for (FeeRule rule : rules) {
+            CompiledFeeRule compiled = new CompiledFeeRule(rule);
+            for (int i = 0; i < 50_000; i++) {
+                assertSameFee(compiled, BigDecimal.valueOf(random.nextLong(MAX_AMOUNT_CENTS + 1), 2));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert amounts to cents")
+    void shouldConvertAmountsToCents() {
+        assertEquals(12345, CompiledFeeRule.toCents(new BigDecimal("123.45")));
+        assertEquals(12340, CompiledFeeRule.toCents(new BigDecimal("123.4")));
+        assertEquals(12300, CompiledFeeRule.toCents(new BigDecimal("123")));
+        assertEquals(-1, CompiledFeeRule.toCents(new BigDecimal("123.456")));
+        assertEquals(-1, CompiledFeeRule.toCents(new BigDecimal("-1.00")));
+        assertEquals(-1, CompiledFeeRule.toCents(new BigDecimal("1E+3")));
+    }
+
+    private static void assertSameFee(CompiledFeeRule compiled, BigDecimal amount) {
+        BigDecimal expected = compiled.calculateExact(amount);
+        BigDecimal actual = compiled.calculate(amount);
+        // equals() also compares the scale, so this is a bit-for-bit comparison
+        assertEquals(expected, actual, () -> compiled.getType() + " for amount " + amount);
+    }
+}
@@ -0,0 +1,114 @@
+package com.tokio.financialtransfer.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fee Schedule Model Tests")
+class FeeScheduleTest {
+
+    private List<FeeRule> rules;
+    private FeeSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        rules = Arrays.asList(
+                new FeeRule(0, 0, "same_day", new BigDecimal("3.00"), new BigDecimal("0.025")),
+                new FeeRule(1, 10, "1_to_10_days", new BigDecimal("12.00"), null),
+                new FeeRule(11, 20, "11_to_20_days", null, new BigDecimal("0.082"))
+        );
+        schedule = FeeSchedule.compile(rules);
+    }
+
+    @Test
+    @DisplayName("Should resolve the same rule as a linear scan for every covered day")
+    void shouldResolveSameRuleAsLinearScan() {
+        for (int day = 0; day <= 20; day++) {
+            final int currentDay = day;
+            FeeRule expected = rules.stream().filter(rule -> rule.appliesTo(currentDay)).findFirst().orElse(null);
+
+            assertSame(expected, schedule.ruleFor(day).getRule(), "day " + day);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for offsets outside the schedule")
+    void shouldReturnNullForOffsetsOutsideSchedule() {
+        assertNull(schedule.ruleFor(-1));
+        assertNull(schedule.ruleFor(21));
+        assertNull(schedule.ruleFor(Long.MAX_VALUE));
+        assertNull(schedule.ruleFor(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should expose the highest covered day")
+    void shouldExposeHighestCoveredDay() {
+        assertEquals(20, schedule.getMaxDays());
+        assertEquals(rules, schedule.getRules());
+    }
+
+    @Test
+    @DisplayName("Should share one compiled rule across all days of a band")
+    void shouldShareOneCompiledRuleAcrossBand() {
+        assertSame(schedule.ruleFor(1), schedule.ruleFor(10));
+        assertNotSame(schedule.ruleFor(10), schedule.ruleFor(11));
+    }
+
+    @Test
+    @DisplayName("Should accept rules declared out of order")
+    void shouldAcceptRulesDeclaredOutOfOrder() {
+        FeeSchedule reversed = FeeSchedule.compile(Arrays.asList(rules.get(2), rules.get(0), rules.get(1)), 7);
+
+        assertEquals(7, reversed.getVersion());
+        assertEquals(rules, reversed.getRules());
+        assertSame(rules.get(1), reversed.ruleFor(5).getRule());
+    }
+
+    @Test
+    @DisplayName("Should reject overlapping ranges")
+    void shouldRejectOverlappingRanges() {
+        FeeRule first = new FeeRule(0, 5, "first", new BigDecimal("1.00"), null);
+        FeeRule second = new FeeRule(3, 8, "second", new BigDecimal("2.00"), null);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(first, second)));
+
+        assertEquals("Regra second sobrepõe o intervalo da regra anterior", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject missing ranges")
+    void shouldRejectMissingRanges() {
+        FeeRule first = new FeeRule(0, 5, "first", new BigDecimal("1.00"), null);
+        FeeRule second = new FeeRule(7, 8, "second", new BigDecimal("2.00"), null);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(first, second)));
+
+        assertEquals("Não há regra para o intervalo de 6 a 6 dias", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(new FeeRule(1, 5, "late_start", new BigDecimal("1.00"), null))));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed rules")
+    void shouldRejectMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.compile(Arrays.asList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(new FeeRule(0, 5, "no_fee", null, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(new FeeRule(0, -1, "inverted", new BigDecimal("1.00"), null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(new FeeRule(0, 5, "negative", new BigDecimal("-1.00"), null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> FeeSchedule.compile(Arrays.asList(new FeeRule(0, 5, " ", new BigDecimal("1.00"), null))));
+    }
+}
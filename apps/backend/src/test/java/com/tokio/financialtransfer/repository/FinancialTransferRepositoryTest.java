@@ -1,17 +1,23 @@
 package com.tokio.financialtransfer.repository;
 
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
 import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.util.TransferCursor;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -248,4 +254,136 @@ class FinancialTransferRepositoryTest {
         assertEquals(futureDate, retrieved.get().getTransferDate());
         assertEquals(scheduleDateTime, retrieved.get().getScheduleDate());
     }
+
+    @Test
+    @DisplayName("Should walk every page in order without gaps or repeats, including ties on schedule date")
+    void shouldWalkEveryPageInKeysetOrder() {
+        LocalDateTime base = LocalDateTime.of(2024, 8, 30, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            FinancialTransfer transfer = FinancialTransfer.builder()
+                    .sourceAccount("1234567890")
+                    .destinationAccount("0987654321")
+                    .transferAmount(new BigDecimal("100.00"))
+                    .fee(new BigDecimal("12.00"))
+                    .transferDate(LocalDate.of(2024, 9, 5))
+                    // three transfers share each schedule date
+                    .scheduleDate(base.minusMinutes(i / 3))
+                    .build();
+            entityManager.persist(transfer);
+        }
+        entityManager.flush();
+        List<TransferResponseDTO> expected = repository.findFirstPage(PageRequest.of(0, 100));
+
+        List<TransferResponseDTO> walked = new ArrayList<>();
+        List<TransferResponseDTO> page = repository.findFirstPage(PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            TransferResponseDTO last = page.get(page.size() - 1);
+            page = repository.findPageAfter(last.getScheduleDate(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        assertEquals(7, expected.size());
+        assertEquals(expected, walked);
+        for (int i = 1; i < walked.size(); i++) {
+            TransferResponseDTO previous = walked.get(i - 1);
+            TransferResponseDTO current = walked.get(i);
+            assertTrue(previous.getScheduleDate().isAfter(current.getScheduleDate())
+                    || (previous.getScheduleDate().equals(current.getScheduleDate()) && previous.getId() > current.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should project the listing to response DTOs without managing entities")
+    void shouldProjectListingWithoutManagingEntities() {
+        entityManager.persist(transfer1);
+        entityManager.persist(transfer2);
+        entityManager.persist(transfer3);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TransferResponseDTO> responses = repository.findAllResponsesOrderByScheduleDateDesc();
+
+        assertEquals(3, responses.size());
+        assertEquals(transfer2.getId(), responses.get(0).getId());
+        assertEquals(transfer1.getId(), responses.get(1).getId());
+        assertEquals(transfer3.getId(), responses.get(2).getId());
+        assertEquals("1111111111", responses.get(0).getSourceAccount());
+        assertEquals(0, responses.get(0).getFee().compareTo(new BigDecimal("6.00")));
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Should apply only the given search filters")
+    void shouldApplyOnlyGivenSearchFilters() {
+        entityManager.persist(transfer1);
+        entityManager.persist(transfer2);
+        entityManager.persist(transfer3);
+        entityManager.flush();
+
+        List<TransferResponseDTO> all = repository.search(new TransferSearchCriteria(), null, 10);
+        List<TransferResponseDTO> bySource = repository.search(
+                TransferSearchCriteria.builder().sourceAccount("1111111111").build(), null, 10);
+        List<TransferResponseDTO> byDestinationAndAmount = repository.search(
+                TransferSearchCriteria.builder().destinationAccount("4444444444").amountMax(new BigDecimal("1999.99")).build(), null, 10);
+        List<TransferResponseDTO> byRanges = repository.search(TransferSearchCriteria.builder()
+                .transferDateFrom(LocalDate.now().plusDays(4))
+                .transferDateTo(LocalDate.now().plusDays(10))
+                .amountMin(new BigDecimal("1000.00"))
+                .build(), null, 10);
+
+        assertEquals(List.of(transfer2.getId(), transfer1.getId(), transfer3.getId()), ids(all));
+        assertEquals(List.of(transfer2.getId()), ids(bySource));
+        assertTrue(byDestinationAndAmount.isEmpty());
+        assertEquals(List.of(transfer1.getId(), transfer3.getId()), ids(byRanges));
+    }
+
+    @Test
+    @DisplayName("Should page a search from a cursor")
+    void shouldPageSearchFromCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(FinancialTransfer.builder()
+                    .sourceAccount("5555555555")
+                    .destinationAccount("0987654321")
+                    .transferAmount(new BigDecimal("100.00"))
+                    .fee(new BigDecimal("3.00"))
+                    .transferDate(LocalDate.now())
+                    .scheduleDate(now.minusMinutes(i % 2))
+                    .build());
+        }
+        entityManager.persist(transfer1);
+        entityManager.flush();
+        TransferSearchCriteria criteria = TransferSearchCriteria.builder().sourceAccount("5555555555").build();
+
+        List<TransferResponseDTO> expected = repository.search(criteria, null, 10);
+        List<TransferResponseDTO> walked = new ArrayList<>();
+        List<TransferResponseDTO> page = repository.search(criteria, null, 2);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            TransferResponseDTO last = page.get(page.size() - 1);
+            page = repository.search(criteria, new TransferCursor(last.getScheduleDate(), last.getId()), 2);
+        }
+
+        assertEquals(5, expected.size());
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    @DisplayName("Should look up an account through its index")
+    void shouldLookUpAccountThroughIndex() {
+        String plan = (String) entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT * FROM financial_transfers WHERE source_account = '1234567890' "
+                        + "ORDER BY schedule_date DESC, id DESC")
+                .getSingleResult();
+
+        assertTrue(plan.toUpperCase().contains("IDX_FINANCIAL_TRANSFERS_SOURCE_SCHEDULE"), plan);
+    }
+
+    private static List<Long> ids(List<TransferResponseDTO> transfers) {
+        List<Long> ids = new ArrayList<>();
+        for (TransferResponseDTO transfer : transfers) {
+            ids.add(transfer.getId());
+        }
+        return ids;
+    }
 }
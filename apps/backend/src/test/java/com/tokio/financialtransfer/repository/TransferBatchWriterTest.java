@@ -0,0 +1,81 @@
+package com.tokio.financialtransfer.repository;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TransferBatchWriter.class)
+@DisplayName("Transfer Batch Writer Tests")
+class TransferBatchWriterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransferBatchWriter transferBatchWriter;
+
+    @Autowired
+    private FinancialTransferRepository repository;
+
+    @Test
+    @DisplayName("Should insert every transfer and assign distinct ids")
+    void shouldInsertEveryTransferAndAssignIds() {
+        ReflectionTestUtils.setField(transferBatchWriter, "batchSize", 7);
+        List<FinancialTransfer> transfers = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            transfers.add(FinancialTransfer.builder()
+                    .sourceAccount("1234567890")
+                    .destinationAccount("0987654321")
+                    .transferAmount(BigDecimal.valueOf(100 + i))
+                    .fee(new BigDecimal("3.00"))
+                    .transferDate(LocalDate.now())
+                    .build());
+        }
+
+        transferBatchWriter.insertAll(transfers);
+
+        Set<Long> ids = new HashSet<>();
+        for (FinancialTransfer transfer : transfers) {
+            assertNotNull(transfer.getId());
+            assertNotNull(transfer.getScheduleDate());
+            ids.add(transfer.getId());
+        }
+        assertEquals(120, ids.size());
+        assertEquals(120, repository.count());
+    }
+
+    @Test
+    @DisplayName("Should leave the persistence context empty after inserting")
+    void shouldLeavePersistenceContextEmpty() {
+        FinancialTransfer transfer = FinancialTransfer.builder()
+                .sourceAccount("1234567890")
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal("1000.00"))
+                .fee(new BigDecimal("12.00"))
+                .transferDate(LocalDate.now().plusDays(5))
+                .build();
+
+        transferBatchWriter.insertAll(List.of(transfer));
+
+        assertFalse(entityManager.getEntityManager().contains(transfer));
+        FinancialTransfer stored = entityManager.find(FinancialTransfer.class, transfer.getId());
+        assertEquals(new BigDecimal("12.00"), stored.getFee());
+    }
+}
@@ -0,0 +1,130 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.AccountExposureDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(AccountExposureService.class)
+@ActiveProfiles("test")
+@DisplayName("Account Exposure Service Tests")
+class AccountExposureServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountExposureService accountExposureService;
+
+    @AfterEach
+    void tearDown() {
+        accountExposureService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollup from stored transfers")
+    void shouldRebuildFromStoredTransfers() {
+        entityManager.persist(transfer("1234567890", DAY, "1000.00", "12.00"));
+        entityManager.persist(transfer("1234567890", DAY, "500.50", "6.01"));
+        entityManager.persist(transfer("1234567890", DAY.plusDays(1), "10.00", "3.25"));
+        entityManager.persist(transfer("1111111111", DAY, "99.99", "3.00"));
+        entityManager.flush();
+
+        accountExposureService.rebuild();
+
+        AccountExposureDTO exposure = accountExposureService.getExposure("1234567890", DAY);
+        assertEquals(2, exposure.getTransferCount());
+        assertEquals(new BigDecimal("1500.50"), exposure.getTotalAmount());
+        assertEquals(new BigDecimal("18.01"), exposure.getTotalFees());
+
+        List<AccountExposureDTO> byDate = accountExposureService.getExposures("1234567890");
+        assertEquals(Arrays.asList(DAY, DAY.plusDays(1)), Arrays.asList(byDate.get(0).getTransferDate(), byDate.get(1).getTransferDate()));
+    }
+
+    @Test
+    @DisplayName("Should return zero totals for an account without transfers")
+    void shouldReturnZeroForUnknownAccount() {
+        AccountExposureDTO exposure = accountExposureService.getExposure("9999999999", DAY);
+
+        assertEquals(0, exposure.getTransferCount());
+        assertEquals(new BigDecimal("0.00"), exposure.getTotalAmount());
+        assertTrue(accountExposureService.getExposures("9999999999").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should count a transfer only once its transaction commits")
+    void shouldCountTransferOnlyAfterCommit() {
+        FinancialTransfer committed = transfer("2222222222", DAY, "100.00", "3.00");
+        FinancialTransfer rolledBack = transfer("2222222222", DAY, "700.00", "3.00");
+
+        // The test transaction is never committed, so drive the synchronizations by hand
+        List<TransactionSynchronization> outer = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        try {
+            TransactionSynchronizationManager.initSynchronization();
+            accountExposureService.record(committed);
+            assertEquals(0, accountExposureService.getExposure("2222222222", DAY).getTransferCount());
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            TransactionSynchronizationManager.clearSynchronization();
+
+            TransactionSynchronizationManager.initSynchronization();
+            accountExposureService.record(rolledBack);
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+            TransactionSynchronizationManager.clearSynchronization();
+        } finally {
+            TransactionSynchronizationManager.initSynchronization();
+            outer.forEach(TransactionSynchronizationManager::registerSynchronization);
+        }
+
+        AccountExposureDTO exposure = accountExposureService.getExposure("2222222222", DAY);
+        assertEquals(1, exposure.getTransferCount());
+        assertEquals(new BigDecimal("100.00"), exposure.getTotalAmount());
+    }
+
+    @Test
+    @DisplayName("Should apply a record made outside a transaction right away")
+    void shouldApplyRecordOutsideTransaction() {
+        List<TransactionSynchronization> outer = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        try {
+            accountExposureService.record(Arrays.asList(
+                    transfer("3333333333", DAY, "10.00", "3.00"),
+                    transfer("3333333333", DAY, "20.00", "3.00")));
+        } finally {
+            TransactionSynchronizationManager.initSynchronization();
+            outer.forEach(TransactionSynchronizationManager::registerSynchronization);
+        }
+
+        assertEquals(new BigDecimal("30.00"), accountExposureService.getExposure("3333333333", DAY).getTotalAmount());
+    }
+
+    private static FinancialTransfer transfer(String sourceAccount, LocalDate transferDate, String amount, String fee) {
+        return FinancialTransfer.builder()
+                .sourceAccount(sourceAccount)
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal(amount))
+                .fee(new BigDecimal(fee))
+                .transferDate(transferDate)
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+package com.tokio.financialtransfer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Account Lock Service Tests")
+class AccountLockServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20_000;
+
+    private AccountLockService accountLockService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        accountLockService = new AccountLockService(1024, 200);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should round the stripe count up to a power of two")
+    void shouldRoundStripesToPowerOfTwo() {
+        assertEquals(1024, accountLockService.getStripes());
+        assertEquals(16, new AccountLockService(10, 100).getStripes());
+        assertThrows(IllegalArgumentException.class, () -> new AccountLockService(0, 100));
+    }
+
+    @Test
+    @DisplayName("Should never let two requests for the same account run at once")
+    void shouldSerializeSameAccount() throws Exception {
+        long[] balance = new long[1];
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    accountLockService.withLock("1234567890", () -> balance[0]++);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals((long) THREADS * ITERATIONS, balance[0]);
+        assertEquals((long) THREADS * ITERATIONS, accountLockService.getUncontended() + accountLockService.getContended());
+    }
+
+    @Test
+    @DisplayName("Should keep distinct accounts apart under a stress run")
+    void shouldNotContendAcrossDistinctAccounts() throws Exception {
+        String[] accounts = accountsOnDistinctStripes(THREADS);
+        long[][] balances = new long[THREADS][1];
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int lane = t;
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    accountLockService.withLock(accounts[lane], () -> balances[lane][0]++);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        for (long[] balance : balances) {
+            assertEquals(ITERATIONS, balance[0]);
+        }
+        assertEquals(0, accountLockService.getContended());
+        assertEquals((long) THREADS * ITERATIONS, accountLockService.getUncontended());
+    }
+
+    @Test
+    @DisplayName("Should let another account through while one account is held")
+    void shouldNotBlockOtherAccounts() throws Exception {
+        String[] accounts = accountsOnDistinctStripes(2);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> accountLockService.withLock(accounts[0], () -> {
+            held.countDown();
+            await(release);
+            return null;
+        }));
+        held.await();
+
+        assertEquals("ok", executor.submit(() -> accountLockService.withLock(accounts[1], () -> "ok")).get(1, TimeUnit.SECONDS));
+        RejectedExecutionException ex = assertThrows(RejectedExecutionException.class,
+                () -> accountLockService.withLock(accounts[0], () -> "blocked"));
+        assertEquals("Conta de origem ocupada, tente novamente", ex.getMessage());
+        assertEquals(1, accountLockService.getTimedOut());
+
+        release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+        assertEquals("free", accountLockService.withLock(accounts[0], () -> "free"));
+    }
+
+    @Test
+    @DisplayName("Should lock several accounts at once without deadlocking")
+    void shouldLockSeveralAccountsInStripeOrder() throws Exception {
+        String[] accounts = accountsOnDistinctStripes(4);
+        long[] total = new long[1];
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Half the workers ask for the accounts in reverse order
+            List<String> wanted = t % 2 == 0
+                    ? List.of(accounts[0], accounts[1], accounts[2], accounts[3])
+                    : List.of(accounts[3], accounts[2], accounts[1], accounts[0]);
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    accountLockService.withLocks(wanted, () -> total[0]++);
+                    accountLockService.withLock(wanted.get(0), () -> total[0]++);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(THREADS * 4_000L, total[0]);
+    }
+
+    @Test
+    @DisplayName("Should hold a transaction's account lock until the transaction completes")
+    void shouldReleaseTransactionLockAfterCompletion() throws Exception {
+        assertThrows(IllegalStateException.class, () -> accountLockService.lockForTransaction("1234567890"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            accountLockService.lockForTransaction("1234567890");
+            assertThrows(RejectedExecutionException.class,
+                    () -> getUnchecked(executor.submit(() -> accountLockService.withLock("1234567890", () -> "blocked"))));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals("free", executor.submit(() -> accountLockService.withLock("1234567890", () -> "free")).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should publish acquisitions by outcome and wait time")
+    void shouldPublishMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        accountLockService.bindTo(registry);
+
+        accountLockService.withLock("1234567890", () -> null);
+
+        assertEquals(1.0, registry.get("transfers.account_lock.acquisitions").tag("result", "uncontended").functionCounter().count());
+        assertEquals(0.0, registry.get("transfers.account_lock.acquisitions").tag("result", "contended").functionCounter().count());
+        assertEquals(0.0, registry.get("transfers.account_lock.wait").functionTimer().count());
+    }
+
+    private String[] accountsOnDistinctStripes(int count) {
+        String[] accounts = new String[count];
+        boolean[] used = new boolean[accountLockService.getStripes()];
+        int found = 0;
+        for (long n = 1_000_000_000L; found < count; n++) {
+            String account = Long.toString(n);
+            int stripe = accountLockService.stripeOf(account);
+            if (!used[stripe]) {
+                used[stripe] = true;
+                accounts[found++] = account;
+            }
+        }
+        return accounts;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Object getUnchecked(Future<?> future) throws Exception {
+        try {
+            return future.get(5, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.ExecutionException ex) {
+            throw (Exception) ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.repository.ExposureRow;
+import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.util.BusinessClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Daily Limit Service Tests")
+class DailyLimitServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private FinancialTransferRepository repository;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private DailyLimitService dailyLimitService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        meterRegistry = new SimpleMeterRegistry();
+        dailyLimitService = new DailyLimitService(repository, new BusinessClock(clock), new AccountLockService(16, 1000), meterRegistry);
+        ReflectionTestUtils.setField(dailyLimitService, "enabled", true);
+        ReflectionTestUtils.setField(dailyLimitService, "dailyAmount", new BigDecimal("1000.00"));
+        // Nothing stored by other instances unless a test says so
+        lenient().when(repository.sumAmountBySourceAccountAndDate(any(), any())).thenReturn(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should load the totals from today on and count them against the limit")
+    void shouldLoadTotalsAtStartup() {
+        when(repository.sumExposureByAccountAndDateFrom(TODAY)).thenReturn(List.of(
+                new ExposureRow("1234567890", TODAY, 2, new BigDecimal("900.00"), new BigDecimal("6.00")),
+                new ExposureRow("1234567890", TODAY.plusDays(1), 1, new BigDecimal("100.00"), new BigDecimal("12.00"))));
+        dailyLimitService.start();
+
+        assertEquals(new BigDecimal("900.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("100.00")));
+        assertFalse(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("0.01")));
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY.plusDays(1), new BigDecimal("900.00")));
+        assertTrue(dailyLimitService.tryReserve("0987654321", TODAY, new BigDecimal("1000.00")));
+
+        assertEquals(3.0, meterRegistry.get("transfers.limits.checks").tag("result", "accepted").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("transfers.limits.checks").tag("result", "rejected").functionCounter().count());
+        // Two committed totals loaded from the table, three reservations still in flight
+        assertEquals(5.0, meterRegistry.get("transfers.limits.entries").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject with the limit in the message and give back released amounts")
+    void shouldRejectAndRelease() {
+        dailyLimitService.start();
+        dailyLimitService.reserve("1234567890", TODAY, new BigDecimal("999.99"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> dailyLimitService.reserve("1234567890", TODAY, new BigDecimal("0.02")));
+        assertEquals("Limite diário de transferências da conta excedido (1000.00)", ex.getMessage());
+
+        dailyLimitService.release("1234567890", TODAY, new BigDecimal("999.99"));
+        assertEquals(new BigDecimal("0.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(0, dailyLimitService.getEntries());
+    }
+
+    @Test
+    @DisplayName("Should release a reservation when its transaction rolls back and keep it on commit")
+    void shouldFollowTransactionOutcome() {
+        dailyLimitService.start();
+
+        reserveInTransaction(new BigDecimal("600.00"), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(new BigDecimal("0.00"), dailyLimitService.getUsed("1234567890", TODAY));
+
+        reserveInTransaction(new BigDecimal("600.00"), TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(new BigDecimal("600.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(1, dailyLimitService.getEntries());
+    }
+
+    @Test
+    @DisplayName("Should count what other instances committed once an account nears the limit")
+    void shouldRecheckTableNearTheLimit() {
+        dailyLimitService.start();
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("700.00")));
+        dailyLimitService.confirm("1234567890", TODAY, new BigDecimal("700.00"));
+        verify(repository, never()).sumAmountBySourceAccountAndDate(any(), any());
+
+        // Another instance committed 200.00 for the same account and date
+        when(repository.sumAmountBySourceAccountAndDate("1234567890", TODAY)).thenReturn(new BigDecimal("900.00"));
+
+        assertFalse(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("200.00")));
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("800.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(1, dailyLimitService.getRechecks());
+        assertEquals(1.0, meterRegistry.get("transfers.limits.rechecks").tag("result", "raised").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should add reservations not committed yet on top of the stored total")
+    void shouldKeepUncommittedReservationsOnRecheck() {
+        dailyLimitService.start();
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("700.00")));
+
+        // The 700.00 is still in flight, so the table only holds what another instance committed
+        when(repository.sumAmountBySourceAccountAndDate("1234567890", TODAY)).thenReturn(new BigDecimal("250.00"));
+
+        assertFalse(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("150.00")));
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("50.00")));
+        assertFalse(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("60.00")));
+
+        assertEquals(new BigDecimal("750.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(2, dailyLimitService.getReconciled());
+    }
+
+    @Test
+    @DisplayName("Should move confirmed reservations to the committed total")
+    void shouldConfirmReservations() {
+        dailyLimitService.start();
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("400.00")));
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("300.00")));
+
+        dailyLimitService.confirm("1234567890", TODAY, new BigDecimal("400.00"));
+        dailyLimitService.release("1234567890", TODAY, new BigDecimal("300.00"));
+
+        assertEquals(new BigDecimal("400.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(1, dailyLimitService.getEntries());
+    }
+
+    @Test
+    @DisplayName("Should never let concurrent reservations past the limit")
+    void shouldHoldLimitUnderConcurrency() throws Exception {
+        dailyLimitService.start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                int accepted = 0;
+                for (int i = 0; i < 2_000; i++) {
+                    if (dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("0.07"))) {
+                        accepted++;
+                    }
+                }
+                return accepted;
+            }));
+        }
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        executor.shutdown();
+
+        assertEquals(100_000 / 7, accepted);
+        assertEquals(new BigDecimal("999.95"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(16_000 - accepted, dailyLimitService.getRejected());
+    }
+
+    @Test
+    @DisplayName("Should drop the totals of past days when the business day rolls over")
+    void shouldDropPastDaysOnRollOver() {
+        dailyLimitService.start();
+        dailyLimitService.reserve("1234567890", TODAY, new BigDecimal("100.00"));
+        dailyLimitService.reserve("1234567890", TODAY.plusDays(1), new BigDecimal("200.00"));
+
+        clock.advance(Duration.ofDays(1));
+        dailyLimitService.reserve("0987654321", TODAY.plusDays(1), new BigDecimal("1.00"));
+
+        assertEquals(new BigDecimal("0.00"), dailyLimitService.getUsed("1234567890", TODAY));
+        assertEquals(new BigDecimal("200.00"), dailyLimitService.getUsed("1234567890", TODAY.plusDays(1)));
+        assertEquals(2, dailyLimitService.getEntries());
+    }
+
+    @Test
+    @DisplayName("Should accept everything when disabled")
+    void shouldAcceptEverythingWhenDisabled() {
+        ReflectionTestUtils.setField(dailyLimitService, "enabled", false);
+        dailyLimitService.start();
+
+        assertTrue(dailyLimitService.tryReserve("1234567890", TODAY, new BigDecimal("1000000.00")));
+        assertEquals(0, dailyLimitService.getEntries());
+    }
+
+    private void reserveInTransaction(BigDecimal amount, int outcome) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dailyLimitService.reserve("1234567890", TODAY, amount);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(outcome);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
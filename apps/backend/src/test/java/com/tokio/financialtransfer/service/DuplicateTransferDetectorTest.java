@@ -0,0 +1,164 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "transfers.duplicates.policy=warn")
+@Import({DuplicateTransferDetector.class, SimpleMeterRegistry.class})
+@ActiveProfiles("test")
+@DisplayName("Duplicate Transfer Detector Tests")
+class DuplicateTransferDetectorTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DuplicateTransferDetector detector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LocalDate transferDate;
+
+    @BeforeEach
+    void setUp() {
+        transferDate = LocalDate.now().plusDays(5);
+        // The detector is shared by every test of this context
+        ReflectionTestUtils.setField(detector, "policy", DuplicateTransferDetector.Policy.WARN);
+        ReflectionTestUtils.setField(detector, "minCapacity", 100000L);
+    }
+
+    @Test
+    @DisplayName("Should find transfers stored before the rebuild and let new ones through without a query")
+    void shouldDetectStoredTransfers() {
+        entityManager.persistAndFlush(transfer("1234567890", "0987654321", "1000.00"));
+        detector.rebuild();
+        long checked = detector.getMisses() + detector.getFalsePositives();
+        long duplicates = detector.getDuplicates();
+
+        assertTrue(detector.check("1234567890", "0987654321", new BigDecimal("1000.0"), transferDate));
+        assertFalse(detector.check("1234567890", "0987654321", new BigDecimal("1000.01"), transferDate));
+        assertFalse(detector.check("1234567890", "1111111111", new BigDecimal("1000.00"), transferDate));
+        assertFalse(detector.check("1234567890", "0987654321", new BigDecimal("1000.00"), transferDate.plusDays(1)));
+
+        assertEquals(duplicates + 1, detector.getDuplicates());
+        assertEquals(checked + 3, detector.getMisses() + detector.getFalsePositives());
+        assertEquals(detector.getDuplicates(),
+                meterRegistry.get("transfers.duplicates.checks").tag("result", "duplicate").functionCounter().count());
+        assertTrue(meterRegistry.get("transfers.duplicates.filter.false_positive_rate").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate when the policy rejects")
+    void shouldRejectDuplicate() {
+        entityManager.persistAndFlush(transfer("1234567890", "0987654321", "1000.00"));
+        detector.rebuild();
+        ReflectionTestUtils.setField(detector, "policy", DuplicateTransferDetector.Policy.REJECT);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> detector.check("1234567890", "0987654321", new BigDecimal("1000.00"), transferDate));
+
+        assertEquals("Transferência duplicada: já existe um agendamento com a mesma origem, destino, valor e data",
+                ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should confirm a filter hit with the table and count it as a false positive when not stored")
+    void shouldCountFalsePositives() {
+        detector.rebuild();
+        long falsePositives = detector.getFalsePositives();
+        long duplicates = detector.getDuplicates();
+        // In the filter but never stored, as when the insert of a recorded transfer is lost
+        FinancialTransfer lost = transfer("1234567890", "0987654321", "1000.00");
+        detector.recordQueued(lost);
+        detector.releaseQueued(List.of(lost));
+
+        assertFalse(detector.check("1234567890", "0987654321", new BigDecimal("1000.00"), transferDate));
+
+        assertEquals(falsePositives + 1, detector.getFalsePositives());
+        assertEquals(duplicates, detector.getDuplicates());
+    }
+
+    @Test
+    @DisplayName("Should find a queued transfer before it commits and forget it once released")
+    void shouldDetectQueuedTransfers() {
+        detector.rebuild();
+        long duplicates = detector.getDuplicates();
+        long falsePositives = detector.getFalsePositives();
+        FinancialTransfer queued = transfer("1234567890", "0987654321", "1000.00");
+
+        detector.recordQueued(queued);
+        assertTrue(detector.check("1234567890", "0987654321", new BigDecimal("1000.00"), transferDate));
+        assertEquals(1, detector.getQueued());
+
+        // The batch failed: nothing was stored, so the lookup clears the filter hit
+        detector.releaseQueued(List.of(queued));
+        assertFalse(detector.check("1234567890", "0987654321", new BigDecimal("1000.00"), transferDate));
+
+        assertEquals(0, detector.getQueued());
+        assertEquals(duplicates + 1, detector.getDuplicates());
+        assertEquals(falsePositives + 1, detector.getFalsePositives());
+    }
+
+    @Test
+    @DisplayName("Should rebuild a bigger filter in the background once it fills up")
+    void shouldRebuildWhenFull() throws InterruptedException {
+        ReflectionTestUtils.setField(detector, "minCapacity", 100L);
+        detector.rebuild();
+        long rebuilds = detector.getRebuilds();
+
+        List<FinancialTransfer> transfers = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            transfers.add(transfer("1234567890", String.format("%010d", i), "1000.00"));
+        }
+        transfers.forEach(detector::recordQueued);
+        detector.releaseQueued(transfers);
+
+        AtomicBoolean rebuilding = (AtomicBoolean) ReflectionTestUtils.getField(detector, "rebuilding");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((detector.getRebuilds() == rebuilds || rebuilding.get()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(detector.getRebuilds() > rebuilds);
+        assertTrue(detector.getExpectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    @DisplayName("Should not check anything when the policy is off")
+    void shouldSkipWhenOff() {
+        ReflectionTestUtils.setField(detector, "policy", DuplicateTransferDetector.Policy.OFF);
+        long misses = detector.getMisses();
+
+        assertFalse(detector.check("1234567890", "0987654321", new BigDecimal("1000.00"), transferDate));
+        assertEquals(misses, detector.getMisses());
+    }
+
+    private FinancialTransfer transfer(String sourceAccount, String destinationAccount, String amount) {
+        return FinancialTransfer.builder()
+                .sourceAccount(sourceAccount)
+                .destinationAccount(destinationAccount)
+                .transferAmount(new BigDecimal(amount))
+                .fee(new BigDecimal("12.00"))
+                .transferDate(transferDate)
+                .build();
+    }
+}
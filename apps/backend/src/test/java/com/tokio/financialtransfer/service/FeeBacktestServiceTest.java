@@ -0,0 +1,156 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.FeeBacktestBandDTO;
+import com.tokio.financialtransfer.dto.FeeBacktestReportDTO;
+import com.tokio.financialtransfer.dto.FeeRuleDTO;
+import com.tokio.financialtransfer.model.FeeSchedule;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(FeeBacktestService.class)
+@ActiveProfiles("test")
+@DisplayName("Fee Backtest Service Tests")
+class FeeBacktestServiceTest {
+
+    private static final LocalDateTime SCHEDULED_AT = LocalDateTime.of(2024, 8, 1, 15, 30);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FeeBacktestService feeBacktestService;
+
+    private final List<FeeRuleDTO> defaultRules = Arrays.asList(
+            new FeeRuleDTO(0, 0, "same_day", new BigDecimal("3.00"), new BigDecimal("0.025")),
+            new FeeRuleDTO(1, 10, "1_to_10_days", new BigDecimal("12.00"), null),
+            new FeeRuleDTO(11, 20, "11_to_20_days", null, new BigDecimal("0.082")),
+            new FeeRuleDTO(21, 30, "21_to_30_days", null, new BigDecimal("0.069")),
+            new FeeRuleDTO(31, 40, "31_to_40_days", null, new BigDecimal("0.047")),
+            new FeeRuleDTO(41, 50, "41_to_50_days", null, new BigDecimal("0.017"))
+    );
+
+    @Test
+    @DisplayName("Should report the delta per band at the original day offset")
+    void shouldReportDeltaPerBandAtOriginalOffset() {
+        persistTransfer("1000.00", "28.00", 0);
+        persistTransfer("1000.00", "12.00", 5);
+        persistTransfer("500.00", "12.00", 10);
+        persistTransfer("1000.00", "82.00", 15);
+
+        List<FeeRuleDTO> candidate = Arrays.asList(
+                new FeeRuleDTO(0, 0, "same_day", new BigDecimal("3.00"), new BigDecimal("0.025")),
+                new FeeRuleDTO(1, 10, "1_to_10_days", new BigDecimal("15.00"), null),
+                new FeeRuleDTO(11, 50, "11_to_50_days", null, new BigDecimal("0.05")));
+
+        FeeBacktestReportDTO report = feeBacktestService.backtest(candidate);
+
+        assertEquals(4, report.getTransfersAnalyzed());
+        assertEquals(0, report.getUnpricedTransfers());
+        assertEquals(3, report.getBands().size());
+
+        FeeBacktestBandDTO fixedBand = report.getBands().get(1);
+        assertEquals("1_to_10_days", fixedBand.getType());
+        assertEquals(2, fixedBand.getTransfers());
+        assertEquals(new BigDecimal("24.00"), fixedBand.getOriginalFees());
+        assertEquals(new BigDecimal("30.00"), fixedBand.getCandidateFees());
+        assertEquals(new BigDecimal("6.00"), fixedBand.getDelta());
+
+        FeeBacktestBandDTO percentageBand = report.getBands().get(2);
+        assertEquals(1, percentageBand.getTransfers());
+        assertEquals(new BigDecimal("50.00"), percentageBand.getCandidateFees());
+        assertEquals(new BigDecimal("-32.00"), percentageBand.getDelta());
+
+        assertEquals(new BigDecimal("134.00"), report.getTotalOriginalFees());
+        assertEquals(new BigDecimal("108.00"), report.getTotalCandidateFees());
+        assertEquals(new BigDecimal("-26.00"), report.getTotalDelta());
+    }
+
+    @Test
+    @DisplayName("Should count transfers outside the candidate schedule as unpriced")
+    void shouldCountTransfersOutsideCandidateAsUnpriced() {
+        persistTransfer("1000.00", "28.00", 0);
+        persistTransfer("1000.00", "17.00", 45);
+
+        List<FeeRuleDTO> candidate = Arrays.asList(
+                new FeeRuleDTO(0, 30, "up_to_30_days", new BigDecimal("10.00"), null));
+
+        FeeBacktestReportDTO report = feeBacktestService.backtest(candidate);
+
+        assertEquals(2, report.getTransfersAnalyzed());
+        assertEquals(1, report.getUnpricedTransfers());
+        assertEquals(new BigDecimal("17.00"), report.getUnpricedOriginalFees());
+        assertEquals(new BigDecimal("28.00"), report.getTotalOriginalFees());
+        assertEquals(new BigDecimal("10.00"), report.getTotalCandidateFees());
+    }
+
+    @Test
+    @DisplayName("Should report no delta when re-pricing across many chunks with the schedule that produced the fees")
+    void shouldReportNoDeltaWithSameScheduleAcrossChunks() {
+        ReflectionTestUtils.setField(feeBacktestService, "chunkSize", 7);
+        FeeSchedule schedule = FeeSchedule.compile(FeeScheduleRegistry.toRules(defaultRules));
+        SplittableRandom random = new SplittableRandom(2024L);
+
+        for (int i = 0; i < 100; i++) {
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextLong(10_000_000), 2);
+            int dayOffset = random.nextInt(51);
+            BigDecimal fee = schedule.ruleFor(dayOffset).calculate(amount);
+            persistTransfer(amount.toPlainString(), fee.toPlainString(), dayOffset);
+        }
+
+        FeeBacktestReportDTO report = feeBacktestService.backtest(defaultRules);
+
+        assertEquals(100, report.getTransfersAnalyzed());
+        assertEquals(100, report.getBands().stream().mapToLong(FeeBacktestBandDTO::getTransfers).sum());
+        assertEquals(0, report.getTotalDelta().signum());
+        report.getBands().forEach(band -> assertEquals(0, band.getDelta().signum(), band.getType()));
+    }
+
+    @Test
+    @DisplayName("Should return an empty report when there are no transfers")
+    void shouldReturnEmptyReportWhenThereAreNoTransfers() {
+        FeeBacktestReportDTO report = feeBacktestService.backtest(defaultRules);
+
+        assertEquals(0, report.getTransfersAnalyzed());
+        assertEquals(6, report.getBands().size());
+        assertEquals(0, report.getTotalDelta().signum());
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid candidate schedule")
+    void shouldRejectInvalidCandidateSchedule() {
+        List<FeeRuleDTO> candidate = Arrays.asList(
+                new FeeRuleDTO(0, 10, "a", new BigDecimal("1.00"), null),
+                new FeeRuleDTO(5, 20, "b", new BigDecimal("2.00"), null));
+
+        assertThrows(IllegalArgumentException.class, () -> feeBacktestService.backtest(candidate));
+    }
+
+    private void persistTransfer(String amount, String fee, int dayOffset) {
+        entityManager.persist(FinancialTransfer.builder()
+                .sourceAccount("1234567890")
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal(amount))
+                .fee(new BigDecimal(fee))
+                .transferDate(SCHEDULED_AT.toLocalDate().plusDays(dayOffset))
+                .scheduleDate(SCHEDULED_AT)
+                .build());
+        entityManager.flush();
+    }
+}
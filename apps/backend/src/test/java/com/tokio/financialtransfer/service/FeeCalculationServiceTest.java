@@ -1,13 +1,24 @@
 package com.tokio.financialtransfer.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.FeeBatchResponseDTO;
+import com.tokio.financialtransfer.dto.FeeCalendarResponseDTO;
+import com.tokio.financialtransfer.dto.FeeCalculationRequestDTO;
+import com.tokio.financialtransfer.dto.FeeRuleDTO;
+import com.tokio.financialtransfer.util.BusinessClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,11 +26,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("Fee Calculation Service Tests")
 class FeeCalculationServiceTest {
 
+    private FeeScheduleRegistry feeScheduleRegistry;
     private FeeCalculationService feeCalculationService;
 
     @BeforeEach
     void setUp() {
-        feeCalculationService = new FeeCalculationService();
+        feeScheduleRegistry = new FeeScheduleRegistry(
+                new ObjectMapper(), new DefaultResourceLoader(), "classpath:fee-schedule.json");
+        feeScheduleRegistry.init();
+        feeCalculationService = new FeeCalculationService(feeScheduleRegistry, new BusinessClock(""), FeeQuoteCache.disabled());
     }
 
     @Test
@@ -179,4 +194,135 @@ class FeeCalculationServiceTest {
         // Total: 3.00
         assertEquals(0, fee.compareTo(new BigDecimal("3.00")));
     }
+
+    @Test
+    @DisplayName("Should calculate batch fees in request order")
+    void shouldCalculateBatchFeesInRequestOrder() {
+        List<FeeCalculationRequestDTO> items = Arrays.asList(
+                feeRequest("1000.00", LocalDate.now()),
+                feeRequest("1000.00", LocalDate.now().plusDays(5)),
+                feeRequest("1000.00", LocalDate.now().plusDays(15))
+        );
+
+        // When
+        FeeBatchResponseDTO response = feeCalculationService.calculateFeeBatch(items);
+
+        // Then
+        assertEquals(3, response.getFees().size());
+        assertEquals(0, response.getFees().get(0).compareTo(new BigDecimal("28.00")));
+        assertEquals(0, response.getFees().get(1).compareTo(new BigDecimal("12.00")));
+        assertEquals(0, response.getFees().get(2).compareTo(new BigDecimal("82.00")));
+        assertTrue(response.getErrors().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report invalid batch items without failing the others")
+    void shouldReportInvalidBatchItemsWithoutFailingOthers() {
+        List<FeeCalculationRequestDTO> items = Arrays.asList(
+                feeRequest("1000.00", LocalDate.now().plusDays(5)),
+                feeRequest("1000.00", LocalDate.now().plusDays(51)),
+                feeRequest("0.00", LocalDate.now()),
+                feeRequest("1000.00", LocalDate.now().minusDays(1)),
+                feeRequest(null, LocalDate.now()),
+                null
+        );
+
+        // When
+        FeeBatchResponseDTO response = feeCalculationService.calculateFeeBatch(items);
+
+        // Then
+        assertEquals(0, response.getFees().get(0).compareTo(new BigDecimal("12.00")));
+        for (int i = 1; i < items.size(); i++) {
+            assertNull(response.getFees().get(i));
+        }
+        assertEquals(5, response.getErrors().size());
+        assertEquals(1, response.getErrors().get(0).getIndex());
+        assertEquals("Não há taxa aplicável para transferências com mais de 50 dias", response.getErrors().get(0).getMessage());
+        assertEquals("Valor deve ser maior que zero", response.getErrors().get(1).getMessage());
+        assertEquals("Data de transferência não pode ser anterior à data atual", response.getErrors().get(2).getMessage());
+        assertEquals("Valor da transferência é obrigatório", response.getErrors().get(3).getMessage());
+        assertEquals(5, response.getErrors().get(4).getIndex());
+    }
+
+    @Test
+    @DisplayName("Should produce the same batch result when processed in parallel")
+    void shouldProduceSameBatchResultWhenProcessedInParallel() {
+        List<FeeCalculationRequestDTO> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            items.add(feeRequest(BigDecimal.valueOf(i + 1, 2).toPlainString(), LocalDate.now().plusDays(i % 60)));
+        }
+
+        FeeBatchResponseDTO sequential = feeCalculationService.calculateFeeBatch(items);
+        ReflectionTestUtils.setField(feeCalculationService, "batchParallelThreshold", 1);
+        FeeBatchResponseDTO parallel = feeCalculationService.calculateFeeBatch(items);
+
+        assertEquals(sequential, parallel);
+        for (int i = 0; i < items.size(); i++) {
+            if (sequential.getFees().get(i) != null) {
+                FeeCalculationRequestDTO item = items.get(i);
+                assertEquals(feeCalculationService.calculateFee(item.getTransferAmount(), item.getTransferDate()), parallel.getFees().get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should calculate the fee calendar for every day of the schedule")
+    void shouldCalculateFeeCalendarForEveryDay() {
+        BigDecimal transferAmount = new BigDecimal("1000.00");
+
+        // When
+        FeeCalendarResponseDTO calendar = feeCalculationService.calculateFeeCalendar(transferAmount);
+
+        // Then
+        assertEquals(LocalDate.now(), calendar.getStartDate());
+        assertEquals(51, calendar.getFees().size());
+        for (int day = 0; day <= 50; day++) {
+            BigDecimal expected = feeCalculationService.calculateFee(transferAmount, calendar.getStartDate().plusDays(day));
+            assertEquals(expected, calendar.getFees().get(day), "day " + day);
+        }
+    }
+
+    @Test
+    @DisplayName("Should calculate day offsets from the business clock")
+    void shouldCalculateDayOffsetsFromBusinessClock() {
+        LocalDate pinnedToday = LocalDate.of(2024, 8, 30);
+        FeeCalculationService pinnedService = new FeeCalculationService(feeScheduleRegistry, BusinessClock.fixed(pinnedToday), FeeQuoteCache.disabled());
+        BigDecimal transferAmount = new BigDecimal("1000.00");
+
+        assertEquals(0, pinnedService.calculateFee(transferAmount, pinnedToday).compareTo(new BigDecimal("28.00")));
+        assertEquals(0, pinnedService.calculateFee(transferAmount, pinnedToday.plusDays(10)).compareTo(new BigDecimal("12.00")));
+        assertEquals(0, pinnedService.calculateFee(transferAmount, pinnedToday.plusDays(11)).compareTo(new BigDecimal("82.00")));
+        assertThrows(IllegalArgumentException.class, () -> pinnedService.calculateFee(transferAmount, pinnedToday.plusDays(51)));
+
+        FeeCalendarResponseDTO calendar = pinnedService.calculateFeeCalendar(transferAmount);
+        assertEquals(pinnedToday, calendar.getStartDate());
+        assertEquals(pinnedToday.plusDays(1), calendar.getValidUntil().toLocalDate());
+    }
+
+    @Test
+    @DisplayName("Should not serve cached quotes after the fee schedule changes")
+    void shouldNotServeCachedQuotesAfterScheduleChange() {
+        FeeQuoteCache feeQuoteCache = new FeeQuoteCache(true, 1024);
+        FeeCalculationService cachedService = new FeeCalculationService(feeScheduleRegistry, new BusinessClock(""), feeQuoteCache);
+        BigDecimal transferAmount = new BigDecimal("1000.00");
+        LocalDate transferDate = LocalDate.now().plusDays(5);
+
+        assertEquals(0, cachedService.calculateFee(transferAmount, transferDate).compareTo(new BigDecimal("12.00")));
+        assertEquals(0, cachedService.calculateFee(transferAmount, transferDate).compareTo(new BigDecimal("12.00")));
+        assertEquals(1, feeQuoteCache.getHits());
+
+        List<FeeRuleDTO> rules = new ArrayList<>(feeScheduleRegistry.describe().getRules());
+        rules.set(1, new FeeRuleDTO(1, 10, "1_to_10_days", new BigDecimal("15.00"), null));
+        feeScheduleRegistry.publish(rules);
+
+        assertEquals(0, cachedService.calculateFee(transferAmount, transferDate).compareTo(new BigDecimal("15.00")));
+        assertEquals(1, feeQuoteCache.getHits());
+    }
+
+    private static FeeCalculationRequestDTO feeRequest(String amount, LocalDate transferDate) {
+        FeeCalculationRequestDTO request = new FeeCalculationRequestDTO();
+        request.setTransferAmount(amount == null ? null : new BigDecimal(amount));
+        request.setTransferDate(transferDate);
+        return request;
+    }
 }
@@ -0,0 +1,171 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.CompiledFeeRule;
+import com.tokio.financialtransfer.model.FeeRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fee Quote Cache Tests")
+class FeeQuoteCacheTest {
+
+    private static final long TODAY = 19_965;
+
+    private final CompiledFeeRule sameDay = new CompiledFeeRule(
+            new FeeRule(0, 0, "same_day", new BigDecimal("3.00"), new BigDecimal("0.025")));
+    private final CompiledFeeRule elevenToTwenty = new CompiledFeeRule(
+            new FeeRule(11, 20, "11_to_20_days", null, new BigDecimal("0.082")));
+
+    @Test
+    @DisplayName("Should serve a repeated quote from the cache")
+    void shouldServeRepeatedQuoteFromCache() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 64);
+        BigDecimal amount = new BigDecimal("1000.00");
+
+        BigDecimal first = cache.feeFor(amount, sameDay, TODAY, 1);
+        BigDecimal second = cache.feeFor(new BigDecimal("1000"), sameDay, TODAY, 1);
+
+        assertEquals(new BigDecimal("28.00"), first);
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Should keep quotes for different bands apart")
+    void shouldKeepQuotesForDifferentBandsApart() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 64);
+        BigDecimal amount = new BigDecimal("1000.00");
+
+        assertEquals(new BigDecimal("28.00"), cache.feeFor(amount, sameDay, TODAY, 1));
+        assertEquals(new BigDecimal("82.00"), cache.feeFor(amount, elevenToTwenty, TODAY, 1));
+        assertEquals(new BigDecimal("28.00"), cache.feeFor(amount, sameDay, TODAY, 1));
+    }
+
+    @Test
+    @DisplayName("Should clear the cache at day rollover and on schedule change")
+    void shouldClearCacheOnDayRolloverAndScheduleChange() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 64);
+        BigDecimal amount = new BigDecimal("1000.00");
+
+        cache.feeFor(amount, sameDay, TODAY, 1);
+        cache.feeFor(amount, sameDay, TODAY + 1, 1);
+        cache.feeFor(amount, sameDay, TODAY + 1, 2);
+
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, cache.getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Should not let a quote under an older schedule use or replace the current table")
+    void shouldBypassCacheForOlderSchedule() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 64);
+        BigDecimal amount = new BigDecimal("1000.00");
+        CompiledFeeRule repriced = new CompiledFeeRule(
+                new FeeRule(0, 0, "same_day", new BigDecimal("5.00"), new BigDecimal("0.025")));
+
+        assertEquals(new BigDecimal("30.00"), cache.feeFor(amount, repriced, TODAY, 2));
+        assertEquals(new BigDecimal("28.00"), cache.feeFor(amount, sameDay, TODAY, 1));
+        assertEquals(new BigDecimal("28.00"), cache.feeFor(amount, sameDay, TODAY - 1, 2));
+        assertEquals(new BigDecimal("30.00"), cache.feeFor(amount, repriced, TODAY, 2));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Should stay bounded and count evictions")
+    void shouldStayBoundedAndCountEvictions() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 3);
+        assertEquals(4, cache.getCapacity());
+
+        for (int cents = 1; cents <= 100; cents++) {
+            cache.feeFor(BigDecimal.valueOf(cents, 2), elevenToTwenty, TODAY, 1);
+        }
+
+        assertEquals(100, cache.getMisses());
+        assertTrue(cache.getEvictions() >= 96, "at most 4 slots can be filled without evicting");
+    }
+
+    @Test
+    @DisplayName("Should match the rule for random amounts, including those outside the cents path")
+    void shouldMatchRuleForRandomAmounts() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 256);
+        SplittableRandom random = new SplittableRandom(42L);
+
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1_000), 2);
+            assertEquals(sameDay.calculate(amount), cache.feeFor(amount, sameDay, TODAY, 1));
+        }
+        BigDecimal threeDecimals = new BigDecimal("123.455");
+        assertEquals(sameDay.calculate(threeDecimals), cache.feeFor(threeDecimals, sameDay, TODAY, 1));
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    @DisplayName("Should return correct quotes under concurrent access")
+    void shouldReturnCorrectQuotesUnderConcurrentAccess() throws Exception {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int i = 0; i < 50_000; i++) {
+                        BigDecimal amount = BigDecimal.valueOf(random.nextLong(64), 2);
+                        CompiledFeeRule rule = random.nextBoolean() ? sameDay : elevenToTwenty;
+                        long version = 1 + random.nextInt(2);
+                        assertEquals(rule.calculate(amount), cache.feeFor(amount, rule, TODAY, version));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute every quote and register no meters when disabled")
+    void shouldComputeEveryQuoteWhenDisabled() {
+        FeeQuoteCache cache = FeeQuoteCache.disabled();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        assertEquals(new BigDecimal("28.00"), cache.feeFor(new BigDecimal("1000.00"), sameDay, TODAY, 1));
+        assertEquals(new BigDecimal("28.00"), cache.feeFor(new BigDecimal("1000.00"), sameDay, TODAY, 1));
+        assertEquals(0, cache.getHits() + cache.getMisses());
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should publish hit, miss and eviction counters")
+    void shouldPublishCounters() {
+        FeeQuoteCache cache = new FeeQuoteCache(true, 64);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.feeFor(new BigDecimal("1000.00"), sameDay, TODAY, 1);
+        cache.feeFor(new BigDecimal("1000.00"), sameDay, TODAY, 1);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "feeQuotes").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "feeQuotes").tag("result", "miss").functionCounter().count());
+        assertEquals(0.0, registry.get("cache.evictions").tag("cache", "feeQuotes").functionCounter().count());
+        assertEquals(64.0, registry.get("cache.capacity").gauge().value());
+    }
+}
@@ -0,0 +1,106 @@
+package com.tokio.financialtransfer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.dto.FeeRuleDTO;
+import com.tokio.financialtransfer.model.FeeSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fee Schedule Registry Tests")
+class FeeScheduleRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path scheduleFile;
+    private FeeScheduleRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scheduleFile = tempDir.resolve("fee-schedule.json");
+        writeSchedule("{\"rules\":[{\"minDays\":0,\"maxDays\":10,\"type\":\"flat\",\"fixedFee\":5.00}]}");
+
+        registry = new FeeScheduleRegistry(new ObjectMapper(), new DefaultResourceLoader(), scheduleFile.toUri().toString());
+        registry.init();
+    }
+
+    @Test
+    @DisplayName("Should load the schedule from its location on startup")
+    void shouldLoadScheduleOnStartup() {
+        FeeSchedule schedule = registry.current();
+
+        assertEquals(1, schedule.getVersion());
+        assertEquals(10, schedule.getMaxDays());
+        assertEquals("flat", schedule.ruleFor(3).getType());
+    }
+
+    @Test
+    @DisplayName("Should load the default classpath schedule")
+    void shouldLoadDefaultClasspathSchedule() {
+        FeeScheduleRegistry defaultRegistry = new FeeScheduleRegistry(
+                new ObjectMapper(), new DefaultResourceLoader(), "classpath:fee-schedule.json");
+        defaultRegistry.init();
+
+        assertEquals(50, defaultRegistry.current().getMaxDays());
+        assertEquals(6, defaultRegistry.current().getRules().size());
+    }
+
+    @Test
+    @DisplayName("Should publish a new version on reload")
+    void shouldPublishNewVersionOnReload() throws IOException {
+        FeeSchedule previous = registry.current();
+        writeSchedule("{\"rules\":[{\"minDays\":0,\"maxDays\":0,\"type\":\"today\",\"fixedFee\":1.00},"
+                + "{\"minDays\":1,\"maxDays\":20,\"type\":\"later\",\"percentageFee\":0.01}]}");
+
+        // When
+        FeeSchedule reloaded = registry.reload();
+
+        // Then
+        assertSame(reloaded, registry.current());
+        assertEquals(2, reloaded.getVersion());
+        assertEquals(20, reloaded.getMaxDays());
+        // The previous snapshot is immutable and still usable by in-flight quotes
+        assertEquals("flat", previous.ruleFor(3).getType());
+    }
+
+    @Test
+    @DisplayName("Should keep the current schedule when the new one is invalid")
+    void shouldKeepCurrentScheduleWhenNewOneIsInvalid() throws IOException {
+        FeeSchedule previous = registry.current();
+        writeSchedule("{\"rules\":[{\"minDays\":0,\"maxDays\":5,\"type\":\"a\",\"fixedFee\":1.00},"
+                + "{\"minDays\":4,\"maxDays\":9,\"type\":\"b\",\"fixedFee\":2.00}]}");
+
+        assertThrows(IllegalArgumentException.class, () -> registry.reload());
+        assertSame(previous, registry.current());
+
+        writeSchedule("not json");
+        assertThrows(IllegalArgumentException.class, () -> registry.reload());
+        assertSame(previous, registry.current());
+    }
+
+    @Test
+    @DisplayName("Should publish rules given directly")
+    void shouldPublishRulesGivenDirectly() {
+        FeeSchedule published = registry.publish(Arrays.asList(
+                new FeeRuleDTO(0, 2, "short", new BigDecimal("1.00"), null)));
+
+        assertEquals(2, published.getVersion());
+        assertEquals(2, registry.describe().getVersion());
+        assertEquals("short", registry.describe().getRules().get(0).getType());
+    }
+
+    private void writeSchedule(String json) throws IOException {
+        Files.writeString(scheduleFile, json);
+    }
+}
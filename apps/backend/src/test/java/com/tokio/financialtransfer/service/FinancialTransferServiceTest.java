@@ -1,25 +1,39 @@
 package com.tokio.financialtransfer.service;
 
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.FeeBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferPageDTO;
 import com.tokio.financialtransfer.dto.TransferRequestDTO;
 import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.dto.TransferSearchCriteria;
 import com.tokio.financialtransfer.model.FinancialTransfer;
 import com.tokio.financialtransfer.repository.FinancialTransferRepository;
+import com.tokio.financialtransfer.repository.TransferBatchWriter;
+import com.tokio.financialtransfer.util.TransferCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +47,24 @@ class FinancialTransferServiceTest {
     @Mock
     private FeeCalculationService feeCalculationService;
 
+    @Mock
+    private TransferBatchWriter transferBatchWriter;
+
+    @Mock
+    private AccountExposureService accountExposureService;
+
+    @Spy
+    private AccountLockService accountLockService = new AccountLockService(16, 1000);
+
+    @Mock
+    private DailyLimitService dailyLimitService;
+
+    @Mock
+    private TransferAnomalyScorer transferAnomalyScorer;
+
+    @Mock
+    private DuplicateTransferDetector duplicateTransferDetector;
+
     @InjectMocks
     private FinancialTransferService financialTransferService;
 
@@ -41,6 +73,10 @@ class FinancialTransferServiceTest {
 
     @BeforeEach
     void setUp() {
+        // No transaction in a unit test; the lock itself is covered by AccountLockServiceTest
+        lenient().doNothing().when(accountLockService).lockForTransaction(any());
+        lenient().when(dailyLimitService.tryReserve(any(), any(), any())).thenReturn(true);
+
         validTransferRequest = new TransferRequestDTO();
         validTransferRequest.setSourceAccount("1234567890");
         validTransferRequest.setDestinationAccount("0987654321");
@@ -81,6 +117,7 @@ class FinancialTransferServiceTest {
         assertNotNull(result.getScheduleDate());
 
         // Verify interactions
+        verify(accountLockService).lockForTransaction("1234567890");
         verify(feeCalculationService).calculateFee(eq(validTransferRequest.getTransferAmount()), eq(validTransferRequest.getTransferDate()));
         verify(repository).save(any(FinancialTransfer.class));
     }
@@ -106,24 +143,19 @@ class FinancialTransferServiceTest {
             assertEquals(validTransferRequest.getTransferDate(), transfer.getTransferDate());
             return true;
         }));
+        verify(accountExposureService).record(savedTransfer);
     }
 
     @Test
     @DisplayName("Should get all transfers successfully")
     void shouldGetAllTransfersSuccessfully() {
          
-        FinancialTransfer transfer2 = FinancialTransfer.builder()
-                .id(2L)
-                .sourceAccount("1111111111")
-                .destinationAccount("2222222222")
-                .transferAmount(new BigDecimal("500.00"))
-                .fee(new BigDecimal("6.00"))
-                .transferDate(LocalDate.now().plusDays(3))
-                .scheduleDate(LocalDateTime.now().minusHours(1))
-                .build();
+        TransferResponseDTO transfer1 = new TransferResponseDTO(1L, "1234567890", "0987654321",
+                new BigDecimal("1000.00"), new BigDecimal("12.00"), LocalDate.now().plusDays(5), LocalDateTime.now());
+        TransferResponseDTO transfer2 = new TransferResponseDTO(2L, "1111111111", "2222222222",
+                new BigDecimal("500.00"), new BigDecimal("6.00"), LocalDate.now().plusDays(3), LocalDateTime.now().minusHours(1));
 
-        List<FinancialTransfer> transfers = Arrays.asList(savedTransfer, transfer2);
-        when(repository.findAllOrderByScheduleDateDesc()).thenReturn(transfers);
+        when(repository.findAllResponsesOrderByScheduleDateDesc()).thenReturn(Arrays.asList(transfer1, transfer2));
 
         // When
         List<TransferResponseDTO> result = financialTransferService.getAllTransfers();
@@ -140,14 +172,15 @@ class FinancialTransferServiceTest {
         assertEquals(2L, secondTransfer.getId());
         assertEquals("1111111111", secondTransfer.getSourceAccount());
 
-        verify(repository).findAllOrderByScheduleDateDesc();
+        verify(repository).findAllResponsesOrderByScheduleDateDesc();
+        verify(repository, never()).findAllOrderByScheduleDateDesc();
     }
 
     @Test
     @DisplayName("Should return empty list when no transfers exist")
     void shouldReturnEmptyListWhenNoTransfersExist() {
          
-        when(repository.findAllOrderByScheduleDateDesc()).thenReturn(Arrays.asList());
+        when(repository.findAllResponsesOrderByScheduleDateDesc()).thenReturn(Arrays.asList());
 
         // When
         List<TransferResponseDTO> result = financialTransferService.getAllTransfers();
@@ -155,7 +188,101 @@ class FinancialTransferServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(0, result.size());
-        verify(repository).findAllOrderByScheduleDateDesc();
+        verify(repository).findAllResponsesOrderByScheduleDateDesc();
+    }
+
+    @Test
+    @DisplayName("Should return a page with a cursor to the next one")
+    void shouldReturnPageWithNextCursor() {
+        TransferResponseDTO transfer1 = new TransferResponseDTO(1L, "1234567890", "0987654321",
+                new BigDecimal("1000.00"), new BigDecimal("12.00"), LocalDate.now().plusDays(5), savedTransfer.getScheduleDate());
+        TransferResponseDTO transfer2 = new TransferResponseDTO(2L, "1111111111", "2222222222",
+                new BigDecimal("500.00"), new BigDecimal("6.00"), LocalDate.now().plusDays(3), LocalDateTime.of(2024, 8, 30, 10, 15));
+        when(repository.findFirstPage(PageRequest.of(0, 2))).thenReturn(Arrays.asList(transfer1, transfer2));
+
+        // When
+        TransferPageDTO page = financialTransferService.getTransfersPage(1, null);
+
+        // Then
+        assertEquals(1, page.getTransfers().size());
+        assertEquals(1L, page.getTransfers().get(0).getId());
+        TransferCursor cursor = TransferCursor.decode(page.getNextCursor());
+        assertEquals(savedTransfer.getScheduleDate(), cursor.getScheduleDate());
+        assertEquals(1L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor and stop on the last page")
+    void shouldContinueAfterCursorAndStopOnLastPage() {
+        LocalDateTime scheduleDate = LocalDateTime.of(2024, 8, 30, 10, 15, 30, 123_456_000);
+        String cursor = new TransferCursor(scheduleDate, 7L).encode();
+        TransferResponseDTO transfer = new TransferResponseDTO(1L, "1234567890", "0987654321",
+                new BigDecimal("1000.00"), new BigDecimal("12.00"), LocalDate.now().plusDays(5), scheduleDate.minusHours(1));
+        when(repository.findPageAfter(scheduleDate, 7L, PageRequest.of(0, 11))).thenReturn(Arrays.asList(transfer));
+
+        // When
+        TransferPageDTO page = financialTransferService.getTransfersPage(10, cursor);
+
+        // Then
+        assertEquals(1, page.getTransfers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should cap the page size")
+    void shouldCapPageSize() {
+        when(repository.findFirstPage(PageRequest.of(0, 501))).thenReturn(Arrays.asList());
+
+        TransferPageDTO page = financialTransferService.getTransfersPage(100_000, null);
+
+        assertTrue(page.getTransfers().isEmpty());
+        verify(repository).findFirstPage(PageRequest.of(0, 501));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was not issued by the listing")
+    void shouldRejectInvalidCursor() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> financialTransferService.getTransfersPage(10, "not-a-cursor"));
+
+        assertEquals("Cursor inválido", exception.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Should search with one extra row and return the next cursor")
+    void shouldSearchWithNextCursor() {
+        TransferSearchCriteria criteria = TransferSearchCriteria.builder().sourceAccount("1234567890").build();
+        LocalDateTime scheduleDate = LocalDateTime.of(2030, 1, 1, 10, 0);
+        TransferResponseDTO first = new TransferResponseDTO(2L, "1234567890", "0987654321",
+                new BigDecimal("1000.00"), new BigDecimal("12.00"), LocalDate.of(2030, 1, 5), scheduleDate);
+        TransferResponseDTO second = new TransferResponseDTO(1L, "1234567890", "0987654321",
+                new BigDecimal("500.00"), new BigDecimal("6.00"), LocalDate.of(2030, 1, 5), scheduleDate);
+        when(repository.search(criteria, null, 2)).thenReturn(Arrays.asList(first, second));
+
+        TransferPageDTO page = financialTransferService.searchTransfers(criteria, 1, null);
+
+        assertEquals(Arrays.asList(first), page.getTransfers());
+        assertEquals(new TransferCursor(scheduleDate, 2L).encode(), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject inverted search ranges")
+    void shouldRejectInvertedSearchRanges() {
+        TransferSearchCriteria dates = TransferSearchCriteria.builder()
+                .transferDateFrom(LocalDate.now().plusDays(2))
+                .transferDateTo(LocalDate.now())
+                .build();
+        TransferSearchCriteria amounts = TransferSearchCriteria.builder()
+                .amountMin(new BigDecimal("10.00"))
+                .amountMax(new BigDecimal("9.99"))
+                .build();
+
+        assertEquals("Data inicial deve ser anterior ou igual à data final",
+                assertThrows(IllegalArgumentException.class, () -> financialTransferService.searchTransfers(dates, null, null)).getMessage());
+        assertEquals("Valor mínimo deve ser menor ou igual ao valor máximo",
+                assertThrows(IllegalArgumentException.class, () -> financialTransferService.searchTransfers(amounts, null, null)).getMessage());
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -226,4 +353,206 @@ class FinancialTransferServiceTest {
         assertEquals(savedTransfer.getTransferDate(), result.getTransferDate());
         assertEquals(savedTransfer.getScheduleDate(), result.getScheduleDate());
     }
+
+    @Test
+    @DisplayName("Should insert valid batch items and report invalid ones by index")
+    @SuppressWarnings("unchecked")
+    void shouldInsertValidBatchItemsAndReportInvalidOnes() {
+        TransferRequestDTO invalidAccount = new TransferRequestDTO();
+        invalidAccount.setSourceAccount("12345");
+        invalidAccount.setDestinationAccount("0987654321");
+        invalidAccount.setTransferAmount(new BigDecimal("100.00"));
+        invalidAccount.setTransferDate(LocalDate.now());
+
+        TransferRequestDTO noFee = new TransferRequestDTO();
+        noFee.setSourceAccount("1234567890");
+        noFee.setDestinationAccount("0987654321");
+        noFee.setTransferAmount(new BigDecimal("100.00"));
+        noFee.setTransferDate(LocalDate.now().plusDays(60));
+
+        List<TransferRequestDTO> requests = Arrays.asList(validTransferRequest, invalidAccount, noFee, validTransferRequest);
+        when(feeCalculationService.calculateFeeBatch(requests)).thenReturn(new FeeBatchResponseDTO(
+                Arrays.asList(new BigDecimal("12.00"), new BigDecimal("3.00"), null, new BigDecimal("12.00")),
+                Collections.singletonList(new BatchItemErrorDTO(2, "Não há taxa aplicável para transferências com mais de 50 dias"))));
+        doAnswer(invocation -> {
+            List<FinancialTransfer> transfers = invocation.getArgument(0);
+            for (int i = 0; i < transfers.size(); i++) {
+                transfers.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(transferBatchWriter).insertAll(anyList());
+
+        TransferBatchResponseDTO result = financialTransferService.scheduleTransferBatch(requests);
+
+        assertEquals(2, result.getAccepted());
+        assertEquals(2, result.getRejected());
+        assertEquals(Arrays.asList(100L, null, null, 101L), result.getIds());
+        assertEquals(Arrays.asList(new BigDecimal("12.00"), null, null, new BigDecimal("12.00")), result.getFees());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Conta de origem deve ter 10 dígitos", result.getErrors().get(0).getMessage());
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        verify(transferBatchWriter).insertAll(argThat(transfers -> transfers.size() == 2));
+        verify(accountExposureService).record(anyList());
+        verify(repository, never()).save(any(FinancialTransfer.class));
+    }
+
+    @Test
+    @DisplayName("Should reject the single transfer that exceeds the daily limit before saving")
+    void shouldRejectTransferOverDailyLimit() {
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(LocalDate.class))).thenReturn(new BigDecimal("12.00"));
+        doThrow(new IllegalArgumentException("Limite diário de transferências da conta excedido (100000.00)"))
+                .when(dailyLimitService).reserve("1234567890", validTransferRequest.getTransferDate(), validTransferRequest.getTransferAmount());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> financialTransferService.scheduleTransfer(validTransferRequest));
+
+        assertEquals("Limite diário de transferências da conta excedido (100000.00)", ex.getMessage());
+        verify(repository, never()).save(any(FinancialTransfer.class));
+        verifyNoInteractions(accountExposureService);
+        verifyNoInteractions(transferAnomalyScorer);
+    }
+
+    @Test
+    @DisplayName("Should return the anomaly score of the source account with the scheduled transfer")
+    void shouldReturnAnomalyScore() {
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(LocalDate.class))).thenReturn(new BigDecimal("12.00"));
+        when(repository.save(any(FinancialTransfer.class))).thenReturn(savedTransfer);
+        when(transferAnomalyScorer.score("1234567890", "0987654321")).thenReturn(85);
+
+        TransferResponseDTO result = financialTransferService.scheduleTransfer(validTransferRequest);
+
+        assertEquals(85, result.getAnomalyScore());
+    }
+
+    @Test
+    @DisplayName("Should flag a possible duplicate and add the stored transfer to the duplicate filter")
+    void shouldFlagPossibleDuplicate() {
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(LocalDate.class))).thenReturn(new BigDecimal("12.00"));
+        when(repository.save(any(FinancialTransfer.class))).thenReturn(savedTransfer);
+        when(duplicateTransferDetector.check("1234567890", "0987654321", validTransferRequest.getTransferAmount(),
+                validTransferRequest.getTransferDate())).thenReturn(true);
+
+        TransferResponseDTO result = financialTransferService.scheduleTransfer(validTransferRequest);
+
+        assertEquals(Boolean.TRUE, result.getPossibleDuplicate());
+        verify(duplicateTransferDetector).record(savedTransfer);
+    }
+
+    @Test
+    @DisplayName("Should not price or save a transfer rejected as a duplicate")
+    void shouldRejectDuplicateBeforeSaving() {
+        doThrow(new IllegalArgumentException("Transferência duplicada"))
+                .when(duplicateTransferDetector).check(any(), any(), any(), any());
+
+        assertThrows(IllegalArgumentException.class, () -> financialTransferService.scheduleTransfer(validTransferRequest));
+
+        verifyNoInteractions(feeCalculationService, dailyLimitService);
+        verify(repository, never()).save(any(FinancialTransfer.class));
+    }
+
+    @Test
+    @DisplayName("Should report batch items over the daily limit and release reservations when the insert fails")
+    void shouldApplyDailyLimitToBatchItems() {
+        List<TransferRequestDTO> requests = Arrays.asList(validTransferRequest, validTransferRequest);
+        when(feeCalculationService.calculateFeeBatch(requests)).thenReturn(new FeeBatchResponseDTO(
+                Arrays.asList(new BigDecimal("12.00"), new BigDecimal("12.00")), Collections.emptyList()));
+        when(dailyLimitService.tryReserve(any(), any(), any())).thenReturn(true, false);
+        when(dailyLimitService.limitExceededMessage()).thenReturn("Limite diário de transferências da conta excedido (100000.00)");
+
+        TransferBatchResponseDTO result = financialTransferService.scheduleTransferBatch(requests);
+
+        assertEquals(1, result.getAccepted());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Limite diário de transferências da conta excedido (100000.00)", result.getErrors().get(0).getMessage());
+        verify(transferBatchWriter).insertAll(argThat(transfers -> transfers.size() == 1));
+
+        when(dailyLimitService.tryReserve(any(), any(), any())).thenReturn(true);
+        doThrow(new IllegalStateException("insert failed")).when(transferBatchWriter).insertAll(anyList());
+
+        assertThrows(IllegalStateException.class, () -> financialTransferService.scheduleTransferBatch(requests));
+        verify(dailyLimitService, times(2)).release("1234567890", validTransferRequest.getTransferDate(), validTransferRequest.getTransferAmount());
+    }
+
+    @Test
+    @DisplayName("Should report batch duplicates as item errors or warnings depending on the policy")
+    void shouldCheckBatchItemsForDuplicates() {
+        List<TransferRequestDTO> requests = Arrays.asList(validTransferRequest, validTransferRequest, validTransferRequest);
+        when(feeCalculationService.calculateFeeBatch(requests)).thenReturn(new FeeBatchResponseDTO(
+                Arrays.asList(new BigDecimal("12.00"), new BigDecimal("12.00"), new BigDecimal("12.00")), Collections.emptyList()));
+        when(duplicateTransferDetector.check("1234567890", "0987654321", validTransferRequest.getTransferAmount(),
+                validTransferRequest.getTransferDate()))
+                .thenReturn(false)
+                .thenReturn(true)
+                .thenThrow(new IllegalArgumentException("Transferência duplicada"));
+        when(duplicateTransferDetector.possibleDuplicateMessage()).thenReturn("Possível transferência duplicada");
+
+        TransferBatchResponseDTO result = financialTransferService.scheduleTransferBatch(requests);
+
+        assertEquals(2, result.getAccepted());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getIndex());
+        assertEquals("Transferência duplicada", result.getErrors().get(0).getMessage());
+        assertEquals(1, result.getWarnings().size());
+        assertEquals(1, result.getWarnings().get(0).getIndex());
+        verify(duplicateTransferDetector, times(2)).recordQueued(any(FinancialTransfer.class));
+        verify(duplicateTransferDetector).releaseQueued(argThat(transfers -> transfers.size() == 2));
+        verify(dailyLimitService, times(2)).tryReserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should release every batch reservation when the batch fails before its insert")
+    void shouldReleaseReservationsWhenBatchFailsBeforeInsert() {
+        TransferRequestDTO other = new TransferRequestDTO();
+        other.setSourceAccount("1111111111");
+        other.setDestinationAccount("0987654321");
+        other.setTransferAmount(new BigDecimal("50.00"));
+        other.setTransferDate(validTransferRequest.getTransferDate());
+        List<TransferRequestDTO> requests = Arrays.asList(validTransferRequest, other);
+        when(feeCalculationService.calculateFeeBatch(requests)).thenReturn(new FeeBatchResponseDTO(
+                Arrays.asList(new BigDecimal("12.00"), new BigDecimal("3.00")), Collections.emptyList()));
+        when(transferAnomalyScorer.score(any(), any())).thenReturn(null).thenThrow(new IllegalStateException("scoring failed"));
+
+        assertThrows(IllegalStateException.class, () -> financialTransferService.scheduleTransferBatch(requests));
+
+        verify(dailyLimitService).release("1234567890", validTransferRequest.getTransferDate(), validTransferRequest.getTransferAmount());
+        verify(dailyLimitService).release("1111111111", other.getTransferDate(), other.getTransferAmount());
+        verify(dailyLimitService, never()).confirm(any(), any(), any());
+        verify(duplicateTransferDetector).releaseQueued(argThat(transfers -> transfers.size() == 2));
+        verifyNoInteractions(transferBatchWriter);
+    }
+
+    @Test
+    @DisplayName("Should not hold any account lock while the batch rows are inserted")
+    void shouldInsertBatchWithoutHoldingLocks() {
+        List<TransferRequestDTO> requests = Collections.singletonList(validTransferRequest);
+        when(feeCalculationService.calculateFeeBatch(requests)).thenReturn(new FeeBatchResponseDTO(
+                Collections.singletonList(new BigDecimal("12.00")), Collections.emptyList()));
+        AtomicBoolean lockFree = new AtomicBoolean();
+        doAnswer(invocation -> {
+            // A single request for the same account, on another thread, must not wait for the insert
+            lockFree.set(CompletableFuture.supplyAsync(() -> accountLockService.withLock("1234567890", () -> true)).join());
+            return null;
+        }).when(transferBatchWriter).insertAll(anyList());
+
+        financialTransferService.scheduleTransferBatch(requests);
+
+        assertTrue(lockFree.get());
+        verify(dailyLimitService).confirm("1234567890", validTransferRequest.getTransferDate(), validTransferRequest.getTransferAmount());
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when every batch item is invalid")
+    void shouldSkipInsertWhenEveryBatchItemIsInvalid() {
+        validTransferRequest.setDestinationAccount("abc");
+        List<TransferRequestDTO> requests = Collections.singletonList(validTransferRequest);
+        when(feeCalculationService.calculateFeeBatch(requests)).thenReturn(new FeeBatchResponseDTO(
+                Collections.singletonList(new BigDecimal("12.00")), Collections.emptyList()));
+
+        TransferBatchResponseDTO result = financialTransferService.scheduleTransferBatch(requests);
+
+        assertEquals(0, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals("Conta de destino deve ter 10 dígitos", result.getErrors().get(0).getMessage());
+        verifyNoInteractions(transferBatchWriter, accountExposureService);
+    }
 }
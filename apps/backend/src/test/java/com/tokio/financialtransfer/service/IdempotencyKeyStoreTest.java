@@ -0,0 +1,187 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotency Key Store Tests")
+class IdempotencyKeyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private TransferRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        request = request("1234567890");
+    }
+
+    @Test
+    @DisplayName("Should replay the first response for a repeated key without scheduling again")
+    void shouldReplayFirstResponseForRepeatedKey() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+
+        IdempotencyKeyStore.Result first = store.execute("key-1", request, this::schedule);
+        IdempotencyKeyStore.Result retry = store.execute("key-1", request("1234567890"), this::schedule);
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertSame(first.getResponse(), retry.getResponse());
+        assertEquals(1, scheduled.get());
+        assertEquals(1, store.getHits());
+        assertEquals(1, store.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different transfer")
+    void shouldRejectKeyReusedForDifferentTransfer() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+        store.execute("key-1", request, this::schedule);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> store.execute("key-1", request("1111111111"), this::schedule));
+
+        assertEquals("Idempotency-Key já utilizada para outra transferência", ex.getMessage());
+        assertEquals(1, scheduled.get());
+    }
+
+    @Test
+    @DisplayName("Should schedule again once the key has expired")
+    void shouldScheduleAgainOnceKeyExpired() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+        store.execute("key-1", request, this::schedule);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        IdempotencyKeyStore.Result afterTtl = store.execute("key-1", request, this::schedule);
+
+        assertFalse(afterTtl.isReplayed());
+        assertEquals(2, scheduled.get());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should forget the key of a failed attempt so it can be retried")
+    void shouldForgetKeyOfFailedAttempt() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", request, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        IdempotencyKeyStore.Result retry = store.execute("key-1", request, this::schedule);
+
+        assertFalse(retry.isReplayed());
+        assertEquals(1, scheduled.get());
+    }
+
+    @Test
+    @DisplayName("Should not keep failed attempts around, whatever their number")
+    void shouldStayBoundedUnderFailedAttempts() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThrows(IllegalArgumentException.class, () -> store.execute("key-" + scheduled.incrementAndGet(), request, () -> {
+                throw new IllegalArgumentException("Limite diário excedido");
+            }));
+        }
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.queued());
+        assertEquals(0, store.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should stay within capacity by dropping the oldest keys")
+    void shouldStayWithinCapacity() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            now.incrementAndGet();
+            store.execute("key-" + i, request, this::schedule);
+        }
+
+        assertTrue(store.size() <= 64, "size " + store.size());
+        assertTrue(store.queued() <= 64, "queued " + store.queued());
+        assertEquals(1_000 - store.size(), store.getEvictions());
+        assertTrue(store.execute("key-999", request, this::schedule).isReplayed());
+    }
+
+    @Test
+    @DisplayName("Should make a concurrent retry wait for the attempt in progress")
+    void shouldMakeConcurrentRetryWaitForAttemptInProgress() throws Exception {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyKeyStore.Result> first = executor.submit(() -> store.execute("key-1", request, () -> {
+                started.countDown();
+                await(release);
+                return schedule();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyKeyStore.Result> retry = executor.submit(() -> store.execute("key-1", request, this::schedule));
+
+            release.countDown();
+            assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+            assertTrue(retry.get(5, TimeUnit.SECONDS).isReplayed());
+            assertEquals(1, scheduled.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss counters")
+    void shouldPublishCounters() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(60, 64, now::get);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+
+        store.execute("key-1", request, this::schedule);
+        store.execute("key-1", request, this::schedule);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "idempotencyKeys").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "idempotencyKeys").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "idempotencyKeys").gauge().value());
+    }
+
+    private TransferResponseDTO schedule() {
+        long id = scheduled.incrementAndGet();
+        return new TransferResponseDTO(id, request.getSourceAccount(), request.getDestinationAccount(),
+                request.getTransferAmount(), new BigDecimal("12.00"), request.getTransferDate(), LocalDateTime.now());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static TransferRequestDTO request(String sourceAccount) {
+        TransferRequestDTO request = new TransferRequestDTO();
+        request.setSourceAccount(sourceAccount);
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(LocalDate.of(2030, 1, 15));
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package com.tokio.financialtransfer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transfer Anomaly Scorer Tests")
+class TransferAnomalyScorerTest {
+
+    private static final long WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L / WINDOW_MILLIS * WINDOW_MILLIS);
+    private TransferAnomalyScorer scorer;
+
+    @BeforeEach
+    void setUp() {
+        scorer = new TransferAnomalyScorer();
+        scorer.clock = now::get;
+        ReflectionTestUtils.setField(scorer, "enabled", true);
+        ReflectionTestUtils.setField(scorer, "velocityThreshold", 10L);
+        ReflectionTestUtils.setField(scorer, "destinationThreshold", 5L);
+        ReflectionTestUtils.setField(scorer, "counterWidth", 1024);
+        ReflectionTestUtils.setField(scorer, "distinctWidth", 256);
+        scorer.start();
+    }
+
+    @Test
+    @DisplayName("Should score an account higher as it schedules more transfers")
+    void shouldScoreVelocity() {
+        int first = scorer.score("1234567890", "0987654321");
+        int score = first;
+        for (int i = 1; i < 10; i++) {
+            score = scorer.score("1234567890", "0987654321");
+        }
+
+        assertTrue(first < 30, "first transfer scored " + first);
+        assertEquals(100, score);
+        assertTrue(scorer.score("1111111111", "0987654321") < 30);
+        assertEquals(11, scorer.getScored());
+    }
+
+    @Test
+    @DisplayName("Should flag an account that sends to many destinations")
+    void shouldScoreDestinationSpread() {
+        ReflectionTestUtils.setField(scorer, "velocityThreshold", 1000L);
+        int first = scorer.score("1234567890", "2000000000");
+        int score = first;
+        for (int i = 1; i < 10; i++) {
+            score = scorer.score("1234567890", String.format("%010d", 2_000_000_000L + i));
+        }
+
+        assertTrue(first < 30, "first transfer scored " + first);
+        assertEquals(100, score);
+        assertTrue(scorer.getFlagged() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should let the previous window fade out and forget older ones")
+    void shouldDecayPreviousWindow() {
+        for (int i = 0; i < 9; i++) {
+            scorer.score("1234567890", "0987654321");
+        }
+
+        now.addAndGet(WINDOW_MILLIS + WINDOW_MILLIS / 2);
+        int halfDecayed = scorer.score("1234567890", "0987654321");
+        now.addAndGet(WINDOW_MILLIS / 2);
+        int decayed = scorer.score("1234567890", "0987654321");
+        now.addAndGet(3 * WINDOW_MILLIS);
+        int forgotten = scorer.score("1234567890", "0987654321");
+
+        // 1 + 9 * 0.5 transfers, then 1 + 1 * 1.0, then 1
+        assertEquals(scorer.score(5.5, 1), halfDecayed);
+        assertEquals(scorer.score(2, 1), decayed);
+        assertEquals(scorer.score(1, 1), forgotten);
+        assertTrue(halfDecayed > decayed && decayed > forgotten);
+    }
+
+    @Test
+    @DisplayName("Should return no score and allocate nothing when disabled")
+    void shouldSkipWhenDisabled() {
+        TransferAnomalyScorer disabled = new TransferAnomalyScorer();
+        disabled.start();
+
+        assertNull(disabled.score("1234567890", "0987654321"));
+        assertEquals(0, disabled.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should publish scored and flagged counts and the sketch memory")
+    void shouldPublishMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scorer.bindTo(registry);
+        for (int i = 0; i < 10; i++) {
+            scorer.score("1234567890", "0987654321");
+        }
+
+        assertEquals(10.0, registry.get("transfers.anomaly.scored").functionCounter().count());
+        assertTrue(registry.get("transfers.anomaly.flagged").functionCounter().count() >= 1);
+        assertEquals(scorer.getMemoryBytes(), registry.get("transfers.anomaly.memory").gauge().value());
+        assertTrue(scorer.getMemoryBytes() > 0);
+    }
+}
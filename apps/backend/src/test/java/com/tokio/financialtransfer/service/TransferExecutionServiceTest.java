@@ -0,0 +1,219 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.model.TransferStatus;
+import com.tokio.financialtransfer.util.BusinessClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@DataJpaTest
+@Import({TransferExecutionService.class, BusinessClock.class, SimpleMeterRegistry.class})
+@ActiveProfiles("test")
+@DisplayName("Transfer Execution Service Tests")
+class TransferExecutionServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransferExecutionService transferExecutionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private TransferExecutor transferExecutor;
+
+    private final List<FinancialTransfer> executions = Collections.synchronizedList(new ArrayList<>());
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        ReflectionTestUtils.setField(transferExecutionService, "chunkSize", 3);
+        doAnswer(invocation -> executions.add(invocation.getArgument(0))).when(transferExecutor).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should execute every due transfer in chunks and leave future ones scheduled")
+    void shouldExecuteDueTransfersOnly() {
+        List<Long> due = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            due.add(persist(String.format("%010d", i % 3), today.minusDays(i % 4)));
+        }
+        Long future = persist("0000000001", today.plusDays(1));
+        flushAndClear();
+
+        int processed = transferExecutionService.executeDueTransfers();
+
+        assertEquals(8, processed);
+        entityManager.clear();
+        for (Long id : due) {
+            FinancialTransfer transfer = entityManager.find(FinancialTransfer.class, id);
+            assertEquals(TransferStatus.EXECUTED, transfer.getStatus());
+            assertNotNull(transfer.getExecutedAt());
+            assertEquals(transferExecutionService.getInstanceId(), transfer.getClaimOwner());
+            assertNull(transfer.getLeaseExpiresAt());
+        }
+        assertEquals(TransferStatus.SCHEDULED, entityManager.find(FinancialTransfer.class, future).getStatus());
+        assertEquals(0, transferExecutionService.executeDueTransfers());
+    }
+
+    @Test
+    @DisplayName("Should execute one account's transfers in due order")
+    void shouldKeepPerAccountOrder() {
+        for (int i = 0; i < 12; i++) {
+            persist(i % 2 == 0 ? "1111111111" : "2222222222", today.minusDays(12 - i));
+        }
+        flushAndClear();
+
+        transferExecutionService.executeDueTransfers();
+
+        Map<String, List<FinancialTransfer>> byAccount = new LinkedHashMap<>();
+        for (FinancialTransfer transfer : executions) {
+            byAccount.computeIfAbsent(transfer.getSourceAccount(), account -> new ArrayList<>()).add(transfer);
+        }
+        assertEquals(2, byAccount.size());
+        for (List<FinancialTransfer> transfers : byAccount.values()) {
+            assertEquals(6, transfers.size());
+            for (int i = 1; i < transfers.size(); i++) {
+                assertTrue(transfers.get(i - 1).getTransferDate().isBefore(transfers.get(i).getTransferDate()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark a transfer FAILED when its execution throws and carry on")
+    void shouldMarkFailedTransfers() {
+        Long ok = persist("1111111111", today);
+        Long broken = persist("2222222222", today);
+        flushAndClear();
+        doThrow(new IllegalStateException("rejected")).when(transferExecutor)
+                .execute(argThat(transfer -> transfer != null && transfer.getId().equals(broken)));
+
+        transferExecutionService.executeDueTransfers();
+
+        entityManager.clear();
+        assertEquals(TransferStatus.EXECUTED, entityManager.find(FinancialTransfer.class, ok).getStatus());
+        assertEquals(TransferStatus.FAILED, entityManager.find(FinancialTransfer.class, broken).getStatus());
+        assertEquals(1.0, meterRegistry.get("transfers.execution.transfers").tag("result", "failed").functionCounter().count(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should take over expired leases and leave live leases of other instances alone")
+    void shouldTakeOverExpiredLeasesOnly() {
+        Long abandoned = persist("1111111111", today);
+        Long held = persist("2222222222", today);
+        Long legacy = persist("3333333333", today);
+        lease(abandoned, "crashed-node", LocalDateTime.now().minusMinutes(1));
+        lease(held, "live-node", LocalDateTime.now().plusMinutes(5));
+        lease(legacy, null, null);
+
+        assertEquals(2, transferExecutionService.executeDueTransfers());
+
+        entityManager.clear();
+        assertEquals(TransferStatus.EXECUTED, entityManager.find(FinancialTransfer.class, abandoned).getStatus());
+        assertEquals(TransferStatus.EXECUTED, entityManager.find(FinancialTransfer.class, legacy).getStatus());
+        FinancialTransfer stillHeld = entityManager.find(FinancialTransfer.class, held);
+        assertEquals(TransferStatus.EXECUTING, stillHeld.getStatus());
+        assertEquals("live-node", stillHeld.getClaimOwner());
+        assertEquals(2, transferExecutionService.getTakenOver());
+        assertEquals(2.0, meterRegistry.get("transfers.execution.leases").tag("result", "taken_over").functionCounter().count(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should not claim an account while another instance holds one of its transfers")
+    void shouldSkipAccountsHeldByOtherInstances() {
+        Long held = persist("1111111111", today.minusDays(1));
+        Long waiting = persist("1111111111", today);
+        Long free = persist("2222222222", today);
+        lease(held, "live-node", LocalDateTime.now().plusMinutes(5));
+
+        assertEquals(1, transferExecutionService.executeDueTransfers());
+
+        entityManager.clear();
+        assertEquals(TransferStatus.SCHEDULED, entityManager.find(FinancialTransfer.class, waiting).getStatus());
+        assertEquals(TransferStatus.EXECUTED, entityManager.find(FinancialTransfer.class, free).getStatus());
+
+        // Once the other instance is done the account is free again
+        entityManager.getEntityManager().createQuery("UPDATE FinancialTransfer ft SET ft.status = :status WHERE ft.id = :id")
+                .setParameter("status", TransferStatus.EXECUTED)
+                .setParameter("id", held)
+                .executeUpdate();
+        assertEquals(1, transferExecutionService.executeDueTransfers());
+        entityManager.clear();
+        assertEquals(TransferStatus.EXECUTED, entityManager.find(FinancialTransfer.class, waiting).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should put back to SCHEDULED only the transfers this instance holds")
+    void shouldReleaseOwnLeases() {
+        ReflectionTestUtils.setField(transferExecutionService, "instanceId", "node-a");
+        Long own = persist("1111111111", today);
+        Long other = persist("2222222222", today);
+        lease(own, "node-a", LocalDateTime.now().plusMinutes(5));
+        lease(other, "node-b", LocalDateTime.now().plusMinutes(5));
+
+        assertEquals(1, transferExecutionService.releaseOwnLeases());
+
+        entityManager.clear();
+        FinancialTransfer released = entityManager.find(FinancialTransfer.class, own);
+        assertEquals(TransferStatus.SCHEDULED, released.getStatus());
+        assertNull(released.getClaimOwner());
+        assertEquals(TransferStatus.EXECUTING, entityManager.find(FinancialTransfer.class, other).getStatus());
+        assertEquals(1, transferExecutionService.executeDueTransfers());
+        assertEquals(0.0, transferExecutionService.getLagSeconds());
+        assertNotNull(meterRegistry.get("transfers.execution.run").functionTimer());
+    }
+
+    private void lease(Long id, String owner, LocalDateTime leaseExpiresAt) {
+        entityManager.getEntityManager().createQuery("UPDATE FinancialTransfer ft SET ft.status = :status, "
+                        + "ft.claimOwner = :owner, ft.leaseExpiresAt = :leaseExpiresAt WHERE ft.id = :id")
+                .setParameter("status", TransferStatus.EXECUTING)
+                .setParameter("owner", owner)
+                .setParameter("leaseExpiresAt", leaseExpiresAt)
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private Long persist(String sourceAccount, LocalDate transferDate) {
+        return entityManager.persistAndGetId(FinancialTransfer.builder()
+                .sourceAccount(sourceAccount)
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal("100.00"))
+                .fee(new BigDecimal("3.00"))
+                .transferDate(transferDate)
+                .build(), Long.class);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,107 @@
+package com.tokio.financialtransfer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(TransferExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("Transfer Export Service Tests")
+class TransferExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransferExportService transferExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should write one JSON document per line in id order")
+    void shouldWriteOneJsonDocumentPerLine() throws Exception {
+        for (int i = 0; i < 1500; i++) {
+            persistTransfer(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = transferExportService.exportTransfers(output);
+
+        String body = output.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(1500, count);
+        assertEquals(1500, lines.length);
+        assertTrue(body.endsWith("\n"));
+
+        long previousId = 0;
+        for (String line : lines) {
+            assertFalse(line.startsWith(" "), "lines must not carry a root value separator");
+            JsonNode node = objectMapper.readTree(line);
+            assertTrue(node.get("id").asLong() > previousId);
+            previousId = node.get("id").asLong();
+        }
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("0000000000", first.get("sourceAccount").asText());
+        assertEquals("2024-09-05", first.get("transferDate").asText());
+        assertTrue(lines[0].contains("\"fee\":12.00"), lines[0]);
+    }
+
+    @Test
+    @DisplayName("Should leave no exported entity in the persistence context")
+    void shouldLeaveNoEntityInPersistenceContext() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            persistTransfer(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        transferExportService.exportTransfers(new ByteArrayOutputStream());
+
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Should write nothing when there are no transfers")
+    void shouldWriteNothingWhenThereAreNoTransfers() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, transferExportService.exportTransfers(output));
+        assertEquals(0, output.size());
+    }
+
+    private void persistTransfer(int i) {
+        entityManager.persist(FinancialTransfer.builder()
+                .sourceAccount(String.format("%010d", i))
+                .destinationAccount("0987654321")
+                .transferAmount(new BigDecimal("1000.00"))
+                .fee(new BigDecimal("12.00"))
+                .transferDate(LocalDate.of(2024, 9, 5))
+                .scheduleDate(LocalDateTime.of(2024, 8, 30, 10, 0))
+                .build());
+    }
+}
@@ -0,0 +1,167 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.BatchItemErrorDTO;
+import com.tokio.financialtransfer.dto.ImportLineErrorDTO;
+import com.tokio.financialtransfer.dto.TransferBatchResponseDTO;
+import com.tokio.financialtransfer.dto.TransferImportReportDTO;
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.validation.TransferChecks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transfer Import Service Tests")
+class TransferImportServiceTest {
+
+    @Mock
+    private FinancialTransferService financialTransferService;
+
+    @InjectMocks
+    private TransferImportService transferImportService;
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transferImportService, "chunkSize", 3);
+        ReflectionTestUtils.setField(transferImportService, "maxErrors", 1000);
+        ReflectionTestUtils.setField(transferImportService, "maxLineLength", 1024);
+
+        // Stands in for the batch path: rejects invalid source accounts, accepts everything else
+        // and flags amounts of 300.00 as possible duplicates
+        lenient().when(financialTransferService.scheduleTransferBatch(anyList())).thenAnswer(invocation -> {
+            List<TransferRequestDTO> chunk = new ArrayList<>(invocation.<List<TransferRequestDTO>>getArgument(0));
+            chunkSizes.add(chunk.size());
+            List<BatchItemErrorDTO> errors = new ArrayList<>();
+            List<BatchItemErrorDTO> warnings = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                String error = TransferChecks.checkSourceAccount(chunk.get(i).getSourceAccount());
+                if (error != null) {
+                    errors.add(new BatchItemErrorDTO(i, error));
+                } else if (new BigDecimal("300.00").equals(chunk.get(i).getTransferAmount())) {
+                    warnings.add(new BatchItemErrorDTO(i, "Possível transferência duplicada"));
+                }
+            }
+            return TransferBatchResponseDTO.builder()
+                    .accepted(chunk.size() - errors.size())
+                    .rejected(errors.size())
+                    .errors(errors)
+                    .warnings(warnings)
+                    .build();
+        });
+    }
+
+    @Test
+    @DisplayName("Should import in chunks and report rejected lines in file order")
+    void shouldImportInChunksAndReportRejectedLines() throws IOException {
+        String csv = "sourceAccount,destinationAccount,transferAmount,transferDate\n"
+                + "1234567890,0987654321,100.00,2030-01-10\n"
+                + "12345,0987654321,100.00,2030-01-10\n"
+                + "1234567890,0987654321,abc,2030-01-10\n"
+                + "1234567890,0987654321,100.00,2030-02-30\n"
+                + "1234567890,0987654321,100.00\n"
+                + "1234567890,0987654321,250.50,2030-01-11\n"
+                + "1234567890,0987654321,300.00,2030-01-12\n"
+                + "1234567890,0987654321,400.00,2030-01-13\n";
+
+        TransferImportReportDTO report = transferImportService.importCsv(stream(csv));
+
+        assertEquals(8, report.getRecords());
+        assertEquals(4, report.getAccepted());
+        assertEquals(4, report.getRejected());
+        assertFalse(report.isErrorsTruncated());
+        assertEquals(List.of(3, 2), chunkSizes);
+
+        List<ImportLineErrorDTO> errors = report.getErrors();
+        assertEquals(List.of(3L, 4L, 5L, 6L), errors.stream().map(ImportLineErrorDTO::getLine).collect(Collectors.toList()));
+        assertEquals("Conta de origem deve ter 10 dígitos", errors.get(0).getMessage());
+        assertEquals("Valor da transferência inválido", errors.get(1).getMessage());
+        assertEquals("Data da transferência deve estar no formato AAAA-MM-DD", errors.get(2).getMessage());
+        assertTrue(errors.get(3).getMessage().startsWith("Linha deve ter 4 colunas"));
+
+        assertEquals(1, report.getWarnings().size());
+        assertEquals(8L, report.getWarnings().get(0).getLine());
+        assertEquals("Possível transferência duplicada", report.getWarnings().get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should map fields to requests without a header line")
+    void shouldMapFieldsWithoutHeader() throws IOException {
+        transferImportService.importCsv(stream("1234567890,0987654321,1234.56,2030-01-10\n"));
+
+        verify(financialTransferService).scheduleTransferBatch(argThat(chunk -> {
+            TransferRequestDTO request = chunk.get(0);
+            return "1234567890".equals(request.getSourceAccount())
+                    && "0987654321".equals(request.getDestinationAccount())
+                    && new BigDecimal("1234.56").equals(request.getTransferAmount())
+                    && LocalDate.of(2030, 1, 10).equals(request.getTransferDate());
+        }));
+    }
+
+    @Test
+    @DisplayName("Should count every rejected line but list only the configured maximum")
+    void shouldCapListedErrors() throws IOException {
+        ReflectionTestUtils.setField(transferImportService, "maxErrors", 2);
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            csv.append("bad line\n");
+        }
+
+        TransferImportReportDTO report = transferImportService.importCsv(stream(csv.toString()));
+
+        assertEquals(10, report.getRejected());
+        assertEquals(2, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        verifyNoInteractions(financialTransferService);
+    }
+
+    @Test
+    @DisplayName("Should keep the earliest lines when a batch error comes before parsing errors of the same chunk")
+    void shouldCapListedErrorsInLineOrder() throws IOException {
+        ReflectionTestUtils.setField(transferImportService, "maxErrors", 2);
+        String csv = "12345,0987654321,100.00,2030-01-10\n"
+                + "1234567890,0987654321,100.00,2030-01-10\n"
+                + "bad line\n"
+                + "bad line\n"
+                + "1234567890,0987654321,100.00,2030-01-10\n";
+
+        TransferImportReportDTO report = transferImportService.importCsv(stream(csv));
+
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(1L, 3L), report.getErrors().stream().map(ImportLineErrorDTO::getLine).collect(Collectors.toList()));
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Should parse ISO dates and reject anything else")
+    void shouldParseIsoDates() {
+        assertEquals(LocalDate.of(2024, 2, 29), TransferImportService.parseIsoDate("2024-02-29"));
+        assertNull(TransferImportService.parseIsoDate("2023-02-29"));
+        assertNull(TransferImportService.parseIsoDate("2024-2-29"));
+        assertNull(TransferImportService.parseIsoDate("2024/02/29"));
+        assertNull(TransferImportService.parseIsoDate("20a4-02-29"));
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,234 @@
+package com.tokio.financialtransfer.service;
+
+import com.tokio.financialtransfer.dto.TransferRequestDTO;
+import com.tokio.financialtransfer.dto.TransferResponseDTO;
+import com.tokio.financialtransfer.model.FinancialTransfer;
+import com.tokio.financialtransfer.repository.TransferBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transfer Write-Behind Service Tests")
+class TransferWriteBehindServiceTest {
+
+    @Mock
+    private FeeCalculationService feeCalculationService;
+
+    @Mock
+    private TransferBatchWriter transferBatchWriter;
+
+    @Mock
+    private AccountExposureService accountExposureService;
+
+    @Spy
+    private AccountLockService accountLockService = new AccountLockService(16, 1000);
+
+    @Mock
+    private DailyLimitService dailyLimitService;
+
+    @Mock
+    private TransferAnomalyScorer transferAnomalyScorer;
+
+    @Mock
+    private DuplicateTransferDetector duplicateTransferDetector;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TransferWriteBehindService transferWriteBehindService;
+
+    private final AtomicLong ids = new AtomicLong();
+    private ExecutorService executor;
+    private TransferRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transferWriteBehindService, "enabled", true);
+        ReflectionTestUtils.setField(transferWriteBehindService, "capacity", 2);
+        ReflectionTestUtils.setField(transferWriteBehindService, "batchSize", 1);
+        ReflectionTestUtils.setField(transferWriteBehindService, "lingerMillis", 0L);
+        lenient().when(feeCalculationService.calculateFee(any(), any())).thenReturn(new BigDecimal("12.00"));
+        lenient().when(transferBatchWriter.reserveId()).thenAnswer(invocation -> ids.incrementAndGet());
+        lenient().when(dailyLimitService.tryReserve(any(), any(), any())).thenReturn(true);
+
+        executor = Executors.newCachedThreadPool();
+        request = new TransferRequestDTO();
+        request.setSourceAccount("1234567890");
+        request.setDestinationAccount("0987654321");
+        request.setTransferAmount(new BigDecimal("1000.00"));
+        request.setTransferDate(LocalDate.now().plusDays(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        transferWriteBehindService.stop();
+    }
+
+    @Test
+    @DisplayName("Should return only after the batch commits, with the id assigned up front")
+    void shouldReturnAfterCommitWithPreassignedId() {
+        transferWriteBehindService.start();
+        when(transferAnomalyScorer.score(request.getSourceAccount(), request.getDestinationAccount())).thenReturn(12);
+
+        TransferResponseDTO response = transferWriteBehindService.scheduleTransfer(request);
+
+        assertEquals(1L, response.getId());
+        assertEquals(12, response.getAnomalyScore());
+        assertEquals(new BigDecimal("12.00"), response.getFee());
+        assertNotNull(response.getScheduleDate());
+        verify(transferBatchWriter).insertAllWithIds(argThatHasIds(1L));
+        verify(accountExposureService).record(anyList());
+        assertEquals(1, transferWriteBehindService.getCommits());
+        assertEquals(1, transferWriteBehindService.getCommittedTransfers());
+    }
+
+    @Test
+    @DisplayName("Should reject a transfer when the queue is full and commit the queued ones")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return null;
+        }).when(transferBatchWriter).insertAllWithIds(anyList());
+        transferWriteBehindService.start();
+
+        // First transfer holds the writer, the next two fill both slots
+        List<Future<TransferResponseDTO>> pending = new ArrayList<>();
+        pending.add(executor.submit(() -> transferWriteBehindService.scheduleTransfer(request)));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        pending.add(executor.submit(() -> transferWriteBehindService.scheduleTransfer(request)));
+        pending.add(executor.submit(() -> transferWriteBehindService.scheduleTransfer(request)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (transferWriteBehindService.getQueueDepth() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> transferWriteBehindService.scheduleTransfer(request));
+
+        release.countDown();
+        for (Future<TransferResponseDTO> future : pending) {
+            assertNotNull(future.get(10, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(3, transferWriteBehindService.getCommittedTransfers());
+    }
+
+    @Test
+    @DisplayName("Should fail every caller of a batch whose commit fails")
+    void shouldFailCallersWhenCommitFails() {
+        doThrow(new DataAccessResourceFailureException("disk full")).when(transferBatchWriter).insertAllWithIds(anyList());
+        transferWriteBehindService.start();
+
+        DataAccessResourceFailureException ex = assertThrows(DataAccessResourceFailureException.class,
+                () -> transferWriteBehindService.scheduleTransfer(request));
+
+        assertEquals("disk full", ex.getMessage());
+        assertEquals(1, transferWriteBehindService.getFailedTransfers());
+        verify(accountExposureService, never()).record(anyList());
+        verify(dailyLimitService).release(request.getSourceAccount(), request.getTransferDate(), request.getTransferAmount());
+    }
+
+    @Test
+    @DisplayName("Should check for duplicates under the account lock and keep the transfer queued until it commits")
+    void shouldCheckDuplicatesUnderAccountLock() {
+        transferWriteBehindService.start();
+        when(duplicateTransferDetector.check(request.getSourceAccount(), request.getDestinationAccount(),
+                request.getTransferAmount(), request.getTransferDate())).thenAnswer(invocation -> {
+                    ReentrantLock[] stripes = (ReentrantLock[]) ReflectionTestUtils.getField(accountLockService, "stripes");
+                    assertTrue(stripes[accountLockService.stripeOf(request.getSourceAccount())].isHeldByCurrentThread());
+                    return true;
+                });
+
+        TransferResponseDTO response = transferWriteBehindService.scheduleTransfer(request);
+
+        assertEquals(Boolean.TRUE, response.getPossibleDuplicate());
+        InOrder inOrder = inOrder(duplicateTransferDetector, transferBatchWriter);
+        inOrder.verify(duplicateTransferDetector).recordQueued(any());
+        inOrder.verify(transferBatchWriter).insertAllWithIds(argThatHasIds(1L));
+        inOrder.verify(duplicateTransferDetector).releaseQueued(argThatHasIds(1L));
+    }
+
+    @Test
+    @DisplayName("Should not queue a duplicate the policy rejects")
+    void shouldNotQueueRejectedDuplicate() {
+        transferWriteBehindService.start();
+        when(duplicateTransferDetector.check(any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Transferência duplicada"));
+
+        assertThrows(IllegalArgumentException.class, () -> transferWriteBehindService.scheduleTransfer(request));
+
+        verify(dailyLimitService, never()).tryReserve(any(), any(), any());
+        verify(duplicateTransferDetector, never()).recordQueued(any());
+        verifyNoInteractions(transferBatchWriter);
+    }
+
+    @Test
+    @DisplayName("Should fail a transfer enqueued after the final drain instead of leaving it waiting")
+    void shouldRejectTransferEnqueuedAfterStop() throws InterruptedException {
+        transferWriteBehindService.start();
+        transferWriteBehindService.stop();
+        // A request that passed the running check just before stop() and enqueued after its drain
+        ReflectionTestUtils.setField(transferWriteBehindService, "running", true);
+
+        Future<TransferResponseDTO> straggler = executor.submit(() -> transferWriteBehindService.scheduleTransfer(request));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> straggler.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        assertEquals(0, transferWriteBehindService.getQueueDepth());
+        verify(dailyLimitService).release(request.getSourceAccount(), request.getTransferDate(), request.getTransferAmount());
+        verify(duplicateTransferDetector).releaseQueued(argThatHasIds(1L));
+        verify(transferBatchWriter, never()).insertAllWithIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject transfers when disabled")
+    void shouldRejectWhenDisabled() {
+        ReflectionTestUtils.setField(transferWriteBehindService, "enabled", false);
+        transferWriteBehindService.start();
+
+        assertFalse(transferWriteBehindService.isEnabled());
+        assertThrows(RejectedExecutionException.class, () -> transferWriteBehindService.scheduleTransfer(request));
+        verifyNoInteractions(transferBatchWriter);
+    }
+
+    private static List<FinancialTransfer> argThatHasIds(Long... expected) {
+        return argThat(transfers -> transfers.size() == expected.length
+                && transfers.stream().map(FinancialTransfer::getId).collect(Collectors.toList())
+                .equals(List.of(expected)));
+    }
+}
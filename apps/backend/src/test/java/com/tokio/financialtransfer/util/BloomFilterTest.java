@@ -0,0 +1,91 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bloom Filter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should size the filter for the expected insertions and rate")
+    void shouldSizeFilter() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+
+        // About 9.6 bits per key at 1%, rounded up to a power of two
+        assertEquals(1L << 20, filter.getBitCount());
+        assertEquals(7, filter.getHashes());
+        assertEquals((1L << 20) / 8, filter.getMemoryBytes());
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+
+    @Test
+    @DisplayName("Should never miss an added key and stay near the target false positive rate")
+    void shouldHaveNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(50_000, 0.01);
+        for (long key = 0; key < 50_000; key++) {
+            filter.put(key * 7919);
+        }
+
+        for (long key = 0; key < 50_000; key++) {
+            assertTrue(filter.mightContain(key * 7919));
+        }
+        int falsePositives = 0;
+        for (long key = 1; key <= 100_000; key++) {
+            if (filter.mightContain(-key)) {
+                falsePositives++;
+            }
+        }
+        double observed = falsePositives / 100_000.0;
+        assertTrue(observed < 0.01, "observed false positive rate " + observed);
+        assertEquals(filter.expectedFalsePositiveRate(), observed, 0.003);
+    }
+
+    @Test
+    @DisplayName("Should report whether a put changed the filter")
+    void shouldReportNewKeys() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+
+        assertTrue(filter.put(42));
+        assertFalse(filter.put(42));
+        assertTrue(filter.mightContain(42));
+        assertFalse(filter.mightContain(43));
+    }
+
+    @Test
+    @DisplayName("Should keep every key added by concurrent writers")
+    void shouldPutConcurrently() throws Exception {
+        BloomFilter filter = BloomFilter.create(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (long key = thread; key < 40_000; key += 4) {
+                    filter.put(key);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        BloomFilter sequential = BloomFilter.create(40_000, 0.01);
+        for (long key = 0; key < 40_000; key++) {
+            sequential.put(key);
+            assertTrue(filter.mightContain(key));
+        }
+        // The same bits end up set whatever the interleaving
+        assertEquals(sequential.expectedFalsePositiveRate(), filter.expectedFalsePositiveRate());
+    }
+}
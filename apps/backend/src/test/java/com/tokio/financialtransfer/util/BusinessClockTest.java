@@ -0,0 +1,114 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Business Clock Tests")
+class BusinessClockTest {
+
+    private static final ZoneId SAO_PAULO = ZoneId.of("America/Sao_Paulo");
+
+    @Test
+    @DisplayName("Should pin today to a fixed date")
+    void shouldPinTodayToFixedDate() {
+        BusinessClock clock = BusinessClock.fixed(LocalDate.of(2024, 8, 30));
+
+        assertEquals(LocalDate.of(2024, 8, 30), clock.today());
+        assertEquals(LocalDate.of(2024, 8, 30).toEpochDay(), clock.todayEpochDay());
+        assertEquals(LocalDate.of(2024, 8, 31), clock.nextMidnight().toLocalDate());
+    }
+
+    @Test
+    @DisplayName("Should roll over at midnight in the configured zone")
+    void shouldRollOverAtMidnightInConfiguredZone() {
+        MutableClock source = new MutableClock(Instant.parse("2024-08-31T02:59:59Z"), SAO_PAULO);
+        BusinessClock clock = new BusinessClock(source);
+
+        // 23:59:59 in Sao Paulo (UTC-3) is still the 30th even though it is the 31st in UTC
+        assertEquals(LocalDate.of(2024, 8, 30), clock.today());
+        assertEquals(Instant.parse("2024-08-31T03:00:00Z"), clock.nextMidnight().toInstant());
+
+        source.advance(Duration.ofSeconds(1));
+        assertEquals(LocalDate.of(2024, 8, 31), clock.today());
+        assertEquals(Instant.parse("2024-09-01T03:00:00Z"), clock.nextMidnight().toInstant());
+    }
+
+    @Test
+    @DisplayName("Should follow the clock when it moves backwards")
+    void shouldFollowClockWhenItMovesBackwards() {
+        MutableClock source = new MutableClock(Instant.parse("2024-08-31T12:00:00Z"), ZoneOffset.UTC);
+        BusinessClock clock = new BusinessClock(source);
+        assertEquals(LocalDate.of(2024, 8, 31), clock.today());
+
+        source.advance(Duration.ofDays(-1));
+        assertEquals(LocalDate.of(2024, 8, 30), clock.today());
+    }
+
+    @Test
+    @DisplayName("Should keep a pinned day across midnight on the pinning thread only")
+    void shouldKeepPinnedDayAcrossMidnight() throws InterruptedException {
+        MutableClock source = new MutableClock(Instant.parse("2024-08-30T23:59:59Z"), ZoneOffset.UTC);
+        BusinessClock clock = new BusinessClock(source);
+
+        clock.pin();
+        try {
+            source.advance(Duration.ofSeconds(1));
+            assertEquals(LocalDate.of(2024, 8, 30), clock.today());
+            assertEquals(LocalDate.of(2024, 8, 31), clock.nextMidnight().toLocalDate());
+
+            LocalDate[] otherThread = new LocalDate[1];
+            Thread reader = new Thread(() -> otherThread[0] = clock.today());
+            reader.start();
+            reader.join();
+            assertEquals(LocalDate.of(2024, 8, 31), otherThread[0]);
+        } finally {
+            clock.unpin();
+        }
+        assertEquals(LocalDate.of(2024, 8, 31), clock.today());
+    }
+
+    @Test
+    @DisplayName("Should use the configured zone id")
+    void shouldUseConfiguredZoneId() {
+        assertEquals(SAO_PAULO, new BusinessClock("America/Sao_Paulo").getZone());
+        assertEquals(ZoneId.systemDefault(), new BusinessClock("").getZone());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+        private final ZoneId zone;
+
+        MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
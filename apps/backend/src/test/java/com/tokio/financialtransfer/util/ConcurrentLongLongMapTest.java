@@ -0,0 +1,111 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Concurrent Long-Long Map Tests")
+class ConcurrentLongLongMapTest {
+
+    @Test
+    @DisplayName("Should add, read and drop keys whose value returns to zero")
+    void shouldAddAndRemoveOnZero() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap(16);
+
+        assertEquals(0, map.get(42));
+        assertEquals(150, map.addAndGet(42, 150));
+        assertEquals(200, map.addAndGet(42, 50));
+        assertEquals(200, map.get(42));
+        assertEquals(1, map.size());
+
+        assertEquals(0, map.addAndGet(42, -200));
+        assertEquals(0, map.get(42));
+        assertEquals(0, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should only add when the result stays within the maximum")
+    void shouldAddIfNotAboveMaximum() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap();
+
+        assertTrue(map.addIfNotAbove(7, 600, 1000));
+        assertTrue(map.addIfNotAbove(7, 400, 1000));
+        assertFalse(map.addIfNotAbove(7, 1, 1000));
+        assertFalse(map.addIfNotAbove(8, 1001, 1000));
+        assertEquals(1000, map.get(7));
+        assertEquals(0, map.get(8));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Should match a HashMap through growth and removals")
+    void shouldMatchReferenceMap() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap(16);
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            long delta = random.nextInt(3) - 1;
+            long expected = reference.getOrDefault(key, 0L) + delta;
+            if (expected == 0) {
+                reference.remove(key);
+            } else {
+                reference.put(key, expected);
+            }
+            assertEquals(expected, map.addAndGet(key, delta));
+        }
+
+        assertEquals(reference.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(reference.getOrDefault(key, 0L), map.get(key));
+        }
+
+        int removed = map.removeKeysIf(key -> key % 2 == 0);
+        assertEquals(reference.keySet().stream().filter(key -> key % 2 == 0).count(), removed);
+        reference.keySet().forEach(key -> assertEquals(key % 2 == 0 ? 0 : reference.get(key), map.get(key)));
+
+        map.clear();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    @DisplayName("Should never exceed the maximum under concurrent adds")
+    void shouldKeepMaximumUnderConcurrency() throws Exception {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                int accepted = 0;
+                for (int i = 0; i < 10_000; i++) {
+                    if (map.addIfNotAbove(i % 16, 3, 9_000)) {
+                        accepted++;
+                    }
+                }
+                return accepted;
+            }));
+        }
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        executor.shutdown();
+
+        assertEquals(16 * 3_000, accepted);
+        for (long key = 0; key < 16; key++) {
+            assertEquals(9_000, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Count-Min Sketch Tests")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Should count exactly while keys do not collide")
+    void shouldCountSingleKey() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+
+        assertEquals(0, sketch.estimate(42));
+        assertEquals(1, sketch.add(42, 1));
+        assertEquals(5, sketch.add(42, 4));
+        assertEquals(5, sketch.estimate(42));
+        assertEquals(0, sketch.estimate(43));
+        assertEquals(4 * 1024 * Long.BYTES, sketch.getMemoryBytes());
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 1024));
+    }
+
+    @Test
+    @DisplayName("Should never undercount and stay within the error bound under heavy collisions")
+    void shouldBoundOvercount() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        long[] counts = new long[20_000];
+        Random random = new Random(11);
+        int total = 200_000;
+        for (int i = 0; i < total; i++) {
+            int key = random.nextInt(counts.length);
+            counts[key]++;
+            sketch.add(key, 1);
+        }
+
+        // e * total / width, exceeded with probability e^-depth per key
+        double bound = Math.E * total / sketch.getWidth();
+        int overBound = 0;
+        for (int key = 0; key < counts.length; key++) {
+            long estimate = sketch.estimate(key);
+            assertTrue(estimate >= counts[key]);
+            if (estimate - counts[key] > bound) {
+                overBound++;
+            }
+        }
+        assertTrue(overBound < counts.length * 0.02, "keys over the error bound: " + overBound);
+    }
+
+    @Test
+    @DisplayName("Should not lose updates from concurrent writers")
+    void shouldCountConcurrently() throws Exception {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    sketch.add(7, 1);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(200_000, sketch.estimate(7));
+    }
+}
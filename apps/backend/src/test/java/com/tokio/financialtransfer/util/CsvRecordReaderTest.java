@@ -0,0 +1,99 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CSV Record Reader Tests")
+class CsvRecordReaderTest {
+
+    @Test
+    @DisplayName("Should read fields, quotes and line numbers across line endings")
+    void shouldReadFieldsQuotesAndLineNumbers() throws IOException {
+        String csv = "\uFEFFa,b,c\r\n"
+                + "\n"
+                + "\"x,1\",\"say \"\"hi\"\"\",\r\n"
+                + "\"multi\nline\",z\n"
+                + "last";
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv), 100);
+
+        assertRecord(reader, 1, "a", "b", "c");
+        assertRecord(reader, 3, "x,1", "say \"hi\"", "");
+        assertRecord(reader, 4, "multi\nline", "z");
+        assertRecord(reader, 6, "last");
+        assertFalse(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should give the same records when the input arrives one character at a time")
+    void shouldHandleBufferBoundaries() throws IOException {
+        String csv = "\uFEFF\"a\"\"b\",c\r\n1,2\n";
+
+        CsvRecordReader reader = new CsvRecordReader(new OneCharReader(csv), 100);
+
+        assertRecord(reader, 1, "a\"b", "c");
+        assertRecord(reader, 2, "1", "2");
+        assertFalse(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should skip a record that is too long and carry on with the next one")
+    void shouldSkipRecordThatIsTooLong() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            csv.append("0123456789,");
+        }
+        csv.append("\nok,1\n\"open");
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv.toString()), 20);
+
+        assertTrue(reader.next());
+        assertEquals(1, reader.getLineNumber());
+        assertEquals("Linha excede o tamanho máximo de 20 caracteres", reader.getError());
+        assertRecord(reader, 2, "ok", "1");
+        assertTrue(reader.next());
+        assertEquals("Aspas não fechadas", reader.getError());
+        assertFalse(reader.next());
+    }
+
+    private static void assertRecord(CsvRecordReader reader, long line, String... fields) throws IOException {
+        assertTrue(reader.next());
+        assertNull(reader.getError());
+        assertEquals(line, reader.getLineNumber());
+        List<String> actual = new ArrayList<>();
+        for (int i = 0; i < reader.getFieldCount(); i++) {
+            actual.add(reader.getField(i));
+        }
+        assertEquals(List.of(fields), actual);
+    }
+
+    private static final class OneCharReader extends Reader {
+        private final String text;
+        private int position;
+
+        private OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
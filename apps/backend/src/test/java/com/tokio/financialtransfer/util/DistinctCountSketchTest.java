@@ -0,0 +1,94 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Distinct Count Sketch Tests")
+class DistinctCountSketchTest {
+
+    @Test
+    @DisplayName("Should count repeated items once")
+    void shouldIgnoreRepeatedItems() {
+        DistinctCountSketch sketch = new DistinctCountSketch(2, 256);
+
+        assertEquals(0.0, sketch.estimate(1));
+        for (int i = 0; i < 100; i++) {
+            sketch.offer(1, 500);
+            sketch.offer(1, 501);
+        }
+
+        assertEquals(2.0, sketch.estimate(1), 0.5);
+        assertEquals(0.0, sketch.estimate(2));
+        assertEquals(2 * 256 * DistinctCountSketch.REGISTERS, sketch.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should estimate small and large distinct counts per key")
+    void shouldEstimateDistinctCounts() {
+        DistinctCountSketch sketch = new DistinctCountSketch(2, 1024);
+        for (long item = 0; item < 10; item++) {
+            sketch.offer(1, item);
+        }
+        for (long item = 0; item < 5_000; item++) {
+            sketch.offer(2, 1_000_000 + item);
+            sketch.offer(2, 1_000_000 + item);
+        }
+
+        assertEquals(10.0, sketch.estimate(1), 2.0);
+        assertEquals(5_000.0, sketch.estimate(2), 5_000 * 0.4);
+    }
+
+    @Test
+    @DisplayName("Should count items seen in both sketches once in the union")
+    void shouldEstimateUnion() {
+        DistinctCountSketch previous = new DistinctCountSketch(2, 256);
+        DistinctCountSketch current = new DistinctCountSketch(2, 256);
+        for (long item = 0; item < 8; item++) {
+            previous.offer(1, item);
+        }
+        for (long item = 4; item < 12; item++) {
+            current.offer(1, item);
+        }
+
+        assertEquals(12.0, current.estimateUnion(1, previous), 2.5);
+        assertEquals(current.estimate(1), current.estimateUnion(1, null));
+        assertThrows(IllegalArgumentException.class, () -> current.estimateUnion(1, new DistinctCountSketch(2, 512)));
+    }
+
+    @Test
+    @DisplayName("Should keep every register update from concurrent writers")
+    void shouldOfferConcurrently() throws Exception {
+        DistinctCountSketch concurrent = new DistinctCountSketch(2, 16);
+        DistinctCountSketch sequential = new DistinctCountSketch(2, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (long item = thread; item < 20_000; item += 4) {
+                    concurrent.offer(item % 40, item);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        for (long item = 0; item < 20_000; item++) {
+            sequential.offer(item % 40, item);
+        }
+
+        // Registers only ever keep the maximum, so the order of updates does not matter
+        for (long key = 0; key < 40; key++) {
+            assertEquals(sequential.estimate(key), concurrent.estimate(key));
+        }
+    }
+}
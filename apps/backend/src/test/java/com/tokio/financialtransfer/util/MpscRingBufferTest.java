@@ -0,0 +1,87 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MPSC Ring Buffer Tests")
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("Should hand elements back in order and reject offers when full")
+    void shouldDrainInOrderAndRejectWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.getCapacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drain(drained::add, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        assertTrue(buffer.offer(6));
+        assertFalse(buffer.offer(7));
+
+        drained.clear();
+        assertEquals(4, buffer.drain(drained::add, 10));
+        assertEquals(List.of(3, 4, 5, 6), drained);
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.drain(drained::add, 10));
+    }
+
+    @Test
+    @DisplayName("Should deliver every element once with concurrent producers")
+    void shouldDeliverEveryElementOnceWithConcurrentProducers() throws Exception {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+
+            boolean[] seen = new boolean[producers * perProducer];
+            int[] lastByProducer = new int[producers];
+            Arrays.fill(lastByProducer, -1);
+            int received = 0;
+            while (received < seen.length) {
+                received += buffer.drain(value -> {
+                    assertFalse(seen[value], "delivered twice: " + value);
+                    seen[value] = true;
+                    int producer = value / perProducer;
+                    assertTrue(value % perProducer > lastByProducer[producer], "out of order for one producer");
+                    lastByProducer[producer] = value % perProducer;
+                }, 32);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertTrue(buffer.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
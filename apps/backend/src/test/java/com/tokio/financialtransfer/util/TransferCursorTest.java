@@ -0,0 +1,41 @@
+package com.tokio.financialtransfer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transfer Cursor Tests")
+class TransferCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip the sort key through an opaque token")
+    void shouldRoundTripSortKey() {
+        LocalDateTime scheduleDate = LocalDateTime.of(2024, 8, 30, 10, 15, 30, 123_456_000);
+
+        String token = new TransferCursor(scheduleDate, 42L).encode();
+        TransferCursor decoded = TransferCursor.decode(token);
+
+        assertFalse(token.contains("2024"));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token must be URL safe");
+        assertEquals(scheduleDate, decoded.getScheduleDate());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens that were not produced by the listing")
+    void shouldRejectForeignTokens() {
+        assertThrows(IllegalArgumentException.class, () -> TransferCursor.decode("@@@"));
+        assertThrows(IllegalArgumentException.class, () -> TransferCursor.decode(encode("no separator")));
+        assertThrows(IllegalArgumentException.class, () -> TransferCursor.decode(encode("2024-08-30T10:15|abc")));
+        assertThrows(IllegalArgumentException.class, () -> TransferCursor.decode(encode("yesterday|1")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
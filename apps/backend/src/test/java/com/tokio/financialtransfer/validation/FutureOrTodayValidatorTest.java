@@ -0,0 +1,53 @@
+package com.tokio.financialtransfer.validation;
+
+import com.tokio.financialtransfer.util.BusinessClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Future Or Today Validator Tests")
+class FutureOrTodayValidatorTest {
+
+    private final LocalDate today = LocalDate.of(2024, 8, 30);
+    private FutureOrTodayValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new FutureOrTodayValidator();
+        validator.setBusinessClock(BusinessClock.fixed(today));
+    }
+
+    @Test
+    @DisplayName("Should accept today and future dates")
+    void shouldAcceptTodayAndFutureDates() {
+        assertTrue(validator.isValid(today, null));
+        assertTrue(validator.isValid(today.plusDays(1), null));
+        assertTrue(validator.isValid(today.plusYears(1), null));
+    }
+
+    @Test
+    @DisplayName("Should reject past dates")
+    void shouldRejectPastDates() {
+        assertFalse(validator.isValid(today.minusDays(1), null));
+        assertFalse(validator.isValid(today.minusYears(1), null));
+    }
+
+    @Test
+    @DisplayName("Should accept null and leave it to @NotNull")
+    void shouldAcceptNull() {
+        assertTrue(validator.isValid(null, null));
+    }
+
+    @Test
+    @DisplayName("Should use the system clock when no business clock is injected")
+    void shouldUseSystemClockByDefault() {
+        FutureOrTodayValidator defaultValidator = new FutureOrTodayValidator();
+
+        assertTrue(defaultValidator.isValid(LocalDate.now().plusDays(1), null));
+        assertFalse(defaultValidator.isValid(LocalDate.now().minusDays(2), null));
+    }
+}
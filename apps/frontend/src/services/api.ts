@@ -27,10 +27,16 @@ const api = ofetch.create({
   }
 })
 
+// crypto.randomUUID only exists in secure contexts; the app is also opened over plain http by IP
+const newIdempotencyKey = () =>
+  Array.from(crypto.getRandomValues(new Uint8Array(16)), (byte) => byte.toString(16).padStart(2, '0')).join('')
+
 type BaseApiResponse<T> = {
   data: T | null
   status: 'SUCCESS' | 'ERROR'
   message: string | null
+  // Only on paged listings: cursor of the following page, absent on the last one
+  nextCursor?: string
 }
 
 export interface TransferRequest {
@@ -50,6 +56,15 @@ export interface TransferResponse {
   scheduleDate: string
 }
 
+export interface TransferSearchFilters {
+  sourceAccount?: string
+  destinationAccount?: string
+  transferDateFrom?: string
+  transferDateTo?: string
+  amountMin?: number
+  amountMax?: number
+}
+
 export interface FeeCalculationRequest {
   transferAmount: number
   transferDate: string
@@ -60,15 +75,23 @@ export interface FeeCalculationResponse {
 }
 
 export const transferApi = {
-  scheduleTransfer: (data: TransferRequest) => 
+  // One key per scheduling attempt: the automatic retries reuse it, so the backend replays
+  // the first response instead of scheduling the transfer again
+  scheduleTransfer: (data: TransferRequest, idempotencyKey: string = newIdempotencyKey()) =>
     api<BaseApiResponse<TransferResponse>>('/transfers', {
       method: 'POST',
       body: data,
+      headers: { 'Idempotency-Key': idempotencyKey },
     }),
   
   getAllTransfers: () => 
     api<BaseApiResponse<TransferResponse[]>>('/transfers'),
 
+  searchTransfers: (filters: TransferSearchFilters, cursor?: string, limit = 500) =>
+    api<BaseApiResponse<TransferResponse[]>>('/transfers/search', {
+      query: { ...filters, limit, cursor },
+    }),
+
   calculateFee: (data: FeeCalculationRequest) => 
     api<BaseApiResponse<FeeCalculationResponse>>('/transfers/calculate-fee', {
       method: 'POST',
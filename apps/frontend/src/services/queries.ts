@@ -1,5 +1,6 @@
-import { useMutation, useQuery, useQueryClient } from '@tanstack/vue-query'
-import { transferApi, type TransferRequest, type FeeCalculationRequest } from './api'
+import { computed, type Ref } from 'vue'
+import { useInfiniteQuery, useMutation, useQuery, useQueryClient } from '@tanstack/vue-query'
+import { transferApi, type TransferRequest, type FeeCalculationRequest, type TransferSearchFilters } from './api'
 
 export const transferKeys = {
   all: ['transfers'] as const,
@@ -22,6 +23,30 @@ export function useTransfers() {
   })
 }
 
+const hasFilters = (filters: TransferSearchFilters) =>
+  Object.values(filters).some(value => value !== undefined && value !== '')
+
+// Filtering happens on the server; without filters this is the plain listing. Search results
+// come in pages: `data` holds every page loaded so far and `fetchNextPage` follows `nextCursor`
+export function useTransferSearch(filters: Ref<TransferSearchFilters>) {
+  const query = useInfiniteQuery({
+    queryKey: computed(() => transferKeys.list(filters.value)),
+    queryFn: async ({ pageParam }) => {
+      const response = hasFilters(filters.value)
+        ? await transferApi.searchTransfers(filters.value, pageParam)
+        : await transferApi.getAllTransfers()
+      return { transfers: response.data ?? [], nextCursor: response.nextCursor }
+    },
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => lastPage.nextCursor,
+    staleTime: 1000 * 60 * 5,
+    gcTime: 1000 * 60 * 30,
+  })
+
+  const transfers = computed(() => query.data.value?.pages.flatMap(page => page.transfers))
+  return { ...query, data: transfers }
+}
+
 export function useFeeCalculation() {
   return useMutation({
     mutationFn: async (params: FeeCalculationRequest) => {